@@ -0,0 +1,702 @@
+--
+-- File generated with SQLiteStudio v3.0.6 on Wed Nov 4 00:01:25 2015
+--
+-- Text encoding used: windows-1252
+--
+PRAGMA foreign_keys = off;
+BEGIN TRANSACTION;
+
+-- Table: CiscoLinksysE1201
+CREATE TABLE CiscoLinksysE1201 (RSS INTEGER, Office STRING REFERENCES TrainingPointLocations (Office));
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (53, 'E1');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (60, 'E2');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (61, 'E3');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (68, 'E4');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (61, 'E5');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (57, 'E6');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (49, 'E7');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (55, 'E8');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (55, 'E9');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (62, 'E10');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (71, 'E11');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (74, 'E12');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (66, 'E13');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (70, 'E14');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (79, 'E15');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (79, 'E16');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (87, 'E17');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (76, 'E18');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (80, 'E19');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (85, 'E20');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (83, 'E36');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (79, 'E37');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (71, 'E38');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (73, 'E39');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (81, 'E40');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (71, 'E41');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (67, 'E42');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (59, 'E43');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (54, 'E44');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (52, 'E45');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (48, 'E46');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (43, 'E47');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (42, 'E48');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (43, 'E49');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (55, 'E50');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (51, 'E51');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (60, 'E52');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (47, 'E53');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (43, 'E54');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (37, 'E55');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (35, 'E56');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (49, 'E57');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (56, 'E58');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (56, 'E59');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (57, 'E60');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (64, 'E61');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (71, 'E62');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (73, 'E63');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (73, 'E64');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (73, 'E65');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (76, 'E66');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (76, 'E67');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (60, 'B101');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (66, 'B102');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (70, 'B103');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (66, 'B104');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (63, 'B105');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (67, 'B106');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (68, 'B108');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (70, 'B109');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (66, 'B111');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (56, 'B112');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (55, 'B113');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (49, 'B114');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (48, 'B115');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (76, 'B116');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (90, 'B301');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (84, 'B302');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (82, 'B303');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (86, 'B304');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (77, 'B305');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (83, 'B305A');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (86, 'B306');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (91, 'B307');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (82, 'B308');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (92, 'B309');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (80, 'B310');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (95, 'B311');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (88, 'B312');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (80, 'B313');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (83, 'B314');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (79, 'B314A');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (76, 'B315');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (82, 'B316');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (71, 'B317');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (78, 'B318');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (70, 'B319');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (78, 'B320');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (76, 'B321');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (79, 'B322');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (85, 'B323');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (76, 'B324');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (99, 'B401');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (99, 'B402');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (100, 'B403');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (98, 'B404');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (95, 'B405');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (99, 'B406');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (96, 'B407');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (90, 'B408');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (87, 'B409');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (83, 'B410');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (82, 'B411');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (80, 'B412');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (70, 'B413');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (69, 'B414');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (66, 'B415');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (83, 'B416');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (88, 'B417');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (90, 'B418');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (94, 'B419');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (94, 'B420');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (85, 'B421');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (88, 'B422');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (88, 'B423');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (81, 'B424');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (82, 'B425');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (73, 'B426');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (83, 'B427');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (82, 'B428');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (87, 'B429');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (85, 'B430');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (79, 'A100');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (69, 'A101');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (74, 'A102');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (79, 'A103');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (79, 'A104');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (83, 'A105');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (76, 'A106');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (92, 'A107');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (105, 'A108');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (88, 'A109');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (56, 'A110');
+INSERT INTO CiscoLinksysE1201 (RSS, Office) VALUES (73, 'A115');
+
+-- Table: CiscoLinksysE1202
+CREATE TABLE CiscoLinksysE1202 (RSS INTEGER, Office STRING REFERENCES TrainingPointLocations (Office));
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (85, 'E1');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (88, 'E2');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (87, 'E3');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (96, 'E4');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (90, 'E5');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (87, 'E6');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (79, 'E7');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (85, 'E8');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (82, 'E9');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (80, 'E10');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (85, 'E11');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (87, 'E12');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (82, 'E13');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (91, 'E14');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (90, 'E15');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (95, 'E16');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (98, 'E17');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (94, 'E18');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (99, 'E19');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (96, 'E20');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (96, 'E36');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (94, 'E37');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (91, 'E38');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (94, 'E39');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (91, 'E40');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (87, 'E41');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (84, 'E42');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (78, 'E43');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (80, 'E44');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (76, 'E45');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (77, 'E46');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (74, 'E47');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (79, 'E48');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (80, 'E49');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (82, 'E50');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (82, 'E51');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (78, 'E52');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (76, 'E53');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (75, 'E54');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (74, 'E55');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (75, 'E56');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (76, 'E57');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (79, 'E58');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (76, 'E59');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (82, 'E60');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (74, 'E61');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (81, 'E62');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (92, 'E63');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (91, 'E64');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (95, 'E65');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (95, 'E66');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (98, 'E67');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (76, 'A100');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (79, 'A101');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (79, 'A102');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (76, 'A103');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (72, 'A104');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (76, 'A105');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (70, 'A106');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (81, 'A107');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (78, 'A108');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (84, 'A109');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (75, 'A110');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (68, 'A115');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (71, 'B101');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (68, 'B102');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (63, 'B103');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (52, 'B104');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (49, 'B105');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (53, 'B106');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (73, 'B108');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (56, 'B109');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (59, 'B111');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (61, 'B112');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (57, 'B113');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (67, 'B114');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (73, 'B115');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (55, 'B116');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (71, 'B301');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (68, 'B302');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (66, 'B303');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (66, 'B304');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (53, 'B305');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (63, 'B305A');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (69, 'B306');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (71, 'B307');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (64, 'B308');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (79, 'B309');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (73, 'B310');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (76, 'B311');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (76, 'B312');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (74, 'B313');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (70, 'B314');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (68, 'B314A');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (59, 'B315');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (64, 'B316');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (53, 'B317');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (76, 'B318');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (35, 'B319');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (59, 'B320');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (44, 'B321');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (45, 'B322');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (56, 'B323');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (69, 'B324');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (90, 'B401');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (88, 'B402');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (88, 'B403');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (83, 'B404');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (76, 'B405');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (92, 'B406');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (86, 'B407');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (88, 'B408');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (90, 'B409');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (84, 'B410');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (85, 'B411');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (84, 'B412');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (77, 'B413');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (69, 'B414');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (65, 'B415');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (71, 'B416');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (72, 'B417');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (79, 'B418');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (87, 'B419');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (80, 'B420');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (82, 'B421');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (83, 'B422');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (79, 'B423');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (76, 'B424');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (63, 'B425');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (68, 'B426');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (76, 'B427');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (79, 'B428');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (81, 'B429');
+INSERT INTO CiscoLinksysE1202 (RSS, Office) VALUES (86, 'B430');
+
+-- Table: TrainingPointLocations
+CREATE TABLE TrainingPointLocations (Office STRING PRIMARY KEY, x INTEGER, y INTEGER);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E1', 141, 290);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E2', 141, 236);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E3', 141, 156);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E4', 141, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E5', 267, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E6', 358, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E7', 418, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E8', 499, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E9', 592, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E10', 676, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E11', 739, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E12', 803, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E13', 863, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E14', 926, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E15', 989, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E16', 1055, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E17', 1116, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E18', 1179, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E19', 1246, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E20', 1322, 71);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E36', 1329, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E37', 1264, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E38', 1198, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E39', 1131, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E40', 1063, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E41', 948, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E42', 891, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E43', 820, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E44', 759, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E45', 691, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E46', 575, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E47', 512, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E48', 445, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E49', 379, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E50', 315, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E51', 247, 171);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E52', 243, 232);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E53', 310, 232);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E54', 376, 232);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E55', 445, 232);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E56', 512, 232);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E57', 573, 232);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E58', 683, 232);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E59', 749, 232);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E60', 818, 232);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E61', 884, 232);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E62', 948, 232);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E63', 1063, 232);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E64', 1133, 232);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E65', 1195, 236);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E66', 1263, 232);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('E67', 1325, 232);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('A100', 130, 587);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('A101', 79, 355);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('A102', 79, 422);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('A103', 79, 481);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('A104', 69, 549);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('A105', 69, 617);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('A106', 75, 686);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('A107', 80, 748);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('A108', 89, 807);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('A109', 171, 794);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('A110', 169, 333);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('A115', 278, 512);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B101', 271, 340);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B102', 271, 427);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B103', 370, 464);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B104', 460, 464);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B105', 548, 464);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B106', 642, 464);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B108', 738, 341);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B109', 759, 458);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B111', 598, 338);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B112', 537, 344);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B113', 474, 344);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B114', 412, 344);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B115', 351, 344);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B116', 744, 514);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B301', 913, 663);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B302', 828, 663);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B303', 740, 663);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B304', 630, 696);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B305', 581, 698);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B305A', 530, 695);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B306', 619, 813);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B307', 532, 809);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B308', 491, 694);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B309', 447, 810);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B310', 372, 694);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B311', 360, 809);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B312', 262, 797);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B313', 261, 707);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B314', 259, 615);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B314A', 259, 576);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B315', 370, 528);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B316', 369, 636);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B317', 463, 525);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B318', 454, 635);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B319', 559, 529);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B320', 526, 631);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B321', 643, 527);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B322', 751, 564);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B323', 580, 632);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B324', 634, 630);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B401', 1313, 660);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B402', 1228, 661);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B403', 1153, 662);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B404', 1077, 661);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B405', 994, 662);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B406', 1320, 560);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B407', 1320, 516);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B408', 1322, 461);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B409', 1324, 344);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B410', 1230, 341);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B411', 1147, 340);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B412', 1070, 341);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B413', 998, 342);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B414', 915, 340);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B415', 826, 341);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B416', 866, 578);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B417', 934, 576);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B418', 1004, 575);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B419', 1078, 573);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B420', 1144, 573);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B421', 1148, 520);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B422', 1076, 520);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B423', 1010, 520);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B424', 936, 520);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B425', 865, 517);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B426', 862, 442);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B427', 931, 442);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B428', 1005, 441);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B429', 1078, 441);
+INSERT INTO TrainingPointLocations (Office, x, y) VALUES ('B430', 1146, 442);
+
+-- Table: CiscoLinksysE1203
+CREATE TABLE CiscoLinksysE1203 (RSS INTEGER, Office STRING REFERENCES TrainingPointLocations (Office));
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (94, 'E1');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (99, 'E2');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (105, 'E3');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (105, 'E4');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (105, 'E5');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (105, 'E6');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (105, 'E7');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (96, 'E8');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (92, 'E9');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (88, 'E10');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (92, 'E11');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (85, 'E12');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (87, 'E13');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (90, 'E14');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (85, 'E15');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (83, 'E16');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (86, 'E17');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (82, 'E18');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (77, 'E19');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (83, 'E20');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (82, 'E36');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (80, 'E37');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (74, 'E38');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (76, 'E39');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (73, 'E40');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (76, 'E41');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (79, 'E42');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (82, 'E43');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (86, 'E44');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (83, 'E45');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (87, 'E46');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (95, 'E47');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (88, 'E48');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (96, 'E49');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (96, 'E50');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (95, 'E51');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (96, 'E52');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (95, 'E53');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (91, 'E54');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (88, 'E55');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (92, 'E56');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (84, 'E57');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (85, 'E58');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (80, 'E59');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (78, 'E60');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (83, 'E61');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (68, 'E62');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (79, 'E63');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (76, 'E64');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (77, 'E65');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (84, 'E66');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (71, 'E67');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (71, 'B101');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (68, 'B102');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (63, 'B103');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (52, 'B104');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (49, 'B105');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (53, 'B106');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (73, 'B108');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (56, 'B109');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (59, 'B111');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (61, 'B112');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (57, 'B113');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (67, 'B114');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (73, 'B115');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (55, 'B116');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (71, 'B301');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (68, 'B302');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (66, 'B303');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (66, 'B304');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (53, 'B305');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (63, 'B305A');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (69, 'B306');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (71, 'B307');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (64, 'B308');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (79, 'B309');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (73, 'B310');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (76, 'B311');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (76, 'B312');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (74, 'B313');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (70, 'B314');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (68, 'B314A');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (59, 'B315');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (64, 'B316');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (53, 'B317');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (76, 'B318');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (35, 'B319');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (59, 'B320');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (44, 'B321');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (45, 'B322');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (56, 'B323');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (69, 'B324');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (90, 'B401');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (88, 'B402');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (88, 'B403');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (83, 'B404');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (76, 'B405');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (92, 'B406');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (86, 'B407');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (88, 'B408');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (90, 'B409');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (84, 'B410');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (85, 'B411');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (84, 'B412');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (77, 'B413');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (69, 'B414');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (65, 'B415');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (71, 'B416');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (72, 'B417');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (79, 'B418');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (87, 'B419');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (80, 'B420');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (82, 'B421');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (83, 'B422');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (79, 'B423');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (76, 'B424');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (63, 'B425');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (68, 'B426');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (76, 'B427');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (79, 'B428');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (81, 'B429');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (86, 'B430');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (76, 'A100');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (79, 'A101');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (79, 'A102');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (76, 'A103');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (72, 'A104');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (76, 'A105');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (70, 'A106');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (81, 'A107');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (78, 'A108');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (84, 'A109');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (75, 'A110');
+INSERT INTO CiscoLinksysE1203 (RSS, Office) VALUES (68, 'A115');
+
+-- Table: CiscoLinksysE1200
+CREATE TABLE CiscoLinksysE1200 (RSS INTEGER, Office STRING REFERENCES TrainingPointLocations (Office));
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (82, 'E1');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (81, 'E2');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (78, 'E3');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (83, 'E4');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (84, 'E5');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (82, 'E6');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (76, 'E7');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (82, 'E8');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (71, 'E9');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (68, 'E10');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (73, 'E11');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (63, 'E12');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (61, 'E13');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (53, 'E14');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (51, 'E15');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (54, 'E16');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (52, 'E17');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (44, 'E18');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (44, 'E19');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (55, 'E20');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (57, 'E36');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (48, 'E37');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (40, 'E38');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (34, 'E39');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (43, 'E40');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (47, 'E41');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (48, 'E42');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (53, 'E43');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (56, 'E44');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (65, 'E45');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (66, 'E46');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (73, 'E47');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (76, 'E48');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (80, 'E49');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (83, 'E50');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (82, 'E51');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (81, 'E52');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (79, 'E53');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (75, 'E54');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (76, 'E55');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (70, 'E56');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (70, 'E57');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (65, 'E58');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (65, 'E59');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (62, 'E60');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (54, 'E61');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (49, 'E62');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (41, 'E63');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (48, 'E64');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (49, 'E65');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (51, 'E66');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (53, 'E67');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (92, 'A100');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (90, 'A101');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (96, 'A102');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (95, 'A103');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (92, 'A104');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (95, 'A105');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (105, 'A106');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (105, 'A107');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (86, 'A108');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (105, 'A109');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (85, 'A110');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (96, 'A115');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (86, 'B101');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (95, 'B102');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (98, 'B103');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (99, 'B104');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (82, 'B105');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (82, 'B106');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (72, 'B108');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (76, 'B109');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (80, 'B111');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (75, 'B112');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (82, 'B113');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (83, 'B114');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (79, 'B115');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (85, 'B116');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (83, 'B301');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (85, 'B302');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (92, 'B303');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (99, 'B304');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (95, 'B305');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (105, 'B305A');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (105, 'B306');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (105, 'B307');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (100, 'B308');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (105, 'B309');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (105, 'B310');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (105, 'B311');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (105, 'B312');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (105, 'B313');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (105, 'B314');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (98, 'B314A');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (105, 'B315');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (105, 'B316');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (91, 'B317');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (105, 'B318');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (86, 'B319');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (95, 'B320');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (84, 'B321');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (86, 'B322');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (94, 'B323');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (92, 'B324');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (81, 'B401');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (84, 'B402');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (86, 'B403');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (91, 'B404');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (83, 'B405');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (85, 'B406');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (77, 'B407');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (75, 'B408');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (67, 'B409');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (66, 'B410');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (62, 'B411');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (63, 'B412');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (65, 'B413');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (61, 'B414');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (71, 'B415');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (88, 'B416');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (84, 'B417');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (90, 'B418');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (81, 'B419');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (82, 'B420');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (70, 'B421');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (76, 'B422');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (73, 'B423');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (79, 'B424');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (76, 'B425');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (71, 'B426');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (70, 'B427');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (70, 'B428');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (65, 'B429');
+INSERT INTO CiscoLinksysE1200 (RSS, Office) VALUES (72, 'B430');
+
+-- Table: APLocations
+CREATE TABLE APLocations (SSID STRING PRIMARY KEY, Office STRING UNIQUE, x INTEGER, y INTEGER);
+INSERT INTO APLocations (SSID, Office, x, y) VALUES ('CiscoLinksysE1201', 'E55', 445, 232);
+INSERT INTO APLocations (SSID, Office, x, y) VALUES ('CiscoLinksysE1202', 'B319', 559, 529);
+INSERT INTO APLocations (SSID, Office, x, y) VALUES ('CiscoLinksysE1203', 'B422', 1076, 520);
+INSERT INTO APLocations (SSID, Office, x, y) VALUES ('CiscoLinksysE1200', 'E39', 1131, 171);
+
+COMMIT TRANSACTION;
+PRAGMA foreign_keys = on;
@@ -9,34 +9,38 @@ import java.awt.Point;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
-import static java.lang.Integer.max;
-import static java.lang.Integer.min;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map.Entry;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JLayer;
 import javax.swing.JLayeredPane;
 import javax.swing.JOptionPane;
 import javax.swing.Timer;
-import org.apache.commons.csv.CSVRecord;
 import positioning.AccessPointObservationRecord;
+import positioning.BayesianFingerprinting;
+import positioning.EpochObservationBuffer;
 import positioning.Fingerprinting;
+import positioning.KalmanTrackSmoother;
+import positioning.ParticleFilter;
 import positioning.PatternMatching;
+import positioning.PositioningScheduler;
 import positioning.Triangulation;
 import positioning.Trilateration;
 import positioning.WeightedCentroid;
+import wifidatavisualizer.AccessPointScanSet;
 import wifidatavisualizer.MapDisplayPanel;
-import wifidatavisualizer.WifiDataReader;
 import wifidatavisualizer.NewWifiDataListener;
 import wifidatavisualizer.Constants;
+import wifidatavisualizer.EpochAligner;
 import wifidatavisualizer.ExportAlgorithmEstimatePointsListener;
 import wifidatavisualizer.NewTruthPathDataListener;
 import wifidatavisualizer.NewWifiDataListener.WifiDataType;
+import wifidatavisualizer.RssTimeSeries;
+import wifidatavisualizer.ScanDirectoryReader;
 import wifidatavisualizer.TruthPathDataReader;
 
 /**
@@ -55,19 +59,13 @@ public class MapView
    //Glass display panel
    MapDisplayPanel mMapDisplayPanel;
    JLayer<JLabel> mMapDisplayLayer;
-   //Wifi Data Reader
-   WifiDataReader mWifiDataReader = new WifiDataReader();
-   //Router SSID to parsed CSV record map
-   HashMap<String, Iterable<CSVRecord>> mSsidCsvRecordMap = new HashMap<>();
-   //Router Timestamp to RSS value maps
-   TreeMap<Integer, Integer> mRouter0TimestampRSSPairs = new TreeMap();
-   TreeMap<Integer, Integer> mRouter1TimestampRSSPairs = new TreeMap();
-   TreeMap<Integer, Integer> mRouter2TimestampRSSPairs = new TreeMap();
-   TreeMap<Integer, Integer> mRouter3TimestampRSSPairs = new TreeMap();
+   //RSS samples of every access point in the loaded wifi data, by access point ordinal
+   AccessPointScanSet mAccessPointScanSet = new AccessPointScanSet(new String[0], new RssTimeSeries[0]);
    //CSV Input file path prefix member variable
    String mCsvInputFilePathPrefix = "";
    //Router point array list
-   ArrayList<Point> mRouterPointList;
+   //Access point SSID to location map
+   HashMap<String, Point> mAccessPointLocations;
    //Wifi data listeners array list
    ArrayList<NewWifiDataListener> mWifiDataListeners;
    ArrayList<NewTruthPathDataListener> mTruthPathDataListeners;
@@ -81,6 +79,17 @@ public class MapView
    Point mLastFingerprintingPoint = new Point(0, 0);
    Point mLastWeightedCentroidPoint = new Point(0, 0);
    Point mLastPatternMatchingPoint = new Point(0, 0);
+   Point mLastBayesianPoint = new Point(0, 0);
+   //Particle filter trackers, one per algorithm
+   HashMap<WifiDataType, ParticleFilter> mParticleFilters = new HashMap<>();
+   //Timestamp of the epoch being positioned, and of each algorithm's last estimate, in milliseconds
+   long mEpochTimestampMilliseconds = 0;
+   EnumMap<WifiDataType, Long> mLastEstimateTimestamps = new EnumMap<>(WifiDataType.class);
+   //Evaluates every positioning algorithm on each epoch when running all algorithms
+   PositioningScheduler mPositioningScheduler = PositioningScheduler.createDefault();
+   //Kalman smoothing of every algorithm's estimate track
+   KalmanTrackSmoother mKalmanTrackSmoother = new KalmanTrackSmoother(Constants.KALMAN_PROCESS_SIGMA_PIXELS,
+                                                                      Constants.KALMAN_MEASUREMENT_SIGMA_PIXELS);
    TruthPathDataReader mTruthPathDataReader = new TruthPathDataReader();
    int mWifiDataTimeStampIntervalMilliseconds = Constants.DEFAULT_WIFI_DATA_COLLECTION_INTERVAL_MILLISECONDS;
 
@@ -97,17 +106,16 @@ public class MapView
       mStopPlaybackButton.setEnabled(false);
 
       mSliderValue = this.mNumberOfDataPointsSlider.getValue();
-      ArrayList<String> router_resource_path = new ArrayList<>();
-      for (int i = 0; i < 4; ++i)
-      {
-         String resource_string = "resources/router120" + i + ".PNG";
-         router_resource_path.add((getClass().getResource(resource_string)).getPath());
-      }//for
       mCsvInputFilePathPrefix = this.getClass().getResource("").getPath();
-      String url_to_database = "jdbc:sqlite:" + this.getClass().getResource("").getPath() + "/resources/bld2_ap_data.db";
-      mSqlLiteConnection.connect(url_to_database, "bld2_ap_data");
-      mRouterPointList = mSqlLiteConnection.loadRouterPointLocations();
-      mMapDisplayPanel = new MapDisplayPanel(mSqlLiteConnection.loadTrainingPointLocations(), mRouterPointList, router_resource_path);
+      //Prefer the compiled radio map produced by the build, fall back to the training database
+      String compiled_radio_map_path = this.getClass().getResource("").getPath() + "/resources/bld2_ap_data.rmap";
+      if (new File(compiled_radio_map_path).isFile() == false || mSqlLiteConnection.openCompiledRadioMap(compiled_radio_map_path) == false)
+      {
+         String url_to_database = "jdbc:sqlite:" + this.getClass().getResource("").getPath() + "/resources/bld2_ap_data.db";
+         mSqlLiteConnection.connect(url_to_database, "bld2_ap_data");
+      }//if
+      mAccessPointLocations = mSqlLiteConnection.loadAccessPointLocations();
+      mMapDisplayPanel = new MapDisplayPanel(mSqlLiteConnection.loadTrainingPointLocations(), mSqlLiteConnection.loadRouterPointLocations(null));
       mIndoorMap.setIcon(new javax.swing.ImageIcon(getClass().getResource("/Bld2_ULQuadrantLabelsRemoved.PNG"))); // NOI18N
       this.addListener(mMapDisplayPanel, mMapDisplayPanel, mMapDisplayPanel);
       mMapDisplayLayer = new JLayer<>(this.mIndoorMap, mMapDisplayPanel);
@@ -137,6 +145,15 @@ public class MapView
     */
    public void newWifiData(Point newData, NewWifiDataListener.WifiDataType dataType)
    {
+      double elapsed_seconds = getElapsedSeconds(dataType);
+      if (mParticleFilterMenuItem.isSelected())
+      {
+         newData = trackPoint(newData, dataType, elapsed_seconds);
+      }//if
+      if (mKalmanSmoothingMenuItem.isSelected())
+      {
+         mKalmanTrackSmoother.smooth(Constants.DEFAULT_DEVICE_ID, dataType, newData, elapsed_seconds, newData);
+      }//if
       //If it is fingerprinting, save off the last point
       if (dataType == NewWifiDataListener.WifiDataType.FINGERPRINTING)
       {
@@ -150,6 +167,10 @@ public class MapView
       {
          mLastPatternMatchingPoint = newData;
       }//if
+      if (dataType == NewWifiDataListener.WifiDataType.BAYESIAN)
+      {
+         mLastBayesianPoint = newData;
+      }//if
       // Notify everybody that may be interested.
       for (NewWifiDataListener hl : mWifiDataListeners)
       {
@@ -157,6 +178,47 @@ public class MapView
       }//for
    }//newWifiData
 
+   /**
+    * Returns the time since the algorithm's previous estimate and records the
+    * current epoch as its latest. Epochs with too few access points produce no
+    * estimate, so this can be several collection intervals.
+    *
+    * @param dataType the wifi data type
+    * @return the elapsed time in seconds, the collection interval for the
+    *         first estimate
+    */
+   private double getElapsedSeconds(NewWifiDataListener.WifiDataType dataType)
+   {
+      Long last_estimate_timestamp = mLastEstimateTimestamps.put(dataType, mEpochTimestampMilliseconds);
+      if (last_estimate_timestamp == null)
+      {
+         return mWifiDataTimeStampIntervalMilliseconds / 1000.0;
+      }//if
+      return (mEpochTimestampMilliseconds - last_estimate_timestamp) / 1000.0;
+   }//getElapsedSeconds
+
+   /**
+    * Fuses a new estimate into the particle filter track for its algorithm
+    *
+    * @param newData        the algorithm's estimate
+    * @param dataType       the wifi data type
+    * @param elapsedSeconds time since the algorithm's previous estimate
+    * @return the tracked position
+    */
+   private Point trackPoint(Point newData, NewWifiDataListener.WifiDataType dataType, double elapsedSeconds)
+   {
+      ParticleFilter particle_filter = mParticleFilters.get(dataType);
+      if (particle_filter == null)
+      {
+         particle_filter = new ParticleFilter(Constants.PARTICLE_FILTER_NUMBER_OF_PARTICLES,
+                                              Constants.PARTICLE_FILTER_MOTION_SIGMA_PIXELS,
+                                              Constants.PARTICLE_FILTER_MEASUREMENT_SIGMA_PIXELS,
+                                              dataType.ordinal());
+         mParticleFilters.put(dataType, particle_filter);
+      }//if
+      return particle_filter.update(newData, elapsedSeconds);
+   }//trackPoint
+
    public void newTruthPathData(ArrayList<Point> truthPathData)
    {
       for (NewTruthPathDataListener h1 : this.mTruthPathDataListeners)
@@ -200,6 +262,10 @@ public class MapView
       {
          data_type = NewWifiDataListener.WifiDataType.PATTERN_MATCHING;
       }//else if
+      else if (this.mBayesianMenuItem.isSelected())
+      {
+         data_type = NewWifiDataListener.WifiDataType.BAYESIAN;
+      }//else if
       else
       {
       }//else
@@ -211,107 +277,57 @@ public class MapView
    }//displayNPoints
 
    /**
-    * Finds the CSV input files for the given directory and reads them into the
-    * Wifi Data Reader
+    * Parses the chosen scan files, or the default data set if none were
+    * chosen. Every file is parsed in parallel and any number of access
+    * points is picked up.
     *
-    * @param pathPrefix      The path prefix for the data
-    * @param dataPath        The path string to the data
-    * @param routerPrefix    the SSID prefix of the routers
-    * @param numberOfRouters the number of CSV router files
+    * @param chosenFiles the files chosen by the user
     */
-   private void generateDefaultCSVInputFileList(String pathPrefix, String dataPath, String routerPrefix, int numberOfRouters)
-   {
-      HashMap<String, String> csv_input_map = new HashMap<>();
-      for (int i = 0; i < numberOfRouters; ++i)
-      {
-         String resource_string_path = pathPrefix + dataPath + routerPrefix + i + Constants.DEFAULT_DATA_FILE_EXTENSION;
-         csv_input_map.put(routerPrefix + i, resource_string_path);
-      }//for
-      mLoadedWifiDataPathLabel.setText(pathPrefix + dataPath);
-      this.mWifiDataReader.openCSVFiles(csv_input_map);
-   }//generateCSVInputFileList
-
-   private void generateCSVInputFileList(File[] fileList, String routerPrefix)
+   private void parseCSVRecords(File[] chosenFiles)
    {
-      HashMap<String, String> csv_input_map = new HashMap<>();
-      for (File csv_file : fileList)
+      ArrayList<File> scan_file_list = new ArrayList<>();
+      for (File chosen_file : chosenFiles)
       {
-         String file_name = csv_file.getName();
-         if (file_name.contains(routerPrefix + "0"))
-         {
-            csv_input_map.put(routerPrefix + "0", csv_file.getAbsolutePath());
-            mLoadedWifiDataPathLabel.setText(csv_file.getPath());
-         }
-         else if (file_name.contains(routerPrefix + "1"))
-         {
-            csv_input_map.put(routerPrefix + "1", csv_file.getAbsolutePath());
-         }
-         else if (file_name.contains(routerPrefix + "2"))
-         {
-            csv_input_map.put(routerPrefix + "2", csv_file.getAbsolutePath());
-         }
-         else if (file_name.contains(routerPrefix + "3"))
+         if (ScanDirectoryReader.isScanFile(chosen_file))
          {
-            csv_input_map.put(routerPrefix + "3", csv_file.getAbsolutePath());
-         }
-         else
-         {
-
-         }
-      }
-      this.mWifiDataReader.openCSVFiles(csv_input_map);
-   }//generateCSVInputFileList
-
-   /**
-    * Parses the CSV file records
-    */
-   private void parseCSVRecords(File[] chosenFiles)
-   {
-      if (chosenFiles.length != Constants.DEFAULT_NUMBER_OF_ROUTERS)
+            scan_file_list.add(chosen_file);
+         }//if
+      }//for
+      File[] scan_files = scan_file_list.toArray(new File[0]);
+      if (scan_files.length == 0)
       {
-         generateDefaultCSVInputFileList(mCsvInputFilePathPrefix, Constants.DEFAULT_DATA_PATH, Constants.ROUTER_PREFIX_SSID, Constants.DEFAULT_NUMBER_OF_ROUTERS);
+         File default_data_directory = new File(mCsvInputFilePathPrefix + Constants.DEFAULT_DATA_PATH);
+         scan_files = ScanDirectoryReader.listScanFiles(default_data_directory);
+         mLoadedWifiDataPathLabel.setText(default_data_directory.getPath());
       }//if
       else
       {
-         generateCSVInputFileList(chosenFiles, Constants.ROUTER_PREFIX_SSID);
-      }
-      for (int i = 0; i < 4; ++i)
+         mLoadedWifiDataPathLabel.setText(scan_files[0].getParent());
+      }//else
+      try
       {
-         mSsidCsvRecordMap.put(Constants.ROUTER_PREFIX_SSID + i, mWifiDataReader.parseRecords(Constants.ROUTER_PREFIX_SSID + i));
-      }//for
-      int i = 0;
-      mRouter0TimestampRSSPairs = this.mWifiDataReader.getSortedTreeMap(mSsidCsvRecordMap.get(Constants.ROUTER_PREFIX_SSID + i));
-      ++i;
-      mRouter1TimestampRSSPairs = this.mWifiDataReader.getSortedTreeMap(mSsidCsvRecordMap.get(Constants.ROUTER_PREFIX_SSID + i));
-      ++i;
-      mRouter2TimestampRSSPairs = this.mWifiDataReader.getSortedTreeMap(mSsidCsvRecordMap.get(Constants.ROUTER_PREFIX_SSID + i));
-      ++i;
-      mRouter3TimestampRSSPairs = this.mWifiDataReader.getSortedTreeMap(mSsidCsvRecordMap.get(Constants.ROUTER_PREFIX_SSID + i));
-      this.mWifiDataReader.closeFiles();
+         mAccessPointScanSet.close();
+         mAccessPointScanSet = ScanDirectoryReader.read(scan_files);
+      }//try
+      catch (IOException ex)
+      {
+         java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.SEVERE, null, ex);
+         mAccessPointScanSet = new AccessPointScanSet(new String[0], new RssTimeSeries[0]);
+      }//catch
+      //Draw the scanned access points that have a location, or every located one if nothing was scanned
+      ArrayList<String> scanned_ssids = null;
+      if (mAccessPointScanSet.getNumberOfAccessPoints() > 0)
+      {
+         scanned_ssids = new ArrayList<>();
+         for (int ap = 0; ap < mAccessPointScanSet.getNumberOfAccessPoints(); ++ap)
+         {
+            scanned_ssids.add(mAccessPointScanSet.getSSID(ap));
+         }//for
+      }//if
+      mMapDisplayPanel.setRouters(mSqlLiteConnection.loadRouterPointLocations(scanned_ssids));
+      mMapDisplayLayer.repaint();
    }//parseCSVRecords
 
-   /**
-    * Returns the last known timestamp from the router timestamp data
-    *
-    * @return latest known timestamp from all router data
-    */
-   private int getLatestTimestampFromRouters()
-   {
-      return max(max(max(mRouter0TimestampRSSPairs.lastKey().intValue(), mRouter1TimestampRSSPairs.lastKey().intValue()),
-                     mRouter2TimestampRSSPairs.lastKey().intValue()), mRouter3TimestampRSSPairs.lastKey().intValue());
-   }//getLatestTimestampFromRouters
-
-   /**
-    * Returns the earliest known timestamp from the router timestamp data
-    *
-    * @return earliest known timestamp from all router data
-    */
-   private int getEarliestTimestampFromRouters()
-   {
-      return min(min(min(mRouter0TimestampRSSPairs.firstKey().intValue(), mRouter1TimestampRSSPairs.firstKey().intValue()),
-                     mRouter2TimestampRSSPairs.firstKey().intValue()), mRouter3TimestampRSSPairs.firstKey().intValue());
-   }//getEarliestTimestampFromRouters
-
    /**
     * This method is called from within the constructor to
     * initialize the form.
@@ -352,6 +368,11 @@ public class MapView
       mPatternMatchingMenuItem = new javax.swing.JCheckBoxMenuItem();
       mTrilaterationMenuItem = new javax.swing.JCheckBoxMenuItem();
       mWeightedCentroidMenuItem = new javax.swing.JCheckBoxMenuItem();
+      mBayesianMenuItem = new javax.swing.JCheckBoxMenuItem();
+      jSeparator1 = new javax.swing.JPopupMenu.Separator();
+      mParticleFilterMenuItem = new javax.swing.JCheckBoxMenuItem();
+      mKalmanSmoothingMenuItem = new javax.swing.JCheckBoxMenuItem();
+      mRunAllAlgorithmsMenuItem = new javax.swing.JCheckBoxMenuItem();
 
       setDefaultCloseOperation(javax.swing.WindowConstants.EXIT_ON_CLOSE);
       setTitle("Wifi Data Visualizer");
@@ -673,6 +694,26 @@ public class MapView
       });
       mAlgorithmSelectorMenu.add(mWeightedCentroidMenuItem);
 
+      mBayesianMenuItem.setText("Bayesian Fingerprinting");
+      mBayesianMenuItem.addActionListener(new java.awt.event.ActionListener()
+      {
+         public void actionPerformed(java.awt.event.ActionEvent evt)
+         {
+            mBayesianMenuItemActionPerformed(evt);
+         }
+      });
+      mAlgorithmSelectorMenu.add(mBayesianMenuItem);
+      mAlgorithmSelectorMenu.add(jSeparator1);
+
+      mParticleFilterMenuItem.setText("Particle Filter Tracking");
+      mAlgorithmSelectorMenu.add(mParticleFilterMenuItem);
+
+      mKalmanSmoothingMenuItem.setText("Kalman Smoothing");
+      mAlgorithmSelectorMenu.add(mKalmanSmoothingMenuItem);
+
+      mRunAllAlgorithmsMenuItem.setText("Run All Algorithms");
+      mAlgorithmSelectorMenu.add(mRunAllAlgorithmsMenuItem);
+
       jMenuBar1.add(mAlgorithmSelectorMenu);
 
       setJMenuBar(jMenuBar1);
@@ -731,26 +772,34 @@ public class MapView
       File[] files = csv_data_collect_chooser.getSelectedFiles();
       parseCSVRecords(files);
       int ans = Integer.parseInt(JOptionPane.showInputDialog(null, "Please input the wifi data collection interval in seconds"));
-      if (ans <= 10 && ans >= 0)
+      if (ans <= 10 && ans > 0)
       {
          this.mWifiDataTimeStampIntervalMilliseconds = ans * 1000;
       }
       mLastFingerprintingPoint = this.mMapDisplayPanel.getCalibrationStartingPoint();
       mLastWeightedCentroidPoint = this.mMapDisplayPanel.getCalibrationStartingPoint();
       mLastPatternMatchingPoint = this.mMapDisplayPanel.getCalibrationStartingPoint();
-      if (mRouter0TimestampRSSPairs.size() > 0)
+      mLastBayesianPoint = this.mMapDisplayPanel.getCalibrationStartingPoint();
+      mParticleFilters.clear();
+      mLastEstimateTimestamps.clear();
+      mKalmanTrackSmoother.reset(Constants.DEFAULT_DEVICE_ID);
+      if (mAccessPointScanSet.isEmpty() == false)
       {
-         int start_timestamp = getEarliestTimestampFromRouters();
-         int end_timestamp = getLatestTimestampFromRouters();
-         for (int timestamp_reference = start_timestamp; timestamp_reference < end_timestamp + 500; timestamp_reference += mWifiDataTimeStampIntervalMilliseconds)
+         EpochAligner epoch_aligner = new EpochAligner(mAccessPointScanSet, mWifiDataTimeStampIntervalMilliseconds,
+                                                       Constants.RSS_AGGREGATION_WINDOW_MILLISECONDS, Constants.RSS_AGGREGATION_MODE);
+         EpochObservationBuffer observation_buffer = new EpochObservationBuffer(mAccessPointScanSet, mAccessPointLocations, mSqlLiteConnection);
+         try
          {
-            ArrayList<SortedMap<Integer, Integer>> mSubmapArrayList = new ArrayList<>();
-            mSubmapArrayList.add(mRouter0TimestampRSSPairs.subMap(timestamp_reference - 500, timestamp_reference + 500));
-            mSubmapArrayList.add(mRouter1TimestampRSSPairs.subMap(timestamp_reference - 500, timestamp_reference + 500));
-            mSubmapArrayList.add(mRouter2TimestampRSSPairs.subMap(timestamp_reference - 500, timestamp_reference + 500));
-            mSubmapArrayList.add(mRouter3TimestampRSSPairs.subMap(timestamp_reference - 500, timestamp_reference + 500));
-            makeApproximation(mSubmapArrayList);
-         }//for
+            while (epoch_aligner.nextEpoch())
+            {
+               mEpochTimestampMilliseconds = epoch_aligner.getTimestamp();
+               makeApproximation(observation_buffer.fill(epoch_aligner));
+            }//while
+         }//try
+         catch (IOException ex)
+         {
+            java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.SEVERE, null, ex);
+         }//catch
          this.repaint();
 
       }//if
@@ -780,6 +829,7 @@ public class MapView
          mWeightedCentroidMenuItem.setSelected(false);
          mTrilaterationMenuItem.setSelected(false);
          mPatternMatchingMenuItem.setSelected(false);
+         mBayesianMenuItem.setSelected(false);
       }//if
       else
       {
@@ -801,6 +851,7 @@ public class MapView
          mFingerprintingMenuItem.setSelected(false);
          mTrilaterationMenuItem.setSelected(false);
          mPatternMatchingMenuItem.setSelected(false);
+         mBayesianMenuItem.setSelected(false);
       }//if
       else
       {
@@ -821,6 +872,7 @@ public class MapView
          mFingerprintingMenuItem.setSelected(false);
          mWeightedCentroidMenuItem.setSelected(false);
          mPatternMatchingMenuItem.setSelected(false);
+         mBayesianMenuItem.setSelected(false);
       }//if
       else
       {
@@ -880,6 +932,7 @@ public class MapView
          mFingerprintingMenuItem.setSelected(false);
          mWeightedCentroidMenuItem.setSelected(false);
          mTrilaterationMenuItem.setSelected(false);
+         mBayesianMenuItem.setSelected(false);
       }//if
       else
       {
@@ -887,6 +940,21 @@ public class MapView
       }//else
    }//GEN-LAST:event_mPatternMatchingMenuItemActionPerformed
 
+   private void mBayesianMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_mBayesianMenuItemActionPerformed
+   {//GEN-HEADEREND:event_mBayesianMenuItemActionPerformed
+      if (mBayesianMenuItem.isSelected())
+      {
+         mFingerprintingMenuItem.setSelected(false);
+         mWeightedCentroidMenuItem.setSelected(false);
+         mTrilaterationMenuItem.setSelected(false);
+         mPatternMatchingMenuItem.setSelected(false);
+      }//if
+      else
+      {
+         mBayesianMenuItem.setSelected(true);
+      }//else
+   }//GEN-LAST:event_mBayesianMenuItemActionPerformed
+
    private void mLoadPathMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_mLoadPathMenuItemActionPerformed
    {//GEN-HEADEREND:event_mLoadPathMenuItemActionPerformed
       // TODO add your handling code here:
@@ -927,6 +995,10 @@ public class MapView
       {
          wifi_data_type = WifiDataType.WEIGHTED_CENTROID;
       }
+      if (mBayesianMenuItem.isSelected())
+      {
+         wifi_data_type = WifiDataType.BAYESIAN;
+      }
       newExportAlgorithmEstimateRequest(wifi_data_type);
    }//GEN-LAST:event_mExportCurrentAlgorithmOutputActionPerformed
 
@@ -934,55 +1006,59 @@ public class MapView
     * Given the known data points, makes an approximation using the available
     * algorithm techniques
     *
-    * @param accessPointArrayList
+    * @param accessPointList the epoch's access point observation record
+    *                        list, reused by the next epoch
     */
-   private void makeApproximation(ArrayList<SortedMap<Integer, Integer>> accessPointArrayList)
+   private void makeApproximation(ArrayList<AccessPointObservationRecord> accessPointList)
    {
-      ArrayList<AccessPointObservationRecord> access_point_list = new ArrayList<>();
-      int active_router_index = 0;
-      for (int i = 0; i < accessPointArrayList.size(); ++i)
+      for (AccessPointObservationRecord access_point : accessPointList)
       {
-         if (accessPointArrayList.get(i).size() == 1 && mRouterPointList.size() == Constants.DEFAULT_NUMBER_OF_ROUTERS && accessPointArrayList.get(i).isEmpty() == false)
-         {
-            access_point_list.add(new AccessPointObservationRecord(accessPointArrayList.get(i).entrySet().iterator().next().getValue(), mRouterPointList.get(i), "CiscoLinksysE120" + i));
-            java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.INFO, "RSS: {0}", access_point_list.get(active_router_index).getSignalLevel());
-            java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.INFO, "SSID: {0}", access_point_list.get(active_router_index).getSSID());
-            java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.INFO, "Point: {0}", access_point_list.get(active_router_index).getCoordinates());
-            ++active_router_index;
-         }//if
+         java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.INFO, "RSS: {0}", access_point.getSignalLevel());
+         java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.INFO, "SSID: {0}", access_point.getSSID());
+         java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.INFO, "Point: {0}", access_point.getCoordinates());
       }//for
-      ArrayList<AccessPointObservationRecord> router_trio_list = getThreeBestRouters(access_point_list);
-      if (router_trio_list.size() == 3)
+      if (accessPointList.size() >= 3)
       {
 
-         if (mWeightedCentroidMenuItem.isSelected())
+         if (mRunAllAlgorithmsMenuItem.isSelected())
          {
-            Point resultingPoint = WeightedCentroid.weightedCentroid(access_point_list, mSqlLiteConnection, mLastWeightedCentroidPoint);
+            makeAllApproximations(accessPointList);
+         }//if
+         else if (mWeightedCentroidMenuItem.isSelected())
+         {
+            Point resultingPoint = WeightedCentroid.weightedCentroid(accessPointList, mSqlLiteConnection, mLastWeightedCentroidPoint);
             normalizePoint(resultingPoint);
             this.newWifiData(resultingPoint, NewWifiDataListener.WifiDataType.WEIGHTED_CENTROID);
             java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.INFO, "Weighted Centroid Point: {0}", resultingPoint.toString());
-         }//if
+         }//else if
          else if (mTrilaterationMenuItem.isSelected())
          {
-            Point resultingPoint2 = Trilateration.findCenterPoint(router_trio_list);
+            Point resultingPoint2 = Trilateration.findCenterPoint(accessPointList);
             normalizePoint(resultingPoint2);
             this.newWifiData(resultingPoint2, NewWifiDataListener.WifiDataType.TRILATERATION);
             java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.INFO, "Trilateration Point: {0}", resultingPoint2.toString());
          }//else if
          else if (mFingerprintingMenuItem.isSelected())
          {
-            Point resultingPoint3 = Fingerprinting.fingerprint(access_point_list, this.mSqlLiteConnection, mLastFingerprintingPoint);
+            Point resultingPoint3 = Fingerprinting.fingerprint(accessPointList, this.mSqlLiteConnection, mLastFingerprintingPoint);
             normalizePoint(resultingPoint3);
             this.newWifiData(resultingPoint3, NewWifiDataListener.WifiDataType.FINGERPRINTING);
             java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.INFO, "Fingerprinting Point: {0}", resultingPoint3.toString());
          }//else if
          else if (mPatternMatchingMenuItem.isSelected())
          {
-            Point resultingPoint4 = PatternMatching.patternMatching(access_point_list, this.mSqlLiteConnection, mLastFingerprintingPoint);
+            Point resultingPoint4 = PatternMatching.patternMatching(accessPointList, this.mSqlLiteConnection, mLastPatternMatchingPoint);
             normalizePoint(resultingPoint4);
             this.newWifiData(resultingPoint4, NewWifiDataListener.WifiDataType.PATTERN_MATCHING);
             java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.INFO, "Pattern Matching Point: {0}", resultingPoint4.toString());
          }//else if
+         else if (mBayesianMenuItem.isSelected())
+         {
+            Point resultingPoint5 = BayesianFingerprinting.bayesian(accessPointList, this.mSqlLiteConnection, mLastBayesianPoint);
+            normalizePoint(resultingPoint5);
+            this.newWifiData(resultingPoint5, NewWifiDataListener.WifiDataType.BAYESIAN);
+            java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.INFO, "Bayesian Point: {0}", resultingPoint5.toString());
+         }//else if
          else
          {
 
@@ -990,6 +1066,32 @@ public class MapView
       }//if
    }//makeApproximation
 
+   /**
+    * Evaluates every positioning algorithm on the same epoch in parallel, then
+    * notifies the listeners of each estimate in turn
+    *
+    * @param accessPointList the access point observation record list
+    */
+   private void makeAllApproximations(ArrayList<AccessPointObservationRecord> accessPointList)
+   {
+      EnumMap<WifiDataType, Point> last_points = new EnumMap<>(WifiDataType.class);
+      last_points.put(WifiDataType.FINGERPRINTING, mLastFingerprintingPoint);
+      last_points.put(WifiDataType.WEIGHTED_CENTROID, mLastWeightedCentroidPoint);
+      last_points.put(WifiDataType.PATTERN_MATCHING, mLastPatternMatchingPoint);
+      last_points.put(WifiDataType.BAYESIAN, mLastBayesianPoint);
+      EnumMap<WifiDataType, Point> estimates = mPositioningScheduler.estimateAll(accessPointList, mSqlLiteConnection, last_points);
+      for (Entry<WifiDataType, Point> estimate : estimates.entrySet())
+      {
+         normalizePoint(estimate.getValue());
+         this.newWifiData(estimate.getValue(), estimate.getKey());
+         java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.INFO, "{0} Point: {1}",
+                                                                         new Object[]
+                                                                         {
+                                                                            estimate.getKey(), estimate.getValue().toString()
+                                                                         });
+      }//for
+   }//makeAllApproximations
+
    /**
     * Tests whether a points X, Y coordinates are out of bounds
     *
@@ -1038,33 +1140,6 @@ public class MapView
       }//if
    }//normalizePoint
 
-   /**
-    * Returns the 3 strongest router (access point) candidates based on reported
-    * RSS
-    *
-    * @param accessPointList list of all the access points
-    * @return the list of the 3 best router candidates
-    */
-   private ArrayList<AccessPointObservationRecord> getThreeBestRouters(ArrayList<AccessPointObservationRecord> accessPointList)
-   {
-      ArrayList<AccessPointObservationRecord> access_points_final_trio = new ArrayList<>();
-      for (int i = 0; i < accessPointList.size(); ++i)
-      {
-         access_points_final_trio.add(null);
-      }//for
-      Collections.copy(access_points_final_trio, accessPointList);
-      if (access_points_final_trio.size() == Constants.DEFAULT_NUMBER_OF_ROUTERS)
-      {
-         int minIndex = access_points_final_trio.indexOf(Collections.min(access_points_final_trio));
-         access_points_final_trio.remove(minIndex);
-         java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.INFO, "Distance in pixels: {0}", access_points_final_trio.get(0).getDistancePixels());
-         java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.INFO, "Distance in pixels: {0}", access_points_final_trio.get(1).getDistancePixels());
-         java.util.logging.Logger.getLogger(MapView.class.getName()).log(java.util.logging.Level.INFO, "Distance in pixels: {0}", access_points_final_trio.get(2).getDistancePixels());
-      }//if
-
-      return access_points_final_trio;
-   }//getThreeBestRouters
-
    /**
     * Map View main function
     *
@@ -1124,10 +1199,13 @@ public class MapView
    private javax.swing.JMenuBar jMenuBar1;
    private javax.swing.JPanel jPanel1;
    private javax.swing.JScrollPane jScrollPane1;
+   private javax.swing.JPopupMenu.Separator jSeparator1;
    private javax.swing.JMenu mAlgorithmSelectorMenu;
+   private javax.swing.JCheckBoxMenuItem mBayesianMenuItem;
    private javax.swing.JMenuItem mExportCurrentAlgorithmOutput;
    private javax.swing.JMenu mFileMenu;
    private javax.swing.JCheckBoxMenuItem mFingerprintingMenuItem;
+   private javax.swing.JCheckBoxMenuItem mKalmanSmoothingMenuItem;
    private javax.swing.JMenuItem mLoadPathMenuItem;
    private javax.swing.JMenuItem mLoadWifiDataMenuItem;
    private javax.swing.JLabel mLoadedTruthPathFileName;
@@ -1137,11 +1215,13 @@ public class MapView
    private javax.swing.JPanel mMapLegendPanel;
    private javax.swing.JSlider mNumberOfDataPointsSlider;
    private javax.swing.JLabel mPatternMatchingLabel;
+   private javax.swing.JCheckBoxMenuItem mParticleFilterMenuItem;
    private javax.swing.JCheckBoxMenuItem mPatternMatchingMenuItem;
    private javax.swing.JPanel mPlaybackControlsPanel;
    private javax.swing.JButton mPlaybackDataButton;
    private javax.swing.JLabel mPlaybackSpeedLabel;
    private javax.swing.JComboBox mPlaybackSpeedSecondsChooser;
+   private javax.swing.JCheckBoxMenuItem mRunAllAlgorithmsMenuItem;
    private javax.swing.JMenuItem mSelectMapViewItem;
    private javax.swing.JButton mStopPlaybackButton;
    private javax.swing.JCheckBoxMenuItem mTrilaterationMenuItem;
@@ -0,0 +1,235 @@
+/*
+ * Command line entry point for headless positioning of capture sessions
+ */
+package batch;
+
+import database.SQLLiteConnection;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import wifidatavisualizer.Constants;
+import wifidatavisualizer.NewWifiDataListener.WifiDataType;
+import wifidatavisualizer.RssWindowAggregator;
+
+/**
+ * Positions recorded capture sessions from the command line and writes the
+ * estimates to files, for reprocessing without a display.
+ *
+ * Usage: java -cp WiFiDataVisualizer.jar batch.BatchPositioning --data DIR
+ * --radio-map FILE --interval SECONDS --algorithms LIST [--output DIR]
+ * [--aggregation MODE] [--window MILLISECONDS] [--query-database]
+ *
+ * With --sessions ROOT instead of --data, every session directory under ROOT
+ * is positioned in parallel on --threads workers (default: one per
+ * processor) and the throughput is reported.
+ *
+ * The radio map is either a radio map compiled by RadioMapCompiler (.rmap) or
+ * the SQLite training data base. A training data base is loaded into memory,
+ * unless --query-database is given to query it every epoch instead (for
+ * radio maps too large for the heap). The algorithm list is comma
+ * separated, e.g. FINGERPRINTING,BAYESIAN. Each access point's RSS samples in
+ * the window around an epoch are combined by MEDIAN, MEAN, MAX or EMA.
+ *
+ * @author James Licata
+ */
+public class BatchPositioning
+{
+   final static String USAGE = "Usage: BatchPositioning (--data <csv directory> | --sessions <directory tree> [--threads <count>])"
+                               + " --radio-map <.rmap or .db file> --interval <seconds> --algorithms <ALGORITHM[,ALGORITHM...]>"
+                               + " [--output <directory>] [--aggregation <MEDIAN|MEAN|MAX|EMA>] [--window <milliseconds>] [--query-database]";
+
+   //Extension of radio maps compiled by RadioMapCompiler
+   final static String COMPILED_RADIO_MAP_EXTENSION = ".rmap";
+
+   /**
+    * Opens the radio map, either compiled or the training data base
+    *
+    * @param radioMapFile           the radio map file
+    * @param loadRadioMapIntoMemory false to query a training data base every
+    *                               epoch instead of loading it into memory
+    * @return the connection, or null if the radio map could not be opened
+    */
+   static SQLLiteConnection openRadioMap(File radioMapFile, boolean loadRadioMapIntoMemory)
+   {
+      SQLLiteConnection training_data_base = new SQLLiteConnection();
+      boolean opened;
+      if (radioMapFile.getName().endsWith(COMPILED_RADIO_MAP_EXTENSION))
+      {
+         opened = training_data_base.openCompiledRadioMap(radioMapFile.getPath());
+      }//if
+      else
+      {
+         String database_name = radioMapFile.getName().replaceFirst("\\.[^.]*$", "");
+         opened = radioMapFile.isFile() && training_data_base.connect("jdbc:sqlite:" + radioMapFile.getPath(), database_name, loadRadioMapIntoMemory);
+      }//else
+      return opened ? training_data_base : null;
+   }//openRadioMap
+
+   /**
+    * Parses a comma separated algorithm list
+    *
+    * @param algorithmList the algorithm names
+    * @return the algorithms
+    * @throws IllegalArgumentException for an unknown algorithm
+    */
+   static ArrayList<WifiDataType> parseAlgorithms(String algorithmList)
+   {
+      ArrayList<WifiDataType> data_types = new ArrayList<>();
+      for (String algorithm : algorithmList.split(","))
+      {
+         if (algorithm.trim().isEmpty() == false)
+         {
+            data_types.add(WifiDataType.valueOf(algorithm.trim().toUpperCase()));
+         }//if
+      }//for
+      return data_types;
+   }//parseAlgorithms
+
+   private static void exitWithUsage(String message)
+   {
+      System.err.println(message);
+      System.err.println(USAGE);
+      System.exit(2);
+   }//exitWithUsage
+
+   /**
+    * Batch positioning main function
+    *
+    * @param args the command line arguments
+    */
+   public static void main(String args[])
+   {
+      System.setProperty("java.awt.headless", "true");
+      String data_path = null;
+      String sessions_path = null;
+      String thread_count = Integer.toString(Runtime.getRuntime().availableProcessors());
+      String radio_map_path = null;
+      String interval_seconds = null;
+      String algorithm_list = null;
+      String output_path = ".";
+      String aggregation_mode_name = Constants.RSS_AGGREGATION_MODE.name();
+      String window_milliseconds_value = Integer.toString(Constants.RSS_AGGREGATION_WINDOW_MILLISECONDS);
+      boolean load_radio_map_into_memory = true;
+      for (int i = 0; i < args.length; ++i)
+      {
+         //The only option without a value
+         if (args[i].equals("--query-database"))
+         {
+            load_radio_map_into_memory = false;
+            continue;
+         }//if
+         if (i + 1 >= args.length)
+         {
+            exitWithUsage("Missing value for " + args[i]);
+         }//if
+         switch (args[i])
+         {
+            case "--data":
+               data_path = args[++i];
+               break;
+            case "--sessions":
+               sessions_path = args[++i];
+               break;
+            case "--threads":
+               thread_count = args[++i];
+               break;
+            case "--radio-map":
+               radio_map_path = args[++i];
+               break;
+            case "--interval":
+               interval_seconds = args[++i];
+               break;
+            case "--algorithms":
+               algorithm_list = args[++i];
+               break;
+            case "--output":
+               output_path = args[++i];
+               break;
+            case "--aggregation":
+               aggregation_mode_name = args[++i];
+               break;
+            case "--window":
+               window_milliseconds_value = args[++i];
+               break;
+            default:
+               exitWithUsage("Unknown option " + args[i]);
+         }//switch
+      }//for
+      if ((data_path == null) == (sessions_path == null) || radio_map_path == null || interval_seconds == null || algorithm_list == null)
+      {
+         exitWithUsage("Missing required option");
+      }//if
+
+      int interval_milliseconds = 0;
+      int number_of_threads = 0;
+      int window_milliseconds = 0;
+      RssWindowAggregator.Mode aggregation_mode = null;
+      ArrayList<WifiDataType> data_types = null;
+      try
+      {
+         interval_milliseconds = (int) Math.round(Double.parseDouble(interval_seconds) * 1000.0);
+         data_types = parseAlgorithms(algorithm_list);
+         number_of_threads = Integer.parseInt(thread_count);
+         window_milliseconds = Integer.parseInt(window_milliseconds_value);
+         aggregation_mode = RssWindowAggregator.Mode.valueOf(aggregation_mode_name.trim().toUpperCase());
+      }//try
+      catch (IllegalArgumentException ex)
+      {
+         exitWithUsage(ex.getMessage());
+      }//catch
+      if (interval_milliseconds <= 0 || number_of_threads <= 0 || window_milliseconds <= 0 || data_types.isEmpty())
+      {
+         exitWithUsage("The interval, window and thread count must be positive and at least one algorithm given");
+      }//if
+
+      if (load_radio_map_into_memory == false && radio_map_path.endsWith(COMPILED_RADIO_MAP_EXTENSION))
+      {
+         exitWithUsage("--query-database needs a training data base, not a compiled radio map");
+      }//if
+
+      SQLLiteConnection training_data_base = openRadioMap(new File(radio_map_path), load_radio_map_into_memory);
+      if (training_data_base == null)
+      {
+         System.err.println("Can't open radio map " + radio_map_path);
+         System.exit(1);
+      }//if
+      //Exit only after the radio map is closed, System.exit inside the try would skip the finally
+      int exit_code = 0;
+      try
+      {
+         BatchPositioningEngine batch_engine = new BatchPositioningEngine(training_data_base, BatchPositioningEngine.getEngines(data_types), interval_milliseconds);
+         batch_engine.setAggregation(aggregation_mode, window_milliseconds);
+         if (sessions_path != null)
+         {
+            BatchSessionProcessor session_processor = new BatchSessionProcessor(batch_engine, number_of_threads);
+            BatchSessionProcessor.Report report = session_processor.process(new File(sessions_path), new File(output_path));
+            System.out.println(report);
+            if (report.getNumberOfFailedSessions() > 0)
+            {
+               exit_code = 1;
+            }//if
+         }//if
+         else
+         {
+            long start_time = System.nanoTime();
+            int number_of_epochs = batch_engine.processSession(new File(data_path), new File(output_path));
+            System.out.println(String.format("%d epochs positioned in %.1f ms", number_of_epochs, (System.nanoTime() - start_time) / 1e6));
+         }//else
+      }//try
+      catch (IOException | IllegalArgumentException ex)
+      {
+         Logger.getLogger(BatchPositioning.class.getName()).log(Level.SEVERE, null, ex);
+         exit_code = 1;
+      }//catch
+      finally
+      {
+         training_data_base.closeDatabase();
+      }//finally
+      if (exit_code != 0)
+      {
+         System.exit(exit_code);
+      }//if
+   }//main
+}//BatchPositioning
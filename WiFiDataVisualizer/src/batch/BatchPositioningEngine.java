@@ -0,0 +1,278 @@
+/*
+ * Headless positioning of recorded wifi capture sessions
+ */
+package batch;
+
+import database.SQLLiteConnection;
+import java.awt.Point;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import positioning.AccessPointObservationRecord;
+import positioning.CandidateSet;
+import positioning.EpochObservationBuffer;
+import positioning.PositioningEngine;
+import positioning.PositioningScheduler;
+import wifidatavisualizer.AccessPointScanSet;
+import wifidatavisualizer.Constants;
+import wifidatavisualizer.EpochAligner;
+import wifidatavisualizer.NewWifiDataListener.WifiDataType;
+import wifidatavisualizer.RssWindowAggregator;
+import wifidatavisualizer.ScanDirectoryReader;
+
+/**
+ * Runs positioning algorithms over recorded capture sessions without the Map
+ * View. A session's scan files are read, an epoch is formed every interval
+ * the same way the Map View does, and each algorithm's estimates are written
+ * to a CSV file of its own. Every access point of the session that the
+ * training data locates takes part.
+ *
+ * Scan files of at least SCAN_FILE_MEMORY_MAP_THRESHOLD_BYTES are memory-mapped
+ * and the session is walked SCAN_FILE_WINDOW_MILLISECONDS at a time, so heap
+ * use stays bounded however long the capture is.
+ *
+ * Nothing here loads Swing or starts the AWT toolkit, java.awt.Point is only
+ * used as a coordinate pair. All state of a session is local to the call
+ * processing it.
+ *
+ * @author James Licata
+ */
+public class BatchPositioningEngine
+{
+   //Fewest routers an epoch needs for an estimate
+   final public static int MIN_ROUTERS_PER_EPOCH = 3;
+
+   //Header of the estimate output files
+   final public static String ESTIMATE_FILE_HEADER = "Timestamp,X,Y";
+
+   SQLLiteConnection mTrainingDataBase;
+   HashMap<String, Point> mAccessPointLocations;
+   ArrayList<PositioningEngine> mEngines;
+   int mIntervalMilliseconds;
+
+   //How each access point's RSS samples around an epoch are combined
+   RssWindowAggregator.Mode mAggregationMode = Constants.RSS_AGGREGATION_MODE;
+   int mWindowMilliseconds = Constants.RSS_AGGREGATION_WINDOW_MILLISECONDS;
+
+   //Estimates are kept inside the map, as the Map View keeps them on the canvas
+   int mMapWidth = Constants.DEFAULT_MAP_WIDTH_PIXELS;
+   int mMapHeight = Constants.DEFAULT_MAP_HEIGHT_PIXELS;
+
+   /**
+    * Main constructor
+    *
+    * @param trainingDataBase     the connected training data base or compiled
+    *                             radio map
+    * @param engines              the positioning algorithms to run
+    * @param intervalMilliseconds the time between epochs
+    */
+   public BatchPositioningEngine(SQLLiteConnection trainingDataBase, List<PositioningEngine> engines, int intervalMilliseconds)
+   {
+      mTrainingDataBase = trainingDataBase;
+      mAccessPointLocations = trainingDataBase.loadAccessPointLocations();
+      mEngines = new ArrayList<>(engines);
+      mIntervalMilliseconds = intervalMilliseconds;
+   }//BatchPositioningEngine
+
+   /**
+    * Returns the positioning engines of the given algorithms
+    *
+    * @param dataTypes the algorithms
+    * @return one engine per algorithm, in the given order
+    * @throws IllegalArgumentException if an algorithm has no engine
+    */
+   public static ArrayList<PositioningEngine> getEngines(List<WifiDataType> dataTypes)
+   {
+      HashMap<WifiDataType, PositioningEngine> engines_by_type = new HashMap<>();
+      for (PositioningEngine engine : PositioningScheduler.createDefault().getEngines())
+      {
+         engines_by_type.put(engine.getDataType(), engine);
+      }//for
+      ArrayList<PositioningEngine> engines = new ArrayList<>(dataTypes.size());
+      for (WifiDataType data_type : dataTypes)
+      {
+         PositioningEngine engine = engines_by_type.get(data_type);
+         if (engine == null)
+         {
+            throw new IllegalArgumentException("No positioning engine for " + data_type);
+         }//if
+         engines.add(engine);
+      }//for
+      return engines;
+   }//getEngines
+
+   /**
+    * Sets the map size estimates are kept inside of
+    *
+    * @param mapWidth  map width in pixels
+    * @param mapHeight map height in pixels
+    */
+   public void setMapSize(int mapWidth, int mapHeight)
+   {
+      mMapWidth = mapWidth;
+      mMapHeight = mapHeight;
+   }//setMapSize
+
+   public int getIntervalMilliseconds()
+   {
+      return mIntervalMilliseconds;
+   }//getIntervalMilliseconds
+
+   /**
+    * Sets how the RSS samples around an epoch are aggregated
+    *
+    * @param aggregationMode    the aggregate of each access point's samples
+    * @param windowMilliseconds the width of the window around an epoch
+    */
+   public void setAggregation(RssWindowAggregator.Mode aggregationMode, int windowMilliseconds)
+   {
+      mAggregationMode = aggregationMode;
+      mWindowMilliseconds = windowMilliseconds;
+   }//setAggregation
+
+   /**
+    * Reads the scan files of a capture session, one task per file. Small
+    * files are read whole, large ones are memory-mapped and the returned set
+    * must be closed.
+    *
+    * @param dataDirectory the directory holding the session's scan files
+    * @return the RSS samples of every access point, by access point ordinal
+    * @throws IOException if the directory has no scan files or one is
+    *                     unreadable
+    */
+   public AccessPointScanSet loadSession(File dataDirectory) throws IOException
+   {
+      File[] scan_files = ScanDirectoryReader.listScanFiles(dataDirectory);
+      if (scan_files.length == 0)
+      {
+         throw new FileNotFoundException("No scan files in " + dataDirectory.getPath());
+      }//if
+      return ScanDirectoryReader.read(scan_files);
+   }//loadSession
+
+   /**
+    * Positions a capture session and writes one estimate file per algorithm,
+    * named after the algorithm, to the output directory
+    *
+    * @param dataDirectory   the directory holding the session's scan files
+    * @param outputDirectory the directory to write the estimates to
+    * @return the number of epochs that had enough routers for an estimate
+    * @throws IOException if the session can't be read or the estimates can't
+    *                     be written
+    */
+   public int processSession(File dataDirectory, File outputDirectory) throws IOException
+   {
+      if (outputDirectory.isDirectory() == false && outputDirectory.mkdirs() == false)
+      {
+         throw new IOException("Can't create " + outputDirectory.getPath());
+      }//if
+      AccessPointScanSet scan_set = loadSession(dataDirectory);
+      EnumMap<WifiDataType, Point> last_points = new EnumMap<>(WifiDataType.class);
+      BufferedWriter[] writers = new BufferedWriter[mEngines.size()];
+      try
+      {
+         for (int i = 0; i < mEngines.size(); ++i)
+         {
+            WifiDataType data_type = mEngines.get(i).getDataType();
+            last_points.put(data_type, new Point(Constants.DEFAULT_CALIBRATION_START_POINT_X_COORDINATE,
+                                                 Constants.DEFAULT_CALIBRATION_START_POINT_Y_COORDINATE));
+            writers[i] = new BufferedWriter(new FileWriter(new File(outputDirectory, data_type.name() + Constants.DEFAULT_DATA_FILE_EXTENSION)));
+            writers[i].write(ESTIMATE_FILE_HEADER);
+            writers[i].newLine();
+         }//for
+         return positionSession(scan_set, last_points, writers);
+      }//try
+      finally
+      {
+         for (BufferedWriter writer : writers)
+         {
+            if (writer != null)
+            {
+               writer.close();
+            }//if
+         }//for
+         scan_set.close();
+      }//finally
+   }//processSession
+
+   /**
+    * Runs every engine on each epoch of a session. The epochs are aligned in
+    * one pass over the samples, and their observations share one buffer.
+    *
+    * @return the number of epochs that had enough routers for an estimate
+    */
+   private int positionSession(AccessPointScanSet scanSet, EnumMap<WifiDataType, Point> lastPoints, BufferedWriter[] writers) throws IOException
+   {
+      int number_of_epochs = 0;
+      EpochAligner epoch_aligner = new EpochAligner(scanSet, mIntervalMilliseconds, mWindowMilliseconds, mAggregationMode);
+      EpochObservationBuffer observation_buffer = new EpochObservationBuffer(scanSet, mAccessPointLocations, mTrainingDataBase);
+      while (epoch_aligner.nextEpoch())
+      {
+         ArrayList<AccessPointObservationRecord> access_point_list = observation_buffer.fill(epoch_aligner);
+         if (access_point_list.size() < MIN_ROUTERS_PER_EPOCH)
+         {
+            continue;
+         }//if
+         ++number_of_epochs;
+         int timestamp_reference = epoch_aligner.getTimestamp();
+         CandidateSet candidate_set = new CandidateSet(access_point_list, mTrainingDataBase);
+         for (int i = 0; i < mEngines.size(); ++i)
+         {
+            PositioningEngine engine = mEngines.get(i);
+            Point estimate;
+            try
+            {
+               estimate = engine.estimate(candidate_set, lastPoints.get(engine.getDataType()));
+            }//try
+            catch (RuntimeException ex)
+            {
+               //An epoch an algorithm can't handle, e.g. without candidates, costs that estimate only
+               Logger.getLogger(BatchPositioningEngine.class.getName()).log(Level.FINE, null, ex);
+               estimate = null;
+            }//catch
+            if (estimate == null)
+            {
+               continue;
+            }//if
+            normalizePoint(estimate);
+            lastPoints.put(engine.getDataType(), estimate);
+            writers[i].write(timestamp_reference + "," + estimate.x + "," + estimate.y);
+            writers[i].newLine();
+         }//for
+      }//while
+      return number_of_epochs;
+   }//positionSession
+
+   /**
+    * Moves an out of bounds estimate back inside the map
+    *
+    * @param testPoint the estimate to normalize
+    */
+   private void normalizePoint(Point testPoint)
+   {
+      if (testPoint.x < 0)
+      {
+         testPoint.x = Constants.DEFAULT_PIXEL_ADJUSTMENT;
+      }//if
+      if (testPoint.x > mMapWidth)
+      {
+         testPoint.x = mMapWidth - Constants.DEFAULT_PIXEL_ADJUSTMENT;
+      }//if
+      if (testPoint.y > mMapHeight)
+      {
+         testPoint.y = mMapHeight - Constants.DEFAULT_PIXEL_ADJUSTMENT;
+      }//if
+      if (testPoint.y < 0)
+      {
+         testPoint.y = Constants.DEFAULT_PIXEL_ADJUSTMENT;
+      }//if
+   }//normalizePoint
+}//BatchPositioningEngine
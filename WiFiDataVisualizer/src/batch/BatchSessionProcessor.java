@@ -0,0 +1,207 @@
+/*
+ * Parallel positioning of every capture session under a directory tree
+ */
+package batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import wifidatavisualizer.ScanDirectoryReader;
+
+/**
+ * Finds the capture sessions under a directory tree and positions them in
+ * parallel, one task per session on a work-stealing pool. Sessions differ a
+ * lot in length, so idle workers steal the remaining sessions instead of
+ * waiting on a fixed split.
+ *
+ * Every session's trace state lives in its own BatchPositioningEngine call,
+ * the engine, algorithms and radio map are shared read only. Each session's
+ * estimates go to the same relative path under the output directory.
+ *
+ * @author James Licata
+ */
+public class BatchSessionProcessor
+{
+   BatchPositioningEngine mBatchEngine;
+   int mParallelism;
+
+   /**
+    * Totals of one batch run
+    */
+   public static class Report
+   {
+      int mNumberOfSessions;
+      int mNumberOfFailedSessions;
+      long mNumberOfEpochs;
+      long mElapsedNanoseconds;
+
+      public int getNumberOfSessions()
+      {
+         return mNumberOfSessions;
+      }//getNumberOfSessions
+
+      public int getNumberOfFailedSessions()
+      {
+         return mNumberOfFailedSessions;
+      }//getNumberOfFailedSessions
+
+      public long getNumberOfEpochs()
+      {
+         return mNumberOfEpochs;
+      }//getNumberOfEpochs
+
+      public double getElapsedSeconds()
+      {
+         return mElapsedNanoseconds / 1e9;
+      }//getElapsedSeconds
+
+      public double getSessionsPerSecond()
+      {
+         return (mNumberOfSessions - mNumberOfFailedSessions) / Math.max(getElapsedSeconds(), 1e-9);
+      }//getSessionsPerSecond
+
+      public double getEpochsPerSecond()
+      {
+         return mNumberOfEpochs / Math.max(getElapsedSeconds(), 1e-9);
+      }//getEpochsPerSecond
+
+      @Override
+      public String toString()
+      {
+         return String.format("%d sessions (%d failed), %d epochs in %.2f s: %.1f sessions/s, %.1f epochs/s",
+                              mNumberOfSessions, mNumberOfFailedSessions, mNumberOfEpochs, getElapsedSeconds(),
+                              getSessionsPerSecond(), getEpochsPerSecond());
+      }//toString
+   }//Report
+
+   /**
+    * Main constructor
+    *
+    * @param batchEngine the engine every session is positioned with
+    * @param parallelism the number of worker threads
+    */
+   public BatchSessionProcessor(BatchPositioningEngine batchEngine, int parallelism)
+   {
+      mBatchEngine = batchEngine;
+      mParallelism = Math.max(1, parallelism);
+   }//BatchSessionProcessor
+
+   /**
+    * Returns whether a directory holds a capture session, at least one scan
+    * file
+    *
+    * @param directory the directory to test
+    * @return true if it is a session directory
+    */
+   public static boolean isSessionDirectory(File directory)
+   {
+      return ScanDirectoryReader.listScanFiles(directory).length > 0;
+   }//isSessionDirectory
+
+   /**
+    * Finds every session directory under a root directory, the root
+    * included, in path order
+    *
+    * @param rootDirectory the directory tree to search
+    * @return the session directories
+    */
+   public static ArrayList<File> findSessions(File rootDirectory)
+   {
+      ArrayList<File> sessions = new ArrayList<>();
+      findSessions(rootDirectory, sessions);
+      return sessions;
+   }//findSessions
+
+   private static void findSessions(File directory, ArrayList<File> sessions)
+   {
+      if (isSessionDirectory(directory))
+      {
+         sessions.add(directory);
+      }//if
+      File[] children = directory.listFiles();
+      if (children == null)
+      {
+         return;
+      }//if
+      Arrays.sort(children);
+      for (File child : children)
+      {
+         if (child.isDirectory())
+         {
+            findSessions(child, sessions);
+         }//if
+      }//for
+   }//findSessions
+
+   /**
+    * Positions every session under a root directory
+    *
+    * @param rootDirectory   the directory tree holding the sessions
+    * @param outputDirectory the directory tree to write the estimates to
+    * @return the run's totals
+    */
+   public Report process(File rootDirectory, File outputDirectory)
+   {
+      return process(findSessions(rootDirectory), rootDirectory, outputDirectory);
+   }//process
+
+   /**
+    * Positions the given sessions in parallel. A failed session is logged and
+    * counted, the others carry on.
+    *
+    * @param sessions        the session directories
+    * @param rootDirectory   the directory the session paths are relative to
+    * @param outputDirectory the directory tree to write the estimates to
+    * @return the run's totals
+    */
+   public Report process(List<File> sessions, File rootDirectory, File outputDirectory)
+   {
+      AtomicLong number_of_epochs = new AtomicLong();
+      AtomicInteger number_of_failed_sessions = new AtomicInteger();
+      Path root_path = rootDirectory.getAbsoluteFile().toPath().normalize();
+      ArrayList<ForkJoinTask<?>> session_tasks = new ArrayList<>(sessions.size());
+      for (File session : sessions)
+      {
+         Path relative_path = root_path.relativize(session.getAbsoluteFile().toPath().normalize());
+         File session_output_directory = new File(outputDirectory, relative_path.toString());
+         session_tasks.add(ForkJoinTask.adapt(() ->
+         {
+            try
+            {
+               number_of_epochs.addAndGet(mBatchEngine.processSession(session, session_output_directory));
+            }//try
+            catch (IOException | RuntimeException ex)
+            {
+               number_of_failed_sessions.incrementAndGet();
+               Logger.getLogger(BatchSessionProcessor.class.getName()).log(Level.SEVERE, session.getPath(), ex);
+            }//catch
+         }));
+      }//for
+
+      long start_time = System.nanoTime();
+      ForkJoinPool pool = new ForkJoinPool(mParallelism);
+      try
+      {
+         pool.submit(() -> ForkJoinTask.invokeAll(session_tasks)).join();
+      }//try
+      finally
+      {
+         pool.shutdown();
+      }//finally
+      Report report = new Report();
+      report.mElapsedNanoseconds = System.nanoTime() - start_time;
+      report.mNumberOfSessions = sessions.size();
+      report.mNumberOfFailedSessions = number_of_failed_sessions.get();
+      report.mNumberOfEpochs = number_of_epochs.get();
+      return report;
+   }//process
+}//BatchSessionProcessor
@@ -0,0 +1,125 @@
+/*
+ * Radio map held in primitive arrays on the heap
+ */
+package database;
+
+/**
+ * Radio map implementation backed by primitive arrays, loaded from the
+ * training database
+ *
+ * @author James Licata
+ */
+public class ArrayRadioMap
+        extends RadioMap
+{
+   //Office identifiers, indexed by office ordinal
+   String[] mOfficeIds;
+
+   //Office X, Y coordinates, indexed by office ordinal
+   int[] mOfficeX;
+   int[] mOfficeY;
+
+   //Access point SSIDs and X, Y coordinates, indexed by access point ordinal
+   String[] mAccessPointSSIDs;
+   int[] mAccessPointX;
+   int[] mAccessPointY;
+
+   //Training rows for each access point (office ordinal and RSS), in table order
+   int[][] mRowOfficeOrdinals;
+   int[][] mRowRSS;
+
+   /**
+    * Main constructor, takes ownership of the given arrays
+    *
+    * @param officeIds         office identifiers by office ordinal
+    * @param officeX           office X coordinates by office ordinal
+    * @param officeY           office Y coordinates by office ordinal
+    * @param accessPointSSIDs  access point SSIDs by access point ordinal
+    * @param accessPointX      access point X coordinates by access point
+    *                          ordinal
+    * @param accessPointY      access point Y coordinates by access point
+    *                          ordinal
+    * @param rowOfficeOrdinals office ordinal of each training row, per access
+    *                          point
+    * @param rowRSS            RSS of each training row, per access point
+    */
+   ArrayRadioMap(String[] officeIds, int[] officeX, int[] officeY, String[] accessPointSSIDs,
+           int[] accessPointX, int[] accessPointY, int[][] rowOfficeOrdinals, int[][] rowRSS)
+   {
+      mOfficeIds = officeIds;
+      mOfficeX = officeX;
+      mOfficeY = officeY;
+      mAccessPointSSIDs = accessPointSSIDs;
+      mAccessPointX = accessPointX;
+      mAccessPointY = accessPointY;
+      mRowOfficeOrdinals = rowOfficeOrdinals;
+      mRowRSS = rowRSS;
+      indexIdentifiers();
+   }//ArrayRadioMap
+
+   @Override
+   public int getNumberOfOffices()
+   {
+      return mOfficeIds.length;
+   }//getNumberOfOffices
+
+   @Override
+   public int getNumberOfAccessPoints()
+   {
+      return mAccessPointSSIDs.length;
+   }//getNumberOfAccessPoints
+
+   @Override
+   public String getOfficeId(int officeOrdinal)
+   {
+      return mOfficeIds[officeOrdinal];
+   }//getOfficeId
+
+   @Override
+   public int getOfficeX(int officeOrdinal)
+   {
+      return mOfficeX[officeOrdinal];
+   }//getOfficeX
+
+   @Override
+   public int getOfficeY(int officeOrdinal)
+   {
+      return mOfficeY[officeOrdinal];
+   }//getOfficeY
+
+   @Override
+   public String getAccessPointSSID(int accessPointOrdinal)
+   {
+      return mAccessPointSSIDs[accessPointOrdinal];
+   }//getAccessPointSSID
+
+   @Override
+   public int getAccessPointX(int accessPointOrdinal)
+   {
+      return mAccessPointX[accessPointOrdinal];
+   }//getAccessPointX
+
+   @Override
+   public int getAccessPointY(int accessPointOrdinal)
+   {
+      return mAccessPointY[accessPointOrdinal];
+   }//getAccessPointY
+
+   @Override
+   public int getNumberOfRows(int accessPointOrdinal)
+   {
+      return mRowRSS[accessPointOrdinal].length;
+   }//getNumberOfRows
+
+   @Override
+   public int getRowOfficeOrdinal(int accessPointOrdinal, int row)
+   {
+      return mRowOfficeOrdinals[accessPointOrdinal][row];
+   }//getRowOfficeOrdinal
+
+   @Override
+   public int getRowRSS(int accessPointOrdinal, int row)
+   {
+      return mRowRSS[accessPointOrdinal][row];
+   }//getRowRSS
+}//ArrayRadioMap
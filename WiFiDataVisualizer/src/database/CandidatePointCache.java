@@ -0,0 +1,189 @@
+/*
+ * Bounded least recently used cache of candidate point sets
+ */
+package database;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import positioning.AccessPointObservationRecord;
+import positioning.CandidatePoint;
+
+/**
+ * LRU cache of likeliest point sets keyed by the observed (SSID, RSS) vector
+ * sorted by SSID, so repeated RSS tuples from walking or standing traces skip
+ * candidate generation. Cached candidate sets are shared between callers and
+ * must not be modified.
+ *
+ * @author James Licata
+ */
+public class CandidatePointCache
+{
+   //Maximum number of cached candidate sets
+   int mCapacity;
+
+   //Access ordered map, the eldest entry is the least recently used
+   LinkedHashMap<Key, HashMap<String, CandidatePoint>> mCache;
+
+   //Cache statistics
+   long mHitCount = 0;
+   long mMissCount = 0;
+   long mEvictionCount = 0;
+
+   /**
+    * Observed (SSID, RSS) vector sorted by SSID
+    */
+   static class Key
+   {
+      String[] mSSIDs;
+      int[] mRSS;
+      int mHashCode;
+
+      Key(ArrayList<AccessPointObservationRecord> accessPointList)
+      {
+         int size = accessPointList.size();
+         mSSIDs = new String[size];
+         mRSS = new int[size];
+         //Insertion sort, an epoch only holds a handful of access points
+         for (int i = 0; i < size; ++i)
+         {
+            String ssid = accessPointList.get(i).getSSID();
+            int rss = accessPointList.get(i).getSignalLevel();
+            int j = i - 1;
+            while (j >= 0 && (mSSIDs[j].compareTo(ssid) > 0 || (mSSIDs[j].equals(ssid) && mRSS[j] > rss)))
+            {
+               mSSIDs[j + 1] = mSSIDs[j];
+               mRSS[j + 1] = mRSS[j];
+               --j;
+            }//while
+            mSSIDs[j + 1] = ssid;
+            mRSS[j + 1] = rss;
+         }//for
+         mHashCode = 31 * Arrays.hashCode(mSSIDs) + Arrays.hashCode(mRSS);
+      }//Key
+
+      @Override
+      public int hashCode()
+      {
+         return mHashCode;
+      }//hashCode
+
+      @Override
+      public boolean equals(Object other)
+      {
+         if (other instanceof Key == false)
+         {
+            return false;
+         }//if
+         Key other_key = (Key) other;
+         return mHashCode == other_key.mHashCode && Arrays.equals(mRSS, other_key.mRSS) && Arrays.equals(mSSIDs, other_key.mSSIDs);
+      }//equals
+   }//Key
+
+   /**
+    * Main constructor
+    *
+    * @param capacity the maximum number of cached candidate sets
+    */
+   public CandidatePointCache(int capacity)
+   {
+      mCapacity = capacity;
+      mCache = new LinkedHashMap<Key, HashMap<String, CandidatePoint>>(16, 0.75f, true)
+      {
+         @Override
+         protected boolean removeEldestEntry(Map.Entry<Key, HashMap<String, CandidatePoint>> eldest)
+         {
+            if (size() > mCapacity)
+            {
+               ++mEvictionCount;
+               return true;
+            }//if
+            return false;
+         }//removeEldestEntry
+      };
+   }//CandidatePointCache
+
+   /**
+    * Builds the cache key for an epoch's observations
+    *
+    * @param accessPointList the access point observation record list
+    * @return the cache key
+    */
+   public static Key getKey(ArrayList<AccessPointObservationRecord> accessPointList)
+   {
+      return new Key(accessPointList);
+   }//getKey
+
+   /**
+    * Returns the cached candidate set for the key, counting a hit or a miss
+    *
+    * @param key the observation key
+    * @return the cached candidate set, or null on a miss
+    */
+   public synchronized HashMap<String, CandidatePoint> get(Key key)
+   {
+      HashMap<String, CandidatePoint> candidate_points = mCache.get(key);
+      if (candidate_points != null)
+      {
+         ++mHitCount;
+      }//if
+      else
+      {
+         ++mMissCount;
+      }//else
+      return candidate_points;
+   }//get
+
+   /**
+    * Caches a candidate set, evicting the least recently used one when full
+    *
+    * @param key             the observation key
+    * @param candidatePoints the candidate set
+    */
+   public synchronized void put(Key key, HashMap<String, CandidatePoint> candidatePoints)
+   {
+      mCache.put(key, candidatePoints);
+   }//put
+
+   /**
+    * Empties the cache, statistics are kept
+    */
+   public synchronized void clear()
+   {
+      mCache.clear();
+   }//clear
+
+   public int getCapacity()
+   {
+      return mCapacity;
+   }//getCapacity
+
+   public synchronized int getSize()
+   {
+      return mCache.size();
+   }//getSize
+
+   public synchronized long getHitCount()
+   {
+      return mHitCount;
+   }//getHitCount
+
+   public synchronized long getMissCount()
+   {
+      return mMissCount;
+   }//getMissCount
+
+   public synchronized long getEvictionCount()
+   {
+      return mEvictionCount;
+   }//getEvictionCount
+
+   @Override
+   public synchronized String toString()
+   {
+      return "Candidate cache: " + mCache.size() + "/" + mCapacity + " entries, " + mHitCount + " hits, "
+              + mMissCount + " misses, " + mEvictionCount + " evictions";
+   }//toString
+}//CandidatePointCache
@@ -0,0 +1,174 @@
+/*
+ * Migrates a training database from one table per access point to a single
+ * normalized fingerprint table
+ */
+package database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Converts the per SSID training tables (CiscoLinksysE1200, ...) into a
+ * single long-format Fingerprints(ap_id, office_id, rss) table with integer
+ * foreign keys and composite indexes. TrainingPointLocations is rebuilt with
+ * an integer office_id primary key, keeping its Office, x and y columns so
+ * existing queries keep working.
+ *
+ * Usage: FingerprintSchemaMigrator &lt;database file&gt; [--drop-legacy-tables]
+ *
+ * @author James Licata
+ */
+public class FingerprintSchemaMigrator
+{
+   final static String FINGERPRINTS_TABLE = "Fingerprints";
+   final static String ACCESS_POINTS_TABLE = "AccessPoints";
+
+   /**
+    * Returns whether the database already holds the normalized fingerprint
+    * schema
+    *
+    * @param databaseConnection an open database connection
+    * @return true if the Fingerprints table exists
+    * @throws SQLException if the schema cannot be read
+    */
+   public static boolean hasNormalizedSchema(Connection databaseConnection) throws SQLException
+   {
+      try (PreparedStatement stmt = databaseConnection.prepareStatement(
+              "SELECT name FROM sqlite_master WHERE type='table' AND name=?"))
+      {
+         stmt.setString(1, FINGERPRINTS_TABLE);
+         try (ResultSet query_result_set = stmt.executeQuery())
+         {
+            return query_result_set.next();
+         }//try
+      }//try
+   }//hasNormalizedSchema
+
+   /**
+    * Migrates the database to the normalized schema in a single transaction
+    *
+    * @param databaseConnection an open database connection
+    * @param dropLegacyTables   whether to drop the per SSID tables once they
+    *                           have been copied
+    * @return the number of fingerprint rows migrated, or -1 if the database
+    *         was already migrated
+    * @throws SQLException if the migration fails, in which case nothing is
+    *                      changed
+    */
+   public static int migrate(Connection databaseConnection, boolean dropLegacyTables) throws SQLException
+   {
+      if (hasNormalizedSchema(databaseConnection))
+      {
+         return -1;
+      }//if
+      boolean auto_commit = databaseConnection.getAutoCommit();
+      databaseConnection.setAutoCommit(false);
+      int migrated_rows = 0;
+      try (Statement stmt = databaseConnection.createStatement())
+      {
+         //Rebuild the office table with an integer key, the old Office key stays unique
+         stmt.executeUpdate("CREATE TABLE TrainingPointLocations_new (office_id INTEGER PRIMARY KEY, Office STRING NOT NULL UNIQUE, x INTEGER, y INTEGER)");
+         stmt.executeUpdate("INSERT INTO TrainingPointLocations_new (Office, x, y) SELECT Office, x, y FROM TrainingPointLocations ORDER BY rowid");
+         stmt.executeUpdate("DROP TABLE TrainingPointLocations");
+         stmt.executeUpdate("ALTER TABLE TrainingPointLocations_new RENAME TO TrainingPointLocations");
+
+         stmt.executeUpdate("CREATE TABLE " + ACCESS_POINTS_TABLE
+                 + " (ap_id INTEGER PRIMARY KEY, SSID STRING NOT NULL UNIQUE REFERENCES APLocations (SSID))");
+         stmt.executeUpdate("CREATE TABLE " + FINGERPRINTS_TABLE
+                 + " (ap_id INTEGER NOT NULL REFERENCES " + ACCESS_POINTS_TABLE + " (ap_id),"
+                 + " office_id INTEGER NOT NULL REFERENCES TrainingPointLocations (office_id),"
+                 + " rss INTEGER NOT NULL)");
+
+         ArrayList<String> legacy_tables = new ArrayList<>();
+         ResultSet table_result_set = stmt.executeQuery(
+                 "SELECT name FROM sqlite_master WHERE type='table' AND name IN (SELECT SSID FROM APLocations) ORDER BY name");
+         while (table_result_set.next())
+         {
+            legacy_tables.add(table_result_set.getString("name"));
+         }//while
+         table_result_set.close();
+
+         try (PreparedStatement insert_access_point = databaseConnection.prepareStatement(
+                 "INSERT INTO " + ACCESS_POINTS_TABLE + " (ap_id, SSID) VALUES (?, ?)"))
+         {
+            for (int ap_id = 0; ap_id < legacy_tables.size(); ++ap_id)
+            {
+               insert_access_point.setInt(1, ap_id);
+               insert_access_point.setString(2, legacy_tables.get(ap_id));
+               insert_access_point.executeUpdate();
+               //Keep the table row order so candidates come back in the same order as before
+               migrated_rows += stmt.executeUpdate("INSERT INTO " + FINGERPRINTS_TABLE + " (ap_id, office_id, rss)"
+                       + " SELECT " + ap_id + ", l.office_id, t.RSS FROM " + legacy_tables.get(ap_id) + " t"
+                       + " JOIN TrainingPointLocations l ON l.Office = t.Office ORDER BY t.rowid");
+            }//for
+         }//try
+
+         //Covering index for the per access point RSS window, and one for per office lookups
+         stmt.executeUpdate("CREATE INDEX Fingerprints_ap_rss ON " + FINGERPRINTS_TABLE + " (ap_id, rss, office_id)");
+         stmt.executeUpdate("CREATE INDEX Fingerprints_office_ap ON " + FINGERPRINTS_TABLE + " (office_id, ap_id, rss)");
+
+         if (dropLegacyTables)
+         {
+            for (String legacy_table : legacy_tables)
+            {
+               stmt.executeUpdate("DROP TABLE " + legacy_table);
+            }//for
+         }//if
+         databaseConnection.commit();
+      }//try
+      catch (SQLException ex)
+      {
+         databaseConnection.rollback();
+         throw ex;
+      }//catch
+      finally
+      {
+         databaseConnection.setAutoCommit(auto_commit);
+      }//finally
+      return migrated_rows;
+   }//migrate
+
+   /**
+    * Migrator main function
+    *
+    * @param args the database file, optionally followed by
+    *             --drop-legacy-tables
+    */
+   public static void main(String args[])
+   {
+      if (args.length < 1)
+      {
+         System.err.println("Usage: FingerprintSchemaMigrator <database file> [--drop-legacy-tables]");
+         System.exit(1);
+      }//if
+      boolean drop_legacy_tables = args.length > 1 && "--drop-legacy-tables".equals(args[1]);
+      try
+      {
+         DriverManager.registerDriver(new org.sqlite.JDBC());
+         try (Connection database_connection = DriverManager.getConnection("jdbc:sqlite:" + args[0]))
+         {
+            int migrated_rows = migrate(database_connection, drop_legacy_tables);
+            if (migrated_rows < 0)
+            {
+               Logger.getLogger(FingerprintSchemaMigrator.class.getName()).log(Level.INFO, "{0} is already migrated", args[0]);
+            }//if
+            else
+            {
+               Logger.getLogger(FingerprintSchemaMigrator.class.getName()).log(Level.INFO, "Migrated {0} fingerprint rows", migrated_rows);
+            }//else
+         }//try
+      }//try
+      catch (SQLException ex)
+      {
+         Logger.getLogger(FingerprintSchemaMigrator.class.getName()).log(Level.SEVERE, null, ex);
+         System.exit(1);
+      }//catch
+   }//main
+}//FingerprintSchemaMigrator
@@ -0,0 +1,190 @@
+/*
+ * Precomputed Gaussian RSS log-likelihood tables over the radio map
+ */
+package database;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import positioning.AccessPointObservationRecord;
+import static java.lang.Math.abs;
+
+/**
+ * Probabilistic model of the radio map for Bayesian positioning. The RSS each
+ * office sees from each access point is modeled as a Gaussian fitted to that
+ * office's training rows, and the log-likelihood of every whole dBm RSS value
+ * is evaluated once when the table is built. A posterior over all offices is
+ * then one contiguous row addition per observed access point, with no log or
+ * exp calls per epoch.
+ *
+ * The table is laid out as [access point][RSS][office] so the row added for
+ * one observation is contiguous. Each likelihood is mixed with a small
+ * uniform floor so an access point an office never heard, or a reading far
+ * out in the tail, weakens that office without ruling it out.
+ *
+ * @author James Licata
+ */
+public class GaussianLikelihoodTable
+{
+   //Range of tabulated RSS values in positive dBm, observations outside it are clamped
+   final static int MIN_TABLE_RSS = 0;
+   final static int MAX_TABLE_RSS = 120;
+   final static int NUMBER_OF_TABLE_RSS = MAX_TABLE_RSS - MIN_TABLE_RSS + 1;
+
+   //Lowest standard deviation in dBm, also used for offices with a single training row
+   final static double MIN_SIGMA = 3.0;
+
+   //Weight of the uniform floor mixed into every likelihood
+   final static double UNIFORM_FLOOR_WEIGHT = 0.01;
+
+   //The radio map the table was built from
+   RadioMap mRadioMap;
+
+   int mNumberOfOffices;
+   int mNumberOfAccessPoints;
+
+   //Log-likelihoods, [access point][RSS][office] flattened
+   float[] mLogLikelihoods;
+
+   //Per thread posterior buffers so concurrent queries don't share state
+   ThreadLocal<float[]> mLogPosterior = new ThreadLocal<float[]>()
+   {
+      @Override
+      protected float[] initialValue()
+      {
+         return new float[mNumberOfOffices];
+      }//initialValue
+   };
+
+   /**
+    * Fits the per office and access point Gaussians and tabulates their
+    * log-likelihoods
+    *
+    * @param radioMap the loaded radio map
+    */
+   public GaussianLikelihoodTable(RadioMap radioMap)
+   {
+      mRadioMap = radioMap;
+      mNumberOfOffices = radioMap.getNumberOfOffices();
+      mNumberOfAccessPoints = radioMap.getNumberOfAccessPoints();
+      mLogLikelihoods = new float[mNumberOfAccessPoints * NUMBER_OF_TABLE_RSS * mNumberOfOffices];
+      double uniform_likelihood = 1.0 / NUMBER_OF_TABLE_RSS;
+      float floor_log_likelihood = (float) Math.log(UNIFORM_FLOOR_WEIGHT * uniform_likelihood);
+
+      int[] row_counts = new int[mNumberOfOffices];
+      double[] rss_sums = new double[mNumberOfOffices];
+      double[] rss_square_sums = new double[mNumberOfOffices];
+      for (int ap = 0; ap < mNumberOfAccessPoints; ++ap)
+      {
+         Arrays.fill(row_counts, 0);
+         Arrays.fill(rss_sums, 0.0);
+         Arrays.fill(rss_square_sums, 0.0);
+         for (int row = 0; row < radioMap.getNumberOfRows(ap); ++row)
+         {
+            int office_ordinal = radioMap.getRowOfficeOrdinal(ap, row);
+            int rss = radioMap.getRowRSS(ap, row);
+            ++row_counts[office_ordinal];
+            rss_sums[office_ordinal] += rss;
+            rss_square_sums[office_ordinal] += (double) rss * rss;
+         }//for
+         int ap_offset = ap * NUMBER_OF_TABLE_RSS * mNumberOfOffices;
+         for (int office = 0; office < mNumberOfOffices; ++office)
+         {
+            if (row_counts[office] == 0)
+            {
+               //Never heard at this office, only the floor
+               for (int rss = 0; rss < NUMBER_OF_TABLE_RSS; ++rss)
+               {
+                  mLogLikelihoods[ap_offset + rss * mNumberOfOffices + office] = floor_log_likelihood;
+               }//for
+               continue;
+            }//if
+            double mean = rss_sums[office] / row_counts[office];
+            double variance = rss_square_sums[office] / row_counts[office] - mean * mean;
+            double sigma = Math.max(MIN_SIGMA, Math.sqrt(Math.max(0.0, variance)));
+            double normalizer = 1.0 / (sigma * Math.sqrt(2.0 * Math.PI));
+            for (int rss = 0; rss < NUMBER_OF_TABLE_RSS; ++rss)
+            {
+               double z = (rss + MIN_TABLE_RSS - mean) / sigma;
+               double likelihood = (1.0 - UNIFORM_FLOOR_WEIGHT) * normalizer * Math.exp(-0.5 * z * z)
+                       + UNIFORM_FLOOR_WEIGHT * uniform_likelihood;
+               mLogLikelihoods[ap_offset + rss * mNumberOfOffices + office] = (float) Math.log(likelihood);
+            }//for
+         }//for
+      }//for
+   }//GaussianLikelihoodTable
+
+   /**
+    * Returns the radio map the table was built from
+    *
+    * @return the radio map
+    */
+   public RadioMap getRadioMap()
+   {
+      return mRadioMap;
+   }//getRadioMap
+
+   /**
+    * Accumulates the unnormalized log posterior of every office under a
+    * uniform prior. Access points that are not in the radio map are ignored.
+    *
+    * @param accessPointList the access point observation record list
+    * @param logPosterior    receives one log posterior per office ordinal
+    */
+   public void getLogPosterior(ArrayList<AccessPointObservationRecord> accessPointList, float[] logPosterior)
+   {
+      Arrays.fill(logPosterior, 0, mNumberOfOffices, 0.0f);
+      for (AccessPointObservationRecord access_point : accessPointList)
+      {
+         int ap_ordinal = mRadioMap.getAccessPointOrdinal(access_point.getSSID());
+         if (ap_ordinal < 0)
+         {
+            continue;
+         }//if
+         int rss = Math.min(MAX_TABLE_RSS, Math.max(MIN_TABLE_RSS, abs(access_point.getSignalLevel())));
+         int row_offset = (ap_ordinal * NUMBER_OF_TABLE_RSS + rss - MIN_TABLE_RSS) * mNumberOfOffices;
+         for (int office = 0; office < mNumberOfOffices; ++office)
+         {
+            logPosterior[office] += mLogLikelihoods[row_offset + office];
+         }//for
+      }//for
+   }//getLogPosterior
+
+   /**
+    * Returns the maximum a posteriori office for the observation. Offices
+    * within a hair of the best log posterior are ties, and the tie closest to
+    * the last estimate wins.
+    *
+    * @param accessPointList        the access point observation record list
+    * @param lastPointApproximation the last point approximation used to break
+    *                               ties
+    * @return the office ordinal, or -1 if the radio map has no offices
+    */
+   public int getMostLikelyOffice(ArrayList<AccessPointObservationRecord> accessPointList, Point lastPointApproximation)
+   {
+      float[] log_posterior = mLogPosterior.get();
+      getLogPosterior(accessPointList, log_posterior);
+      int best_office = -1;
+      float best_log_posterior = Float.NEGATIVE_INFINITY;
+      double best_distance = Double.POSITIVE_INFINITY;
+      for (int office = 0; office < mNumberOfOffices; ++office)
+      {
+         if (log_posterior[office] > best_log_posterior + 1e-4f)
+         {
+            best_office = office;
+            best_log_posterior = log_posterior[office];
+            best_distance = lastPointApproximation.distanceSq(mRadioMap.getOfficeX(office), mRadioMap.getOfficeY(office));
+         }//if
+         else if (log_posterior[office] >= best_log_posterior - 1e-4f)
+         {
+            double distance = lastPointApproximation.distanceSq(mRadioMap.getOfficeX(office), mRadioMap.getOfficeY(office));
+            if (distance < best_distance)
+            {
+               best_office = office;
+               best_distance = distance;
+            }//if
+         }//else if
+      }//for
+      return best_office;
+   }//getMostLikelyOffice
+}//GaussianLikelihoodTable
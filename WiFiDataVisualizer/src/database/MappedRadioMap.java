@@ -0,0 +1,286 @@
+/*
+ * Radio map read straight from a memory-mapped compiled radio map file
+ */
+package database;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Radio map implementation that reads a file written by RadioMapCompiler
+ * through a read-only memory mapping. Nothing but the office and access point
+ * identifiers is decoded at load time, rows are read from the mapping when
+ * they are asked for.
+ *
+ * File layout (big endian), version 1:
+ * <pre>
+ * header       magic, version, office count, access point count, row count,
+ *              then the byte offset of each section below and the file length
+ * office xy    int x, int y per office
+ * office ids   string table
+ * ap xy        int x, int y per access point
+ * ap ssids     string table
+ * row starts   int per access point plus one, first row of each access point
+ * row offices  int office ordinal per row
+ * row rss      int8 RSS per row
+ * </pre>
+ * A string table is an int offset per string plus one (relative to the end
+ * of the offsets) followed by the UTF-8 bytes.
+ *
+ * @author James Licata
+ */
+public class MappedRadioMap
+        extends RadioMap
+{
+   final static int MAGIC = 0x574D4150; //"WMAP"
+   final static int VERSION = 1;
+
+   //Header field byte positions
+   final static int HEADER_MAGIC = 0;
+   final static int HEADER_VERSION = 4;
+   final static int HEADER_OFFICE_COUNT = 8;
+   final static int HEADER_ACCESS_POINT_COUNT = 12;
+   final static int HEADER_ROW_COUNT = 16;
+   final static int HEADER_OFFICE_XY_OFFSET = 20;
+   final static int HEADER_OFFICE_ID_OFFSET = 24;
+   final static int HEADER_ACCESS_POINT_XY_OFFSET = 28;
+   final static int HEADER_ACCESS_POINT_SSID_OFFSET = 32;
+   final static int HEADER_ROW_START_OFFSET = 36;
+   final static int HEADER_ROW_OFFICE_OFFSET = 40;
+   final static int HEADER_ROW_RSS_OFFSET = 44;
+   final static int HEADER_FILE_LENGTH = 48;
+   final static int HEADER_SIZE = 52;
+
+   //The mapped file
+   ByteBuffer mBuffer;
+
+   int mNumberOfOffices;
+   int mNumberOfAccessPoints;
+   int mOfficeXYOffset;
+   int mAccessPointXYOffset;
+   int mRowStartOffset;
+   int mRowOfficeOffset;
+   int mRowRSSOffset;
+
+   //Identifiers are decoded once, they are handed out with every candidate point
+   String[] mOfficeIds;
+   String[] mAccessPointSSIDs;
+
+   /**
+    * Wraps an already mapped (or in-memory) compiled radio map
+    *
+    * @param buffer the compiled radio map contents
+    * @throws IOException if the contents are not a supported compiled radio
+    *                     map
+    */
+   MappedRadioMap(ByteBuffer buffer) throws IOException
+   {
+      mBuffer = buffer;
+      if (buffer.capacity() < HEADER_SIZE || buffer.getInt(HEADER_MAGIC) != MAGIC)
+      {
+         throw new IOException("Not a compiled radio map");
+      }//if
+      if (buffer.getInt(HEADER_VERSION) != VERSION)
+      {
+         throw new IOException("Unsupported compiled radio map version " + buffer.getInt(HEADER_VERSION));
+      }//if
+      if (buffer.getInt(HEADER_FILE_LENGTH) != buffer.capacity())
+      {
+         throw new IOException("Truncated compiled radio map");
+      }//if
+      mNumberOfOffices = buffer.getInt(HEADER_OFFICE_COUNT);
+      mNumberOfAccessPoints = buffer.getInt(HEADER_ACCESS_POINT_COUNT);
+      int number_of_rows = buffer.getInt(HEADER_ROW_COUNT);
+      if (mNumberOfOffices < 0 || mNumberOfAccessPoints < 0 || number_of_rows < 0)
+      {
+         throw new IOException("Corrupt compiled radio map: negative count");
+      }//if
+      mOfficeXYOffset = buffer.getInt(HEADER_OFFICE_XY_OFFSET);
+      mAccessPointXYOffset = buffer.getInt(HEADER_ACCESS_POINT_XY_OFFSET);
+      mRowStartOffset = buffer.getInt(HEADER_ROW_START_OFFSET);
+      mRowOfficeOffset = buffer.getInt(HEADER_ROW_OFFICE_OFFSET);
+      mRowRSSOffset = buffer.getInt(HEADER_ROW_RSS_OFFSET);
+      checkSection("office xy", mOfficeXYOffset, mNumberOfOffices * 8L);
+      checkSection("access point xy", mAccessPointXYOffset, mNumberOfAccessPoints * 8L);
+      checkSection("row starts", mRowStartOffset, (mNumberOfAccessPoints + 1L) * 4);
+      checkSection("row offices", mRowOfficeOffset, number_of_rows * 4L);
+      checkSection("row rss", mRowRSSOffset, number_of_rows);
+      checkRows(number_of_rows);
+      mOfficeIds = readStringTable(buffer.getInt(HEADER_OFFICE_ID_OFFSET), mNumberOfOffices);
+      mAccessPointSSIDs = readStringTable(buffer.getInt(HEADER_ACCESS_POINT_SSID_OFFSET), mNumberOfAccessPoints);
+      indexIdentifiers();
+   }//MappedRadioMap
+
+   /**
+    * Memory-maps a compiled radio map file
+    *
+    * @param radioMapFile the compiled radio map file
+    * @return the mapped radio map
+    * @throws IOException if the file can't be mapped or is not a supported
+    *                     compiled radio map
+    */
+   public static MappedRadioMap load(Path radioMapFile) throws IOException
+   {
+      try (FileChannel channel = FileChannel.open(radioMapFile, StandardOpenOption.READ))
+      {
+         //The mapping stays valid after the channel is closed
+         MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+         return new MappedRadioMap(buffer);
+      }//try
+   }//load
+
+   /**
+    * Checks that a section lies after the header and inside the mapping, so
+    * a corrupt file is rejected here instead of failing in the middle of a
+    * positioning query
+    *
+    * @param sectionName   name of the section for the error message
+    * @param sectionOffset byte offset of the section
+    * @param sectionLength byte length of the section
+    * @throws IOException if the section is outside the mapping
+    */
+   private void checkSection(String sectionName, long sectionOffset, long sectionLength) throws IOException
+   {
+      if (sectionOffset < HEADER_SIZE || sectionOffset + sectionLength > mBuffer.capacity())
+      {
+         throw new IOException("Corrupt compiled radio map: " + sectionName + " section outside the file");
+      }//if
+   }//checkSection
+
+   /**
+    * Checks that the row starts ascend from 0 to the row count and that every
+    * row refers to an existing office
+    *
+    * @param numberOfRows number of rows in the header
+    * @throws IOException if a row start or row office is out of range
+    */
+   private void checkRows(int numberOfRows) throws IOException
+   {
+      int previous_start = 0;
+      for (int ap = 0; ap <= mNumberOfAccessPoints; ++ap)
+      {
+         int start = mBuffer.getInt(mRowStartOffset + ap * 4);
+         if (start < previous_start || start > numberOfRows || (ap == 0 && start != 0))
+         {
+            throw new IOException("Corrupt compiled radio map: row start out of range");
+         }//if
+         previous_start = start;
+      }//for
+      if (previous_start != numberOfRows)
+      {
+         throw new IOException("Corrupt compiled radio map: row starts do not cover the rows");
+      }//if
+      for (int row = 0; row < numberOfRows; ++row)
+      {
+         int office = mBuffer.getInt(mRowOfficeOffset + row * 4);
+         if (office < 0 || office >= mNumberOfOffices)
+         {
+            throw new IOException("Corrupt compiled radio map: row office out of range");
+         }//if
+      }//for
+   }//checkRows
+
+   /**
+    * Decodes a string table
+    *
+    * @param tableOffset     byte offset of the string table
+    * @param numberOfStrings number of strings in the table
+    * @return the decoded strings
+    * @throws IOException if the table lies outside the mapping
+    */
+   private String[] readStringTable(int tableOffset, int numberOfStrings) throws IOException
+   {
+      checkSection("string table", tableOffset, (numberOfStrings + 1L) * 4);
+      String[] strings = new String[numberOfStrings];
+      int bytes_offset = tableOffset + (numberOfStrings + 1) * 4;
+      for (int i = 0; i < numberOfStrings; ++i)
+      {
+         int start = mBuffer.getInt(tableOffset + i * 4);
+         int end = mBuffer.getInt(tableOffset + (i + 1) * 4);
+         if (start < 0 || end < start || (long) bytes_offset + end > mBuffer.capacity())
+         {
+            throw new IOException("Corrupt compiled radio map: string outside the file");
+         }//if
+         byte[] utf8 = new byte[end - start];
+         for (int b = 0; b < utf8.length; ++b)
+         {
+            utf8[b] = mBuffer.get(bytes_offset + start + b);
+         }//for
+         strings[i] = new String(utf8, StandardCharsets.UTF_8);
+      }//for
+      return strings;
+   }//readStringTable
+
+   @Override
+   public int getNumberOfOffices()
+   {
+      return mNumberOfOffices;
+   }//getNumberOfOffices
+
+   @Override
+   public int getNumberOfAccessPoints()
+   {
+      return mNumberOfAccessPoints;
+   }//getNumberOfAccessPoints
+
+   @Override
+   public String getOfficeId(int officeOrdinal)
+   {
+      return mOfficeIds[officeOrdinal];
+   }//getOfficeId
+
+   @Override
+   public int getOfficeX(int officeOrdinal)
+   {
+      return mBuffer.getInt(mOfficeXYOffset + officeOrdinal * 8);
+   }//getOfficeX
+
+   @Override
+   public int getOfficeY(int officeOrdinal)
+   {
+      return mBuffer.getInt(mOfficeXYOffset + officeOrdinal * 8 + 4);
+   }//getOfficeY
+
+   @Override
+   public String getAccessPointSSID(int accessPointOrdinal)
+   {
+      return mAccessPointSSIDs[accessPointOrdinal];
+   }//getAccessPointSSID
+
+   @Override
+   public int getAccessPointX(int accessPointOrdinal)
+   {
+      return mBuffer.getInt(mAccessPointXYOffset + accessPointOrdinal * 8);
+   }//getAccessPointX
+
+   @Override
+   public int getAccessPointY(int accessPointOrdinal)
+   {
+      return mBuffer.getInt(mAccessPointXYOffset + accessPointOrdinal * 8 + 4);
+   }//getAccessPointY
+
+   @Override
+   public int getNumberOfRows(int accessPointOrdinal)
+   {
+      return mBuffer.getInt(mRowStartOffset + (accessPointOrdinal + 1) * 4) - mBuffer.getInt(mRowStartOffset + accessPointOrdinal * 4);
+   }//getNumberOfRows
+
+   @Override
+   public int getRowOfficeOrdinal(int accessPointOrdinal, int row)
+   {
+      int first_row = mBuffer.getInt(mRowStartOffset + accessPointOrdinal * 4);
+      return mBuffer.getInt(mRowOfficeOffset + (first_row + row) * 4);
+   }//getRowOfficeOrdinal
+
+   @Override
+   public int getRowRSS(int accessPointOrdinal, int row)
+   {
+      int first_row = mBuffer.getInt(mRowStartOffset + accessPointOrdinal * 4);
+      return mBuffer.get(mRowRSSOffset + first_row + row);
+   }//getRowRSS
+}//MappedRadioMap
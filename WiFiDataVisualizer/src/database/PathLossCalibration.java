@@ -0,0 +1,97 @@
+/*
+ * Fits per access point path loss models to the radio map
+ */
+package database;
+
+import positioning.PathLossModel;
+
+/**
+ * Calibrates a log-distance path loss model for every access point of the
+ * radio map. Each training row pairs an RSS magnitude with the distance from
+ * its office to the access point. Ranging predicts distance from RSS, so the
+ * least squares line is fitted to 10 log10(d) against |RSS|, which minimizes
+ * the log range error, and then solved for the reference loss and exponent.
+ *
+ * Access points with too few rows, too little spread in distance, or a
+ * fitted exponent outside the physically plausible range keep the free space
+ * model.
+ *
+ * @author James Licata
+ */
+public class PathLossCalibration
+{
+   //Fewest training rows an access point needs to be calibrated
+   final static int MIN_ROWS = 10;
+
+   //Plausible range of indoor path loss exponents
+   final static double MIN_PATH_LOSS_EXPONENT = 1.0;
+   final static double MAX_PATH_LOSS_EXPONENT = 6.0;
+
+   //Shortest distance used in the fit, in meters
+   final static double MIN_DISTANCE_METERS = 1.0;
+
+   /**
+    * Fits the path loss model of every access point
+    *
+    * @param radioMap the loaded radio map
+    * @return one model per access point ordinal
+    */
+   public static PathLossModel[] calibrate(RadioMap radioMap)
+   {
+      PathLossModel[] path_loss_models = new PathLossModel[radioMap.getNumberOfAccessPoints()];
+      for (int ap = 0; ap < path_loss_models.length; ++ap)
+      {
+         path_loss_models[ap] = calibrate(radioMap, ap);
+      }//for
+      return path_loss_models;
+   }//calibrate
+
+   /**
+    * Fits the path loss model of one access point
+    *
+    * @param radioMap           the loaded radio map
+    * @param accessPointOrdinal the access point ordinal
+    * @return the fitted model, or the free space model if the fit is unusable
+    */
+   public static PathLossModel calibrate(RadioMap radioMap, int accessPointOrdinal)
+   {
+      int number_of_rows = radioMap.getNumberOfRows(accessPointOrdinal);
+      if (number_of_rows < MIN_ROWS)
+      {
+         return PathLossModel.FREE_SPACE;
+      }//if
+      double ap_x = radioMap.getAccessPointX(accessPointOrdinal);
+      double ap_y = radioMap.getAccessPointY(accessPointOrdinal);
+      double sum_x = 0.0;
+      double sum_y = 0.0;
+      double sum_yy = 0.0;
+      double sum_xy = 0.0;
+      for (int row = 0; row < number_of_rows; ++row)
+      {
+         int office_ordinal = radioMap.getRowOfficeOrdinal(accessPointOrdinal, row);
+         double dx = radioMap.getOfficeX(office_ordinal) - ap_x;
+         double dy = radioMap.getOfficeY(office_ordinal) - ap_y;
+         double distance_meters = Math.max(MIN_DISTANCE_METERS, Math.sqrt(dx * dx + dy * dy) / PathLossModel.PIXELS_PER_METER);
+         double x = 10.0 * Math.log10(distance_meters);
+         double y = Math.abs(radioMap.getRowRSS(accessPointOrdinal, row));
+         sum_x += x;
+         sum_y += y;
+         sum_yy += y * y;
+         sum_xy += x * y;
+      }//for
+      double variance_y = sum_yy - sum_y * sum_y / number_of_rows;
+      double covariance = sum_xy - sum_x * sum_y / number_of_rows;
+      if (variance_y <= 1e-9 || covariance <= 1e-9)
+      {
+         return PathLossModel.FREE_SPACE;
+      }//if
+      //Slope of 10 log10(d) against |RSS| is 1 / n
+      double path_loss_exponent = variance_y / covariance;
+      if (path_loss_exponent < MIN_PATH_LOSS_EXPONENT || path_loss_exponent > MAX_PATH_LOSS_EXPONENT)
+      {
+         return PathLossModel.FREE_SPACE;
+      }//if
+      double reference_loss_db = (sum_y - path_loss_exponent * sum_x) / number_of_rows;
+      return new PathLossModel(reference_loss_db, path_loss_exponent);
+   }//calibrate
+}//PathLossCalibration
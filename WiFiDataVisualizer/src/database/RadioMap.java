@@ -0,0 +1,288 @@
+/*
+ * Fingerprinting radio map: training point locations, access points and the
+ * RSS recorded for every access point at every training point
+ */
+package database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Read-only view of the radio map addressed by dense office and access point
+ * ordinals, so that candidate points can be generated without any database
+ * round trips. Implementations hold the data in primitive arrays
+ * (ArrayRadioMap) or read it straight from a memory-mapped compiled file
+ * (MappedRadioMap).
+ *
+ * @author James Licata
+ */
+public abstract class RadioMap
+{
+   //Office identifier to office ordinal map
+   HashMap<String, Integer> mOfficeOrdinalMap = new HashMap<>();
+
+   //Access point SSID to access point ordinal map
+   HashMap<String, Integer> mAccessPointOrdinalMap = new HashMap<>();
+
+   //SSID of every access point ordinal
+   String[] mAccessPointSSIDs = new String[0];
+
+   /**
+    * Builds the identifier to ordinal maps, called by implementations once
+    * their data is in place
+    */
+   void indexIdentifiers()
+   {
+      for (int i = 0; i < getNumberOfOffices(); ++i)
+      {
+         mOfficeOrdinalMap.put(getOfficeId(i), i);
+      }//for
+      mAccessPointSSIDs = new String[getNumberOfAccessPoints()];
+      for (int i = 0; i < getNumberOfAccessPoints(); ++i)
+      {
+         mAccessPointSSIDs[i] = getAccessPointSSID(i);
+         mAccessPointOrdinalMap.put(mAccessPointSSIDs[i], i);
+      }//for
+   }//indexIdentifiers
+
+   /**
+    * Loads the training point locations and every per access point training
+    * table from the database
+    *
+    * @param databaseConnection an open connection to the training database
+    * @return the loaded radio map
+    * @throws SQLException if any of the training tables cannot be read
+    */
+   public static RadioMap load(Connection databaseConnection) throws SQLException
+   {
+      ArrayList<String> office_id_list = new ArrayList<>();
+      ArrayList<Integer> office_x_list = new ArrayList<>();
+      ArrayList<Integer> office_y_list = new ArrayList<>();
+      ArrayList<String> ssid_list = new ArrayList<>();
+      HashMap<String, Integer> office_ordinal_map = new HashMap<>();
+      try (Statement stmt = databaseConnection.createStatement())
+      {
+         ResultSet office_result_set = stmt.executeQuery("SELECT Office, x, y FROM TrainingPointLocations");
+         while (office_result_set.next())
+         {
+            String office_id = office_result_set.getString("Office");
+            if (office_ordinal_map.containsKey(office_id) == false)
+            {
+               office_ordinal_map.put(office_id, office_id_list.size());
+               office_id_list.add(office_id);
+               office_x_list.add(office_result_set.getInt("x"));
+               office_y_list.add(office_result_set.getInt("y"));
+            }//if
+         }//while
+
+         RowAccumulator rows;
+         if (FingerprintSchemaMigrator.hasNormalizedSchema(databaseConnection))
+         {
+            //Normalized schema, every access point's rows come from the one Fingerprints table
+            HashMap<Integer, Integer> ap_id_ordinal_map = new HashMap<>();
+            ResultSet ssid_result_set = stmt.executeQuery("SELECT ap_id, SSID FROM AccessPoints ORDER BY SSID");
+            while (ssid_result_set.next())
+            {
+               ap_id_ordinal_map.put(ssid_result_set.getInt("ap_id"), ssid_list.size());
+               ssid_list.add(ssid_result_set.getString("SSID"));
+            }//while
+            rows = new RowAccumulator(ssid_list.size());
+            ResultSet row_result_set = stmt.executeQuery(
+                    "SELECT f.ap_id AS ap_id, f.rss AS RSS, l.Office AS Office FROM Fingerprints f"
+                    + " JOIN TrainingPointLocations l ON l.office_id = f.office_id ORDER BY f.rowid");
+            while (row_result_set.next())
+            {
+               Integer ap_ordinal = ap_id_ordinal_map.get(row_result_set.getInt("ap_id"));
+               Integer office_ordinal = office_ordinal_map.get(row_result_set.getString("Office"));
+               if (ap_ordinal != null && office_ordinal != null)
+               {
+                  rows.add(ap_ordinal, office_ordinal, row_result_set.getInt("RSS"));
+               }//if
+            }//while
+         }//if
+         else
+         {
+            //Only access points that have a training table of their own are part of the radio map
+            ResultSet ssid_result_set = stmt.executeQuery(
+                    "SELECT name FROM sqlite_master WHERE type='table' AND name IN (SELECT SSID FROM APLocations) ORDER BY name");
+            while (ssid_result_set.next())
+            {
+               ssid_list.add(ssid_result_set.getString("name"));
+            }//while
+            rows = new RowAccumulator(ssid_list.size());
+            for (int ap = 0; ap < ssid_list.size(); ++ap)
+            {
+               ResultSet row_result_set = stmt.executeQuery("SELECT RSS, Office FROM " + ssid_list.get(ap));
+               while (row_result_set.next())
+               {
+                  Integer office_ordinal = office_ordinal_map.get(row_result_set.getString("Office"));
+                  if (office_ordinal != null)
+                  {
+                     rows.add(ap, office_ordinal, row_result_set.getInt("RSS"));
+                  }//if
+               }//while
+            }//for
+         }//else
+
+         int[] office_x = new int[office_id_list.size()];
+         int[] office_y = new int[office_id_list.size()];
+         for (int i = 0; i < office_x.length; ++i)
+         {
+            office_x[i] = office_x_list.get(i);
+            office_y[i] = office_y_list.get(i);
+         }//for
+         //Access point locations, zero when an access point has no APLocations row
+         int[] access_point_x = new int[ssid_list.size()];
+         int[] access_point_y = new int[ssid_list.size()];
+         ResultSet location_result_set = stmt.executeQuery("SELECT SSID, x, y FROM APLocations");
+         while (location_result_set.next())
+         {
+            int ap_ordinal = ssid_list.indexOf(location_result_set.getString("SSID"));
+            if (ap_ordinal >= 0)
+            {
+               access_point_x[ap_ordinal] = location_result_set.getInt("x");
+               access_point_y[ap_ordinal] = location_result_set.getInt("y");
+            }//if
+         }//while
+         return new ArrayRadioMap(office_id_list.toArray(new String[0]), office_x, office_y,
+                                  ssid_list.toArray(new String[0]), access_point_x, access_point_y,
+                                  rows.getOfficeOrdinals(), rows.getRSS());
+      }//try
+   }//load
+
+   /**
+    * Growable per access point row buffers used while loading
+    */
+   static class RowAccumulator
+   {
+      int[][] mOfficeOrdinals;
+      int[][] mRSS;
+      int[] mRowCounts;
+
+      RowAccumulator(int numberOfAccessPoints)
+      {
+         mOfficeOrdinals = new int[numberOfAccessPoints][16];
+         mRSS = new int[numberOfAccessPoints][16];
+         mRowCounts = new int[numberOfAccessPoints];
+      }//RowAccumulator
+
+      void add(int accessPointOrdinal, int officeOrdinal, int rss)
+      {
+         int row_count = mRowCounts[accessPointOrdinal];
+         if (row_count == mRSS[accessPointOrdinal].length)
+         {
+            mOfficeOrdinals[accessPointOrdinal] = Arrays.copyOf(mOfficeOrdinals[accessPointOrdinal], row_count * 2);
+            mRSS[accessPointOrdinal] = Arrays.copyOf(mRSS[accessPointOrdinal], row_count * 2);
+         }//if
+         mOfficeOrdinals[accessPointOrdinal][row_count] = officeOrdinal;
+         mRSS[accessPointOrdinal][row_count] = rss;
+         mRowCounts[accessPointOrdinal] = row_count + 1;
+      }//add
+
+      int[][] getOfficeOrdinals()
+      {
+         int[][] result = new int[mRowCounts.length][];
+         for (int ap = 0; ap < mRowCounts.length; ++ap)
+         {
+            result[ap] = Arrays.copyOf(mOfficeOrdinals[ap], mRowCounts[ap]);
+         }//for
+         return result;
+      }//getOfficeOrdinals
+
+      int[][] getRSS()
+      {
+         int[][] result = new int[mRowCounts.length][];
+         for (int ap = 0; ap < mRowCounts.length; ++ap)
+         {
+            result[ap] = Arrays.copyOf(mRSS[ap], mRowCounts[ap]);
+         }//for
+         return result;
+      }//getRSS
+   }//RowAccumulator
+
+   /**
+    * Returns the office ordinal for the given office identifier
+    *
+    * @param officeId the office identifier
+    * @return the office ordinal, or -1 if the office is unknown
+    */
+   public int getOfficeOrdinal(String officeId)
+   {
+      Integer ordinal = mOfficeOrdinalMap.get(officeId);
+      return ordinal == null ? -1 : ordinal;
+   }//getOfficeOrdinal
+
+   /**
+    * Returns the access point ordinal for the given SSID
+    *
+    * @param ssid the access point SSID
+    * @return the access point ordinal, or -1 if the access point is unknown
+    */
+   public int getAccessPointOrdinal(String ssid)
+   {
+      Integer ordinal = mAccessPointOrdinalMap.get(ssid);
+      return ordinal == null ? -1 : ordinal;
+   }//getAccessPointOrdinal
+
+   /**
+    * Returns the SSID table of the access point ordinals, shared by everything
+    * built from the radio map and not to be modified
+    *
+    * @return the SSID of every access point ordinal
+    */
+   public String[] getAccessPointSSIDs()
+   {
+      return mAccessPointSSIDs;
+   }//getAccessPointSSIDs
+
+   /**
+    * Returns the number of offices (training point locations) in the radio map
+    *
+    * @return number of offices
+    */
+   public abstract int getNumberOfOffices();
+
+   /**
+    * Returns the number of access points with training data in the radio map
+    *
+    * @return number of access points
+    */
+   public abstract int getNumberOfAccessPoints();
+
+   public abstract String getOfficeId(int officeOrdinal);
+
+   public abstract int getOfficeX(int officeOrdinal);
+
+   public abstract int getOfficeY(int officeOrdinal);
+
+   public abstract String getAccessPointSSID(int accessPointOrdinal);
+
+   public abstract int getAccessPointX(int accessPointOrdinal);
+
+   public abstract int getAccessPointY(int accessPointOrdinal);
+
+   /**
+    * Returns the number of training rows recorded for an access point
+    *
+    * @param accessPointOrdinal the access point ordinal
+    * @return number of training rows
+    */
+   public abstract int getNumberOfRows(int accessPointOrdinal);
+
+   public abstract int getRowOfficeOrdinal(int accessPointOrdinal, int row);
+
+   /**
+    * Returns the RSS of a training row, stored positive as in the training
+    * tables
+    *
+    * @param accessPointOrdinal the access point ordinal
+    * @param row                the row within the access point's rows
+    * @return the training RSS
+    */
+   public abstract int getRowRSS(int accessPointOrdinal, int row);
+}//RadioMap
@@ -0,0 +1,190 @@
+/*
+ * Compiles the training database into a compact binary radio map file
+ */
+package database;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes a radio map in the versioned binary format read by MappedRadioMap,
+ * so the application can start without the JDBC driver or row by row result
+ * set decoding.
+ *
+ * Usage: RadioMapCompiler &lt;database file&gt; &lt;output file&gt;
+ *
+ * @author James Licata
+ */
+public class RadioMapCompiler
+{
+   /**
+    * Serializes a radio map into the compiled binary format
+    *
+    * @param radioMap the radio map to compile
+    * @return the compiled file contents
+    * @throws IOException if a training RSS does not fit in a signed byte
+    */
+   public static byte[] compile(RadioMap radioMap) throws IOException
+   {
+      int number_of_offices = radioMap.getNumberOfOffices();
+      int number_of_access_points = radioMap.getNumberOfAccessPoints();
+      int number_of_rows = 0;
+      for (int ap = 0; ap < number_of_access_points; ++ap)
+      {
+         number_of_rows += radioMap.getNumberOfRows(ap);
+      }//for
+
+      String[] office_ids = new String[number_of_offices];
+      for (int i = 0; i < number_of_offices; ++i)
+      {
+         office_ids[i] = radioMap.getOfficeId(i);
+      }//for
+      String[] ssids = new String[number_of_access_points];
+      for (int i = 0; i < number_of_access_points; ++i)
+      {
+         ssids[i] = radioMap.getAccessPointSSID(i);
+      }//for
+      byte[] office_id_table = encodeStringTable(office_ids);
+      byte[] ssid_table = encodeStringTable(ssids);
+
+      int office_xy_offset = MappedRadioMap.HEADER_SIZE;
+      int office_id_offset = office_xy_offset + number_of_offices * 8;
+      int access_point_xy_offset = office_id_offset + office_id_table.length;
+      int access_point_ssid_offset = access_point_xy_offset + number_of_access_points * 8;
+      int row_start_offset = access_point_ssid_offset + ssid_table.length;
+      int row_office_offset = row_start_offset + (number_of_access_points + 1) * 4;
+      int row_rss_offset = row_office_offset + number_of_rows * 4;
+      int file_length = row_rss_offset + number_of_rows;
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(file_length);
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(MappedRadioMap.MAGIC);
+      out.writeInt(MappedRadioMap.VERSION);
+      out.writeInt(number_of_offices);
+      out.writeInt(number_of_access_points);
+      out.writeInt(number_of_rows);
+      out.writeInt(office_xy_offset);
+      out.writeInt(office_id_offset);
+      out.writeInt(access_point_xy_offset);
+      out.writeInt(access_point_ssid_offset);
+      out.writeInt(row_start_offset);
+      out.writeInt(row_office_offset);
+      out.writeInt(row_rss_offset);
+      out.writeInt(file_length);
+      for (int i = 0; i < number_of_offices; ++i)
+      {
+         out.writeInt(radioMap.getOfficeX(i));
+         out.writeInt(radioMap.getOfficeY(i));
+      }//for
+      out.write(office_id_table);
+      for (int i = 0; i < number_of_access_points; ++i)
+      {
+         out.writeInt(radioMap.getAccessPointX(i));
+         out.writeInt(radioMap.getAccessPointY(i));
+      }//for
+      out.write(ssid_table);
+      int row_start = 0;
+      for (int ap = 0; ap < number_of_access_points; ++ap)
+      {
+         out.writeInt(row_start);
+         row_start += radioMap.getNumberOfRows(ap);
+      }//for
+      out.writeInt(row_start);
+      for (int ap = 0; ap < number_of_access_points; ++ap)
+      {
+         for (int row = 0; row < radioMap.getNumberOfRows(ap); ++row)
+         {
+            out.writeInt(radioMap.getRowOfficeOrdinal(ap, row));
+         }//for
+      }//for
+      for (int ap = 0; ap < number_of_access_points; ++ap)
+      {
+         for (int row = 0; row < radioMap.getNumberOfRows(ap); ++row)
+         {
+            int rss = radioMap.getRowRSS(ap, row);
+            if (rss < Byte.MIN_VALUE || rss > Byte.MAX_VALUE)
+            {
+               throw new IOException("RSS " + rss + " of " + radioMap.getAccessPointSSID(ap) + " does not fit in a byte");
+            }//if
+            out.writeByte(rss);
+         }//for
+      }//for
+      out.flush();
+      return bytes.toByteArray();
+   }//compile
+
+   /**
+    * Encodes strings as a table of offsets followed by the UTF-8 bytes
+    *
+    * @param strings the strings to encode
+    * @return the encoded string table
+    * @throws IOException never, the table is written to memory
+    */
+   private static byte[] encodeStringTable(String[] strings) throws IOException
+   {
+      ByteArrayOutputStream utf8_bytes = new ByteArrayOutputStream();
+      int[] offsets = new int[strings.length + 1];
+      for (int i = 0; i < strings.length; ++i)
+      {
+         offsets[i] = utf8_bytes.size();
+         utf8_bytes.write(strings[i].getBytes(StandardCharsets.UTF_8));
+      }//for
+      offsets[strings.length] = utf8_bytes.size();
+
+      ByteArrayOutputStream table = new ByteArrayOutputStream(offsets.length * 4 + utf8_bytes.size());
+      DataOutputStream out = new DataOutputStream(table);
+      for (int offset : offsets)
+      {
+         out.writeInt(offset);
+      }//for
+      utf8_bytes.writeTo(out);
+      out.flush();
+      return table.toByteArray();
+   }//encodeStringTable
+
+   /**
+    * Compiler main function
+    *
+    * @param args the training database file and the output file
+    */
+   public static void main(String args[])
+   {
+      if (args.length < 2)
+      {
+         System.err.println("Usage: RadioMapCompiler <database file> <output file>");
+         System.exit(1);
+      }//if
+      try
+      {
+         DriverManager.registerDriver(new org.sqlite.JDBC());
+         byte[] compiled_radio_map;
+         try (Connection database_connection = DriverManager.getConnection("jdbc:sqlite:" + args[0]))
+         {
+            compiled_radio_map = compile(RadioMap.load(database_connection));
+         }//try
+         try (BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(args[1])))
+         {
+            out.write(compiled_radio_map);
+         }//try
+         Logger.getLogger(RadioMapCompiler.class.getName()).log(Level.INFO, "Wrote {0} bytes to {1}",
+                                                               new Object[]
+                                                               {
+                                                                  compiled_radio_map.length, args[1]
+                                                               });
+      }//try
+      catch (SQLException | IOException ex)
+      {
+         Logger.getLogger(RadioMapCompiler.class.getName()).log(Level.SEVERE, null, ex);
+         System.exit(1);
+      }//catch
+   }//main
+}//RadioMapCompiler
@@ -0,0 +1,272 @@
+/*
+ * Inverted index from training RSS values to the offices that recorded them
+ */
+package database;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import positioning.AccessPointObservationRecord;
+import positioning.CandidatePoint;
+import static java.lang.Math.abs;
+
+/**
+ * Candidate generation engine built on top of the radio map. For every access
+ * point each integer RSS value maps to the training rows that recorded it, so
+ * the +/- 2 dBm window is read from five contiguous buckets instead of
+ * scanning the access point's rows. The buckets are merged by row, there is
+ * no per office bitset.
+ *
+ * The candidates match the training table query: every training row inside
+ * the window counts towards its office's frequency, and when an office has
+ * several rows for one access point the last row in table order gives its
+ * signal differential. Rows are visited in table order and the offices are
+ * put in a default sized HashMap in the order they were found, so candidates
+ * of equal frequency are also iterated in the query's order.
+ *
+ * Counts and differentials go straight into the candidate point of the
+ * office, as the query path does, so a thread's query buffers only hold one
+ * candidate reference per office and the offices the query touched.
+ *
+ * @author James Licata
+ */
+public class RssInvertedIndex
+{
+   //Half width of the RSS window in dBm
+   final static int RSS_WINDOW = 2;
+
+   //Touched office slots a workspace starts with, grown by doubling
+   final static int INITIAL_TOUCHED_OFFICES = 64;
+
+   //The radio map the index was built from
+   RadioMap mRadioMap;
+
+   //SSID of every access point ordinal, shared by all candidate points
+   String[] mAccessPointSSIDs;
+
+   //Lowest and highest training RSS per access point
+   int[] mMinRSS;
+   int[] mMaxRSS;
+
+   //Per access point, the first bucket entry of each RSS value from min to
+   //max plus one past the end
+   int[][] mBucketStarts;
+
+   //Per access point, the office ordinal and row of each bucket entry. The
+   //entries of one RSS value are in row order.
+   int[][] mBucketOffices;
+   int[][] mBucketRows;
+
+   //Per thread working buffers so concurrent queries don't share state
+   ThreadLocal<Workspace> mWorkspace = new ThreadLocal<Workspace>()
+   {
+      @Override
+      protected Workspace initialValue()
+      {
+         return new Workspace();
+      }//initialValue
+   };
+
+   /**
+    * Reusable buffers for a single candidate query
+    */
+   class Workspace
+   {
+      //Candidate of each office touched by the current query, null otherwise
+      CandidatePoint[] mOfficeCandidates = new CandidatePoint[mRadioMap.getNumberOfOffices()];
+
+      //Offices touched by the current query, in the order they were found
+      int[] mTouchedOffices = new int[Math.min(INITIAL_TOUCHED_OFFICES, mRadioMap.getNumberOfOffices())];
+      int mNumberOfTouchedOffices = 0;
+
+      //The current query's candidates, in the order they were found
+      HashMap<String, CandidatePoint> mCandidatePoints;
+
+      //Next and end entry of each RSS bucket of the window being merged
+      int[] mBucketCursors = new int[2 * RSS_WINDOW + 1];
+      int[] mBucketEnds = new int[2 * RSS_WINDOW + 1];
+   }//Workspace
+
+   /**
+    * Builds the inverted index from the given radio map
+    *
+    * @param radioMap the loaded radio map
+    */
+   public RssInvertedIndex(RadioMap radioMap)
+   {
+      mRadioMap = radioMap;
+      int number_of_access_points = radioMap.getNumberOfAccessPoints();
+      mAccessPointSSIDs = radioMap.getAccessPointSSIDs();
+      mMinRSS = new int[number_of_access_points];
+      mMaxRSS = new int[number_of_access_points];
+      mBucketStarts = new int[number_of_access_points][];
+      mBucketOffices = new int[number_of_access_points][];
+      mBucketRows = new int[number_of_access_points][];
+      for (int ap = 0; ap < number_of_access_points; ++ap)
+      {
+         int min_rss = Integer.MAX_VALUE;
+         int max_rss = Integer.MIN_VALUE;
+         for (int row = 0; row < radioMap.getNumberOfRows(ap); ++row)
+         {
+            min_rss = Math.min(min_rss, radioMap.getRowRSS(ap, row));
+            max_rss = Math.max(max_rss, radioMap.getRowRSS(ap, row));
+         }//for
+         if (min_rss > max_rss)
+         {
+            //No training rows, leave an empty range
+            min_rss = 0;
+            max_rss = -1;
+         }//if
+         mMinRSS[ap] = min_rss;
+         mMaxRSS[ap] = max_rss;
+         //Counting sort of the rows by RSS, stable so each bucket stays in row order
+         int number_of_rows = radioMap.getNumberOfRows(ap);
+         int[] bucket_starts = new int[max_rss - min_rss + 2];
+         for (int row = 0; row < number_of_rows; ++row)
+         {
+            ++bucket_starts[radioMap.getRowRSS(ap, row) - min_rss + 1];
+         }//for
+         for (int bucket = 1; bucket < bucket_starts.length; ++bucket)
+         {
+            bucket_starts[bucket] += bucket_starts[bucket - 1];
+         }//for
+         int[] bucket_ends = Arrays.copyOf(bucket_starts, bucket_starts.length - 1);
+         int[] bucket_offices = new int[number_of_rows];
+         int[] bucket_rows = new int[number_of_rows];
+         for (int row = 0; row < number_of_rows; ++row)
+         {
+            int entry = bucket_ends[radioMap.getRowRSS(ap, row) - min_rss]++;
+            bucket_offices[entry] = radioMap.getRowOfficeOrdinal(ap, row);
+            bucket_rows[entry] = row;
+         }//for
+         mBucketStarts[ap] = bucket_starts;
+         mBucketOffices[ap] = bucket_offices;
+         mBucketRows[ap] = bucket_rows;
+      }//for
+   }//RssInvertedIndex
+
+   /**
+    * Returns the radio map the index was built from
+    *
+    * @return the radio map
+    */
+   public RadioMap getRadioMap()
+   {
+      return mRadioMap;
+   }//getRadioMap
+
+   /**
+    * Retrieves the likeliest fingerprinting points for the observed access
+    * points
+    *
+    * @param accessPointList input access point list
+    * @return Map returning the most likely points for the fingerprinting
+    *         algorithm between a bounded RSS range
+    */
+   public HashMap<String, CandidatePoint> getLikeliestPoints(ArrayList<AccessPointObservationRecord> accessPointList)
+   {
+      Workspace workspace = mWorkspace.get();
+      int number_of_access_points = mRadioMap.getNumberOfAccessPoints();
+      HashMap<String, CandidatePoint> resultant_point_list = new HashMap<>();
+      workspace.mCandidatePoints = resultant_point_list;
+      for (AccessPointObservationRecord access_point : accessPointList)
+      {
+         //Records carry the ordinal of the training data base's SSID table, which is the radio map's
+         int ap_ordinal = access_point.getAccessPointOrdinal();
+         if (ap_ordinal >= 0 && ap_ordinal < number_of_access_points)
+         {
+            countWindow(workspace, ap_ordinal, access_point.getSignalLevel());
+         }//if
+      }//for
+
+      for (int i = 0; i < workspace.mNumberOfTouchedOffices; ++i)
+      {
+         workspace.mOfficeCandidates[workspace.mTouchedOffices[i]] = null;
+      }//for
+      workspace.mNumberOfTouchedOffices = 0;
+      workspace.mCandidatePoints = null;
+      return resultant_point_list;
+   }//getLikeliestPoints
+
+   /**
+    * Counts every training row of one access point inside the RSS window
+    * towards its office, merging the window's buckets so the rows are
+    * visited in table order. The last row of an office gives its signal
+    * differential.
+    *
+    * @param workspace           the query buffers
+    * @param apOrdinal           the access point ordinal
+    * @param observedSignalLevel the observed RSS in dBm (negative)
+    */
+   private void countWindow(Workspace workspace, int apOrdinal, int observedSignalLevel)
+   {
+      //Same bounds as "RSS BETWEEN upper AND lower" on the training table
+      int rss_lower_bound = Math.min(abs(observedSignalLevel - RSS_WINDOW), mMaxRSS[apOrdinal]);
+      int rss_upper_bound = Math.max(abs(observedSignalLevel + RSS_WINDOW), mMinRSS[apOrdinal]);
+      int[] bucket_starts = mBucketStarts[apOrdinal];
+      int[] bucket_offices = mBucketOffices[apOrdinal];
+      int[] bucket_rows = mBucketRows[apOrdinal];
+      int[] cursors = workspace.mBucketCursors;
+      int[] ends = workspace.mBucketEnds;
+      int number_of_buckets = 0;
+      for (int rss = rss_upper_bound; rss <= rss_lower_bound; ++rss)
+      {
+         cursors[number_of_buckets] = bucket_starts[rss - mMinRSS[apOrdinal]];
+         ends[number_of_buckets] = bucket_starts[rss - mMinRSS[apOrdinal] + 1];
+         ++number_of_buckets;
+      }//for
+      while (true)
+      {
+         //The bucket whose next row comes first in the table
+         int next_bucket = -1;
+         for (int bucket = 0; bucket < number_of_buckets; ++bucket)
+         {
+            if (cursors[bucket] < ends[bucket]
+                && (next_bucket < 0 || bucket_rows[cursors[bucket]] < bucket_rows[cursors[next_bucket]]))
+            {
+               next_bucket = bucket;
+            }//if
+         }//for
+         if (next_bucket < 0)
+         {
+            break;
+         }//if
+         int entry = cursors[next_bucket]++;
+         int signal_diff = SQLLiteConnection.getSignalLevelDiff(observedSignalLevel, rss_upper_bound + next_bucket);
+         CandidatePoint candidate_point = workspace.mOfficeCandidates[bucket_offices[entry]];
+         if (candidate_point != null)
+         {
+            candidate_point.incrementFrequencyCount();
+            candidate_point.addSignalLevelDiff(apOrdinal, signal_diff);
+         }//if
+         else
+         {
+            candidate_point = addCandidatePoint(workspace, bucket_offices[entry]);
+            candidate_point.addSignalLevelDiff(apOrdinal, signal_diff);
+         }//else
+      }//while
+   }//countWindow
+
+   /**
+    * Adds the candidate point of an office the query touches for the first
+    * time, its constructor counts the first occurrence
+    *
+    * @param workspace     the query buffers
+    * @param officeOrdinal the office ordinal
+    * @return the new candidate point
+    */
+   private CandidatePoint addCandidatePoint(Workspace workspace, int officeOrdinal)
+   {
+      Point office_point = new Point(mRadioMap.getOfficeX(officeOrdinal), mRadioMap.getOfficeY(officeOrdinal));
+      CandidatePoint candidate_point = new CandidatePoint(office_point, mRadioMap.getOfficeId(officeOrdinal), mAccessPointSSIDs);
+      if (workspace.mNumberOfTouchedOffices == workspace.mTouchedOffices.length)
+      {
+         workspace.mTouchedOffices = Arrays.copyOf(workspace.mTouchedOffices, workspace.mNumberOfTouchedOffices * 2);
+      }//if
+      workspace.mTouchedOffices[workspace.mNumberOfTouchedOffices++] = officeOrdinal;
+      workspace.mOfficeCandidates[officeOrdinal] = candidate_point;
+      workspace.mCandidatePoints.put(candidate_point.getLocationID(), candidate_point);
+      return candidate_point;
+   }//addCandidatePoint
+}//RssInvertedIndex
@@ -4,17 +4,31 @@
 package database;
 
 import java.awt.Point;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import positioning.AccessPointObservationRecord;
 import positioning.CandidatePoint;
+import positioning.PathLossModel;
+import positioning.RouterWeightTable;
+import wifidatavisualizer.Constants;
 import static java.lang.Math.abs;
 
 /**
@@ -27,21 +41,113 @@ public class SQLLiteConnection
    Connection mDatabaseConnection = null;
    boolean mDatabaseConnected = false;
    String mDatabaseName = "";
+   //In-memory radio map loaded at connect time, null if it could not be loaded
+   volatile RadioMap mRadioMap = null;
+   //Guards building the structures derived from the radio map, each is built
+   //on first use so a load only pays for what the selected algorithms need
+   final Object mRadioMapLock = new Object();
+   //RSS inverted index over the radio map used for candidate generation
+   volatile RssInvertedIndex mCandidateIndex = null;
+   //Signal space k-d tree over the radio map used for weighted KNN
+   volatile SignalSpaceKdTree mSignalSpaceTree = null;
+   //Gaussian log-likelihood tables over the radio map used for Bayesian fingerprinting
+   volatile GaussianLikelihoodTable mLikelihoodTable = null;
+   //Path loss models calibrated to the radio map, by access point ordinal
+   volatile PathLossModel[] mPathLossModels = null;
+   //Whether the radio map should be held in memory, or queried from the database every epoch
+   boolean mLoadRadioMapIntoMemory = true;
+   //Names of the per access point training tables, used to validate SSIDs before they go into a query
+   HashSet<String> mAccessPointTableNames = new HashSet<>();
+   //Whether the database holds the normalized Fingerprints schema instead of one table per access point
+   boolean mNormalizedSchema = false;
+   //Access point SSID to ap_id map for the normalized schema
+   HashMap<String, Integer> mAccessPointIdMap = new HashMap<>();
+   //SSID of every access point ordinal candidate points and observation records
+   //use, the radio map's when it is loaded, otherwise the training tables' in SSID order
+   volatile String[] mAccessPointSSIDs = new String[0];
+   //Access point SSID to ordinal map of mAccessPointSSIDs
+   volatile HashMap<String, Integer> mAccessPointOrdinalMap = new HashMap<>();
+   //Configured router weights by access point ordinal, built with the SSID table
+   volatile RouterWeightTable mRouterWeights = RouterWeightTable.getFixedWeights(new String[0]);
+   //Prepared statements cached by their query text, least recently used first.
+   //Only touched while holding this connection's lock.
+   LinkedHashMap<String, PreparedStatement> mPreparedStatementCache = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true)
+   {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest)
+      {
+         if (size() > Constants.DEFAULT_PREPARED_STATEMENT_CACHE_CAPACITY)
+         {
+            closeStatement(eldest.getValue());
+            return true;
+         }//if
+         return false;
+      }//removeEldestEntry
+   };
+   //LRU cache of candidate sets keyed by the observed RSS vector
+   CandidatePointCache mCandidateCache = new CandidatePointCache(Constants.DEFAULT_CANDIDATE_CACHE_CAPACITY);
+
+   //Whether the SQLite JDBC driver has been registered, done on first connect
+   static boolean sDriverRegistered = false;
 
    /**
     * Default constructor
     */
    public SQLLiteConnection()
+   {
+   }//SQLLiteConnection
+
+   /**
+    * Registers the SQLite JDBC driver the first time a database is connected,
+    * so a compiled radio map can be used without loading the driver at all
+    */
+   private static synchronized void registerDriver()
+   {
+      if (sDriverRegistered == false)
+      {
+         try
+         {
+            DriverManager.registerDriver(new org.sqlite.JDBC());
+            sDriverRegistered = true;
+         }//try
+         catch (SQLException ex)
+         {
+            Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.SEVERE, null, ex);
+         }//catch
+      }//if
+   }//registerDriver
+
+   /**
+    * Memory-maps a radio map compiled by RadioMapCompiler and uses it for
+    * candidate generation and the training point and router locations. No
+    * database connection is needed afterwards
+    *
+    * @param radioMapFile the compiled radio map file
+    * @return true if the radio map was loaded
+    */
+   public boolean openCompiledRadioMap(String radioMapFile)
    {
       try
       {
-         DriverManager.registerDriver(new org.sqlite.JDBC());
+         setRadioMap(MappedRadioMap.load(Paths.get(radioMapFile)));
+         Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.INFO, "Compiled radio map mapped: {0} access points, {1} offices",
+                                                                new Object[]
+                                                                {
+                                                                   mRadioMap.getNumberOfAccessPoints(), mRadioMap.getNumberOfOffices()
+                                                                });
+         return true;
       }//try
-      catch (SQLException ex)
+      catch (IOException | RuntimeException ex)
       {
-         Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.SEVERE, null, ex);
+         //A corrupt file can still trip an unchecked exception while indexing,
+         //either way the caller falls back to the training database
+         Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.WARNING, null, ex);
+         setRadioMap(null);
+         return false;
       }//catch
-   }//SQLLiteConnection
+   }//openCompiledRadioMap
 
    /**
     *
@@ -49,9 +155,23 @@ public class SQLLiteConnection
     * @param databaseName name of the database
     */
    public boolean connect(String databaseUrl, String databaseName)
+   {
+      return connect(databaseUrl, databaseName, true);
+   }//connect
+
+   /**
+    *
+    * @param databaseUrl            the url of the database to connect to
+    * @param databaseName           name of the database
+    * @param loadRadioMapIntoMemory true to hold the radio map in memory, false
+    *                               to query the database every epoch (for
+    *                               radio maps too large for the heap)
+    */
+   public boolean connect(String databaseUrl, String databaseName, boolean loadRadioMapIntoMemory)
    {
       if (mDatabaseConnected == false)
       {
+         registerDriver();
          try
          {
             mDatabaseConnection = DriverManager.getConnection(databaseUrl);
@@ -60,7 +180,12 @@ public class SQLLiteConnection
                mDatabaseConnected = true;
                mDatabaseName = databaseName;
                Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.INFO, "Database connected");
-
+               mLoadRadioMapIntoMemory = loadRadioMapIntoMemory;
+               loadAccessPointTableNames();
+               if (mLoadRadioMapIntoMemory)
+               {
+                  loadRadioMap();
+               }//if
             }//if
          }//try
          catch (SQLException ex)
@@ -87,10 +212,27 @@ public class SQLLiteConnection
     */
    public void closeDatabase()
    {
+      Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.INFO, mCandidateCache.toString());
+      mCandidateCache.clear();
+      if (mDatabaseConnection == null)
+      {
+         //Only a compiled radio map was opened
+         setRadioMap(null);
+         return;
+      }//if
       try
       {
+         synchronized (this)
+         {
+            for (PreparedStatement prepared_statement : mPreparedStatementCache.values())
+            {
+               closeStatement(prepared_statement);
+            }//for
+            mPreparedStatementCache.clear();
+         }//synchronized
          mDatabaseConnection.close();
          mDatabaseConnected = false;
+         setRadioMap(null);
       }//try
       catch (SQLException ex)
       {
@@ -98,6 +240,343 @@ public class SQLLiteConnection
       }//catch
    }//closeDatabase
 
+   /**
+    * Replaces the candidate set cache with an empty one of the given capacity
+    *
+    * @param capacity the maximum number of cached candidate sets, 0 disables
+    *                 caching
+    */
+   public void setCandidateCacheCapacity(int capacity)
+   {
+      mCandidateCache = new CandidatePointCache(capacity);
+   }//setCandidateCacheCapacity
+
+   /**
+    * Returns the candidate set cache, e.g. to read its hit/miss/eviction
+    * counters
+    *
+    * @return the candidate set cache
+    */
+   public CandidatePointCache getCandidateCache()
+   {
+      return mCandidateCache;
+   }//getCandidateCache
+
+   /**
+    * Returns the cached prepared statement for the given query, preparing it
+    * on first use so SQLite parses and plans each query shape once. The
+    * statement is shared, so the caller must hold this connection's lock
+    * until it is done with the statement and its result set.
+    *
+    * @param query the query text
+    * @return the prepared statement
+    * @throws SQLException if the query cannot be prepared
+    */
+   private synchronized PreparedStatement getPreparedStatement(String query) throws SQLException
+   {
+      PreparedStatement prepared_statement = mPreparedStatementCache.get(query);
+      if (prepared_statement == null)
+      {
+         prepared_statement = mDatabaseConnection.prepareStatement(query);
+         mPreparedStatementCache.put(query, prepared_statement);
+      }//if
+      return prepared_statement;
+   }//getPreparedStatement
+
+   /**
+    * Closes a prepared statement dropped from the statement cache
+    *
+    * @param preparedStatement the statement to close
+    */
+   private static void closeStatement(PreparedStatement preparedStatement)
+   {
+      try
+      {
+         preparedStatement.close();
+      }//try
+      catch (SQLException ex)
+      {
+         Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.WARNING, null, ex);
+      }//catch
+   }//closeStatement
+
+   /**
+    * Loads the names of the access points that have a training table, or
+    * their ap_id when the database holds the normalized schema
+    */
+   private synchronized void loadAccessPointTableNames()
+   {
+      mAccessPointTableNames.clear();
+      mAccessPointIdMap.clear();
+      try
+      {
+         mNormalizedSchema = FingerprintSchemaMigrator.hasNormalizedSchema(mDatabaseConnection);
+         if (mNormalizedSchema)
+         {
+            ResultSet access_point_result_set = getPreparedStatement("SELECT ap_id, SSID FROM AccessPoints").executeQuery();
+            while (access_point_result_set.next())
+            {
+               mAccessPointIdMap.put(access_point_result_set.getString("SSID"), access_point_result_set.getInt("ap_id"));
+            }//while
+            access_point_result_set.close();
+            indexAccessPoints();
+            return;
+         }//if
+         ResultSet query_result_set = getPreparedStatement(
+                 "SELECT name FROM sqlite_master WHERE type='table' AND name IN (SELECT SSID FROM APLocations)").executeQuery();
+         while (query_result_set.next())
+         {
+            mAccessPointTableNames.add(query_result_set.getString("name"));
+         }//while
+         query_result_set.close();
+         indexAccessPoints();
+      }//try
+      catch (SQLException ex)
+      {
+         Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.SEVERE, null, ex);
+      }//catch
+   }//loadAccessPointTableNames
+
+   /**
+    * Loads the per access point training tables and training point locations
+    * into memory so that candidate points can be generated without querying
+    * the database every epoch
+    */
+   private void loadRadioMap()
+   {
+      try
+      {
+         setRadioMap(RadioMap.load(mDatabaseConnection));
+         Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.INFO, "Radio map loaded: {0} access points, {1} offices",
+                                                                new Object[]
+                                                                {
+                                                                   mRadioMap.getNumberOfAccessPoints(), mRadioMap.getNumberOfOffices()
+                                                                });
+      }//try
+      catch (SQLException ex)
+      {
+         setRadioMap(null);
+         Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.SEVERE, null, ex);
+      }//catch
+   }//loadRadioMap
+
+   /**
+    * Replaces the in-memory radio map and drops everything derived from the
+    * previous one
+    *
+    * @param radioMap the new radio map, or null to unload it
+    */
+   private void setRadioMap(RadioMap radioMap)
+   {
+      synchronized (mRadioMapLock)
+      {
+         mRadioMap = radioMap;
+         mCandidateIndex = null;
+         mSignalSpaceTree = null;
+         mLikelihoodTable = null;
+         mPathLossModels = null;
+      }//synchronized
+      indexAccessPoints();
+      mCandidateCache.clear();
+   }//setRadioMap
+
+   /**
+    * Rebuilds the access point SSID table, its ordinal map and the router
+    * weights indexed by it, from the radio map when one is loaded and from
+    * the training tables otherwise
+    */
+   private void indexAccessPoints()
+   {
+      synchronized (mRadioMapLock)
+      {
+         String[] access_point_ssids;
+         if (mRadioMap != null)
+         {
+            access_point_ssids = mRadioMap.getAccessPointSSIDs();
+         }//if
+         else
+         {
+            TreeSet<String> training_table_ssids = new TreeSet<>(mAccessPointTableNames);
+            training_table_ssids.addAll(mAccessPointIdMap.keySet());
+            access_point_ssids = training_table_ssids.toArray(new String[0]);
+         }//else
+         HashMap<String, Integer> access_point_ordinal_map = new HashMap<>();
+         for (int ap_ordinal = 0; ap_ordinal < access_point_ssids.length; ++ap_ordinal)
+         {
+            access_point_ordinal_map.put(access_point_ssids[ap_ordinal], ap_ordinal);
+         }//for
+         mAccessPointSSIDs = access_point_ssids;
+         mAccessPointOrdinalMap = access_point_ordinal_map;
+         mRouterWeights = RouterWeightTable.getFixedWeights(access_point_ssids);
+      }//synchronized
+   }//indexAccessPoints
+
+   /**
+    * Returns the ordinal of an access point in the SSID table candidate
+    * points are indexed by. Resolve it once per access point and keep it on
+    * the observation record.
+    *
+    * @param ssid the access point SSID
+    * @return the access point ordinal, or -1 if the training data has no
+    *         fingerprints for the access point
+    */
+   public int getAccessPointOrdinal(String ssid)
+   {
+      Integer ordinal = mAccessPointOrdinalMap.get(ssid);
+      return (ordinal != null) ? ordinal : -1;
+   }//getAccessPointOrdinal
+
+   /**
+    * Returns the configured router weights, indexed by the same access point
+    * ordinals as the candidate points
+    *
+    * @return the fixed router weight table
+    */
+   public RouterWeightTable getRouterWeights()
+   {
+      return mRouterWeights;
+   }//getRouterWeights
+
+   /**
+    * Returns the RSS inverted index over the in-memory radio map, building it
+    * on first use
+    *
+    * @return the inverted index, or null if the radio map is not loaded
+    */
+   private RssInvertedIndex getCandidateIndex()
+   {
+      RssInvertedIndex candidate_index = mCandidateIndex;
+      if (candidate_index == null && mRadioMap != null)
+      {
+         synchronized (mRadioMapLock)
+         {
+            if (mCandidateIndex == null && mRadioMap != null)
+            {
+               mCandidateIndex = new RssInvertedIndex(mRadioMap);
+            }//if
+            candidate_index = mCandidateIndex;
+         }//synchronized
+      }//if
+      return candidate_index;
+   }//getCandidateIndex
+
+   /**
+    * Returns the in-memory radio map loaded when the database was connected
+    *
+    * @return the radio map, or null if it is not loaded
+    */
+   public RadioMap getRadioMap()
+   {
+      return mRadioMap;
+   }//getRadioMap
+
+   /**
+    * Returns the signal space k-d tree over the in-memory radio map, building
+    * it on first use
+    *
+    * @return the k-d tree, or null if the radio map is not loaded
+    */
+   public SignalSpaceKdTree getSignalSpaceTree()
+   {
+      SignalSpaceKdTree signal_space_tree = mSignalSpaceTree;
+      if (signal_space_tree == null && mRadioMap != null)
+      {
+         synchronized (mRadioMapLock)
+         {
+            if (mSignalSpaceTree == null && mRadioMap != null)
+            {
+               mSignalSpaceTree = new SignalSpaceKdTree(mRadioMap);
+            }//if
+            signal_space_tree = mSignalSpaceTree;
+         }//synchronized
+      }//if
+      return signal_space_tree;
+   }//getSignalSpaceTree
+
+   /**
+    * Returns the Gaussian log-likelihood tables over the in-memory radio map,
+    * building them on the first Bayesian query
+    *
+    * @return the likelihood tables, or null if the radio map is not loaded
+    */
+   public GaussianLikelihoodTable getLikelihoodTable()
+   {
+      GaussianLikelihoodTable likelihood_table = mLikelihoodTable;
+      if (likelihood_table == null && mRadioMap != null)
+      {
+         synchronized (mRadioMapLock)
+         {
+            if (mLikelihoodTable == null && mRadioMap != null)
+            {
+               mLikelihoodTable = new GaussianLikelihoodTable(mRadioMap);
+            }//if
+            likelihood_table = mLikelihoodTable;
+         }//synchronized
+      }//if
+      return likelihood_table;
+   }//getLikelihoodTable
+
+   /**
+    * Returns the path loss model used to range an access point. Access points
+    * are only calibrated while the radio map is loaded.
+    *
+    * @param ssid the access point SSID
+    * @return the calibrated model, or the free space model if there is none
+    */
+   public PathLossModel getPathLossModel(String ssid)
+   {
+      if (Constants.PATH_LOSS_USE_CALIBRATION == false || mRadioMap == null)
+      {
+         return PathLossModel.FREE_SPACE;
+      }//if
+      PathLossModel[] path_loss_models = mPathLossModels;
+      RadioMap radio_map = mRadioMap;
+      if (path_loss_models == null)
+      {
+         synchronized (mRadioMapLock)
+         {
+            radio_map = mRadioMap;
+            if (mPathLossModels == null && radio_map != null)
+            {
+               //Calibrated on first use, only the ranging algorithms need it
+               mPathLossModels = PathLossCalibration.calibrate(radio_map);
+            }//if
+            path_loss_models = mPathLossModels;
+         }//synchronized
+      }//if
+      if (path_loss_models == null)
+      {
+         return PathLossModel.FREE_SPACE;
+      }//if
+      int ap_ordinal = radio_map.getAccessPointOrdinal(ssid);
+      return ap_ordinal < 0 ? PathLossModel.FREE_SPACE : path_loss_models[ap_ordinal];
+   }//getPathLossModel
+
+   /**
+    * Returns the signal differential between an observed RSS and a training
+    * RSS, adding a factor when the observed signal level is weak to help
+    * prioritize later
+    *
+    * @param observedSignalLevel the observed RSS in dBm (negative)
+    * @param trainingRSS         the training RSS as stored in the database
+    *                            (positive)
+    * @return the signal differential
+    */
+   static int getSignalLevelDiff(int observedSignalLevel, int trainingRSS)
+   {
+      //Find out how weak the signal is and add a differential factor to it
+      int signal_weakness_factor = abs(observedSignalLevel) - 55;
+      if (signal_weakness_factor > 0)
+      {
+         int signal_weakness_adder = signal_weakness_factor / 5;
+         return abs(abs(observedSignalLevel) - trainingRSS) + signal_weakness_adder;
+      }//if
+      else
+      {
+         return abs(abs(observedSignalLevel) - trainingRSS);
+      }//else
+   }//getSignalLevelDiff
+
    /**
     * Function to load the training data points from the database
     *
@@ -107,7 +586,14 @@ public class SQLLiteConnection
    public ArrayList<Point> loadTrainingPointLocations()
    {
       ArrayList<Point> training_point_location_list = new ArrayList<>();
-      if (isDatabaseConnected())
+      if (mRadioMap != null)
+      {
+         for (int i = 0; i < mRadioMap.getNumberOfOffices(); ++i)
+         {
+            training_point_location_list.add(new Point(mRadioMap.getOfficeX(i), mRadioMap.getOfficeY(i)));
+         }//for
+      }//if
+      else if (isDatabaseConnected())
       {
          Statement stmt = null;
          String query =
@@ -151,197 +637,290 @@ public class SQLLiteConnection
    }//loadTrainingPointLocations
 
    /**
-    * Function to load the router point locations from the database
+    * Function to load the router point locations from the database. The
+    * routers are the given access points that have a location in the training
+    * data, however many there are.
     *
-    * @return list containing the locations of the routers from the database
+    * @param ssids the discovered access points, or null for every located
+    *              access point
+    * @return map of router SSID to location, in SSID order
     */
-   public ArrayList<Point> loadRouterPointLocations()
+   public TreeMap<String, Point> loadRouterPointLocations(Collection<String> ssids)
    {
-      ArrayList<Point> router_point_location_list = new ArrayList<>();
-      if (isDatabaseConnected())
+      HashMap<String, Point> access_point_location_map = loadAccessPointLocations();
+      TreeMap<String, Point> router_point_location_map = new TreeMap<>();
+      if (ssids == null)
+      {
+         router_point_location_map.putAll(access_point_location_map);
+      }//if
+      else
       {
-         for (int i = 0; i < 4; ++i)
+         for (String ssid : ssids)
          {
-            Statement stmt = null;
-            String query =
-                    "SELECT SSID, x, y FROM APLocations WHERE SSID='CiscoLinksysE120" + i + "'";
-            //String query2 = "SELECT * FROM *;";
+            Point router_point = access_point_location_map.get(ssid);
+            if (router_point != null)
+            {
+               router_point_location_map.put(ssid, router_point);
+            }//if
+         }//for
+      }//else
+      return router_point_location_map;
+   }//loadRouterPointLocations
 
-            try
+   /**
+    * Function to load the location of every access point in the training
+    * data
+    *
+    * @return map of access point SSID to its location, empty if nothing is
+    *         loaded
+    */
+   public HashMap<String, Point> loadAccessPointLocations()
+   {
+      HashMap<String, Point> access_point_location_map = new HashMap<>();
+      if (mRadioMap != null)
+      {
+         for (int ap_ordinal = 0; ap_ordinal < mRadioMap.getNumberOfAccessPoints(); ++ap_ordinal)
+         {
+            access_point_location_map.put(mRadioMap.getAccessPointSSID(ap_ordinal),
+                                          new Point(mRadioMap.getAccessPointX(ap_ordinal), mRadioMap.getAccessPointY(ap_ordinal)));
+         }//for
+      }//if
+      else if (isDatabaseConnected())
+      {
+         try
+         {
+            synchronized (this)
             {
-               stmt = mDatabaseConnection.createStatement();
-               ResultSet query_result_set = stmt.executeQuery(query);
+               PreparedStatement stmt = getPreparedStatement("SELECT SSID, x, y FROM APLocations");
+               ResultSet query_result_set = stmt.executeQuery();
                while (query_result_set.next())
                {
-                  int x = query_result_set.getInt("x");
-                  int y = query_result_set.getInt("y");
-                  Point router_point = new Point(x, y);
-                  System.out.println("Read in router point: " + router_point.toString());
-                  router_point_location_list.add(router_point);
+                  access_point_location_map.put(query_result_set.getString("SSID"),
+                                                new Point(query_result_set.getInt("x"), query_result_set.getInt("y")));
                }//while
-            }//try//try
-            catch (SQLException ex)
-            {
-               Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.SEVERE, null, ex);
-            }//catch
-            finally
-            {
-               if (stmt != null)
-               {
-                  try
-                  {
-                     stmt.close();
-                  }
-                  catch (SQLException ex)
-                  {
-                     Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.SEVERE, null, ex);
-                  }//catch
-               }//if
-            }//finally
-         }//for
+               query_result_set.close();
+            }//synchronized
+         }//try
+         catch (SQLException ex)
+         {
+            Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.SEVERE, null, ex);
+         }//catch
       }//if (database is connected)
 
-      return router_point_location_list;
-   }//loadRouterPointLocations
+      return access_point_location_map;
+   }//loadAccessPointLocations
 
    /**
     * Function to retrieve the likeliest fingerprinting points from the database
     *
     * @param accessPointList input access point list
     * @return Map returning the most likely points for the fingerprinting
-    *         algorithm between a bounded RSS range
+    *         algorithm between a bounded RSS range. The map may be shared with
+    *         later calls through the candidate cache and must not be modified
     */
    public HashMap<String, CandidatePoint> getLikeliestPoints(ArrayList<AccessPointObservationRecord> accessPointList)
    {
-      ArrayList<String> possible_office_list = new ArrayList<>();
-      ArrayList<Integer> possible_office_signal_list_diff = new ArrayList<>();
-      ArrayList<String> originating_ssid = new ArrayList<>();
+      CandidatePointCache candidate_cache = mCandidateCache;
+      CandidatePointCache.Key cache_key = null;
+      if (candidate_cache.getCapacity() > 0)
+      {
+         cache_key = CandidatePointCache.getKey(accessPointList);
+         HashMap<String, CandidatePoint> cached_points = candidate_cache.get(cache_key);
+         if (cached_points != null)
+         {
+            return cached_points;
+         }//if
+      }//if
+      HashMap<String, CandidatePoint> candidate_points;
+      RssInvertedIndex candidate_index = getCandidateIndex();
+      if (candidate_index != null)
+      {
+         candidate_points = candidate_index.getLikeliestPoints(accessPointList);
+      }//if
+      else
+      {
+         candidate_points = getLikeliestPointsFromDatabase(accessPointList);
+      }//else
+      if (cache_key != null)
+      {
+         candidate_cache.put(cache_key, candidate_points);
+      }//if
+      return candidate_points;
+   }//getLikeliestPoints
+
+   /**
+    * Retrieves the likeliest fingerprinting points straight from the database.
+    * All access points of the epoch are answered by one prepared UNION ALL
+    * query, each branch joined against TrainingPointLocations for the office
+    * coordinates
+    *
+    * @param accessPointList input access point list
+    * @return Map returning the most likely points for the fingerprinting
+    *         algorithm between a bounded RSS range
+    */
+   private synchronized HashMap<String, CandidatePoint> getLikeliestPointsFromDatabase(ArrayList<AccessPointObservationRecord> accessPointList)
+   {
+      if (mNormalizedSchema)
+      {
+         return getLikeliestPointsFromFingerprintTable(accessPointList);
+      }//if
+      HashMap<String, CandidatePoint> resultant_point_list = new HashMap<>();
       if (isDatabaseConnected())
       {
+         ArrayList<AccessPointObservationRecord> queried_access_points = new ArrayList<>(accessPointList.size());
          for (AccessPointObservationRecord access_point : accessPointList)
          {
-            int rss_lower_bound = abs(access_point.getSignalLevel() - 2);
-            int rss_upper_bound = abs(access_point.getSignalLevel() + 2);
-            Statement stmt = null;
-            String query =
-                    "SELECT * FROM " + access_point.getSSID()
-                    + " WHERE RSS BETWEEN " + rss_upper_bound
-                    + " AND " + rss_lower_bound;
-            try
-            {
-               stmt = mDatabaseConnection.createStatement();
-               ResultSet query_result_set = stmt.executeQuery(query);
-               while (query_result_set.next())
-               {
-                  int rss = query_result_set.getInt("RSS");
-                  String office_id = query_result_set.getString("Office");
-                  possible_office_list.add(office_id);
-                  //Add a factor if the signal level is weak to help prioritize later
-                  //Find out how weak the signal is and add a differential factor to it
-                  int signal_weakness_factor = abs(access_point.getSignalLevel()) - 55;
-                  if (signal_weakness_factor > 0)
-                  {
-                     int signal_weakness_adder = signal_weakness_factor / 5;
-                     possible_office_signal_list_diff.add(abs(abs(access_point.getSignalLevel()) - rss) + signal_weakness_adder);
-                  }//if
-                  else
-                  {
-                     possible_office_signal_list_diff.add(abs(abs(access_point.getSignalLevel()) - rss));
-                  }
-                  originating_ssid.add(access_point.getSSID());
-               }//while
-            }//try//try
-            catch (SQLException ex)
+            //Table names can't be bound as parameters, only known training tables are allowed in
+            if (access_point.getAccessPointOrdinal() >= 0 && mAccessPointTableNames.contains(access_point.getSSID()))
             {
-               Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.SEVERE, null, ex);
-            }//catch
-            finally
+               queried_access_points.add(access_point);
+            }//if
+         }//for
+         if (queried_access_points.isEmpty())
+         {
+            return resultant_point_list;
+         }//if
+         //Branches in canonical SSID order, so the same access point set always maps to the same
+         //cached statement. The ap_index is bound, rows still come back in observation order.
+         Integer[] branch_order = new Integer[queried_access_points.size()];
+         for (int i = 0; i < branch_order.length; ++i)
+         {
+            branch_order[i] = i;
+         }//for
+         Arrays.sort(branch_order, Comparator.comparing((Integer ap_index) -> queried_access_points.get(ap_index).getSSID()));
+         StringBuilder query = new StringBuilder();
+         for (int i = 0; i < branch_order.length; ++i)
+         {
+            if (i > 0)
             {
-               if (stmt != null)
-               {
-                  try
-                  {
-                     stmt.close();
-                  }
-                  catch (SQLException ex)
-                  {
-                     Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.SEVERE, null, ex);
-                  }//catch
-               }//if
-            }//finally
+               query.append(" UNION ALL ");
+            }//if
+            query.append("SELECT ? AS ap_index, t.rowid AS row_id, t.RSS AS RSS, t.Office AS Office, l.x AS x, l.y AS y FROM ")
+                    .append(queried_access_points.get(branch_order[i]).getSSID())
+                    .append(" t JOIN TrainingPointLocations l ON l.Office = t.Office WHERE t.RSS BETWEEN ? AND ?");
          }//for
+         query.append(" ORDER BY ap_index, row_id");
+         try
+         {
+            PreparedStatement stmt = getPreparedStatement(query.toString());
+            int parameter_index = 1;
+            for (int ap_index : branch_order)
+            {
+               AccessPointObservationRecord access_point = queried_access_points.get(ap_index);
+               stmt.setInt(parameter_index++, ap_index);
+               stmt.setInt(parameter_index++, abs(access_point.getSignalLevel() + 2));
+               stmt.setInt(parameter_index++, abs(access_point.getSignalLevel() - 2));
+            }//for
+            ResultSet query_result_set = stmt.executeQuery();
+            addCandidatePoints(query_result_set, queried_access_points, mAccessPointSSIDs, resultant_point_list);
+            query_result_set.close();
+         }//try
+         catch (SQLException ex)
+         {
+            Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.SEVERE, null, ex);
+         }//catch
       }//if (database is connected)
-      return getPointsFromOfficeList(possible_office_list, possible_office_signal_list_diff, originating_ssid);
-   }//getLikeliestPoints
+      return resultant_point_list;
+   }//getLikeliestPointsFromDatabase
 
    /**
-    * Function returning the relative X,Y points from the input data
+    * Retrieves the likeliest fingerprinting points from the normalized
+    * Fingerprints table. The query shape only depends on the number of access
+    * points in the epoch, and every branch is answered by the (ap_id, rss)
+    * index
     *
-    * @param officeIdList          List of office String identifiers
-    * @param officeSignalLevelDiff List of office signal differentials
-    * @param originatingSSID       list of the router SSID
-    * @return map o
+    * @param accessPointList input access point list
+    * @return Map returning the most likely points for the fingerprinting
+    *         algorithm between a bounded RSS range
     */
-   private HashMap<String, CandidatePoint> getPointsFromOfficeList(ArrayList<String> officeIdList,
-           ArrayList<Integer> officeSignalLevelDiff, ArrayList<String> originatingSSID)
+   private synchronized HashMap<String, CandidatePoint> getLikeliestPointsFromFingerprintTable(ArrayList<AccessPointObservationRecord> accessPointList)
    {
       HashMap<String, CandidatePoint> resultant_point_list = new HashMap<>();
       if (isDatabaseConnected())
       {
-         int signal_diff_list_index = 0;
-         for (String office_id_string : officeIdList)
+         ArrayList<AccessPointObservationRecord> queried_access_points = new ArrayList<>(accessPointList.size());
+         for (AccessPointObservationRecord access_point : accessPointList)
          {
-            Statement stmt = null;
-            String query = "SELECT x, y FROM TrainingPointLocations WHERE Office='" + office_id_string + "'";
-            try
-            {
-               stmt = mDatabaseConnection.createStatement();
-               ResultSet query_result_set = stmt.executeQuery(query);
-               while (query_result_set.next())
-               {
-                  if (resultant_point_list.get(office_id_string) != null)
-                  {
-                     resultant_point_list.get(office_id_string).incrementFrequencyCount();
-                     System.out.println("Read in Office Point " + resultant_point_list.get(office_id_string).getFrequencyCount()
-                             + " times! OfficeID: " + resultant_point_list.get(office_id_string).getLocationID()
-                     );
-                     resultant_point_list.get(office_id_string).addSignalLevelDiff(originatingSSID.get(signal_diff_list_index),
-                                                                                   officeSignalLevelDiff.get(signal_diff_list_index));
-                  }//if
-                  else
-                  {
-                     int x = query_result_set.getInt("x");
-                     int y = query_result_set.getInt("y");
-                     Point office_point = new Point(x, y);
-                     CandidatePoint fingerprint_point = new CandidatePoint(office_point, office_id_string);
-                     fingerprint_point.addSignalLevelDiff(originatingSSID.get(signal_diff_list_index),
-                                                          officeSignalLevelDiff.get(signal_diff_list_index));
-                     resultant_point_list.put(office_id_string, fingerprint_point);
-                  }//else
-               }//while
-               ++signal_diff_list_index;
-            }//for//for
-            catch (SQLException ex)
+            if (access_point.getAccessPointOrdinal() >= 0 && mAccessPointIdMap.containsKey(access_point.getSSID()))
             {
-               Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.SEVERE, null, ex);
-            }//catch
-            finally
+               queried_access_points.add(access_point);
+            }//if
+         }//for
+         if (queried_access_points.isEmpty())
+         {
+            return resultant_point_list;
+         }//if
+         StringBuilder query = new StringBuilder();
+         for (int i = 0; i < queried_access_points.size(); ++i)
+         {
+            if (i > 0)
             {
-               if (stmt != null)
-               {
-                  try
-                  {
-                     stmt.close();
-                  }
-                  catch (SQLException ex)
-                  {
-                     Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.SEVERE, null, ex);
-                  }//catch
-               }//if
-            }//finally
+               query.append(" UNION ALL ");
+            }//if
+            query.append("SELECT ").append(i)
+                    .append(" AS ap_index, f.rowid AS row_id, f.rss AS RSS, l.Office AS Office, l.x AS x, l.y AS y")
+                    .append(" FROM Fingerprints f JOIN TrainingPointLocations l ON l.office_id = f.office_id")
+                    .append(" WHERE f.ap_id = ? AND f.rss BETWEEN ? AND ?");
          }//for
+         query.append(" ORDER BY ap_index, row_id");
+         try
+         {
+            PreparedStatement stmt = getPreparedStatement(query.toString());
+            int parameter_index = 1;
+            for (AccessPointObservationRecord access_point : queried_access_points)
+            {
+               stmt.setInt(parameter_index++, mAccessPointIdMap.get(access_point.getSSID()));
+               stmt.setInt(parameter_index++, abs(access_point.getSignalLevel() + 2));
+               stmt.setInt(parameter_index++, abs(access_point.getSignalLevel() - 2));
+            }//for
+            ResultSet query_result_set = stmt.executeQuery();
+            addCandidatePoints(query_result_set, queried_access_points, mAccessPointSSIDs, resultant_point_list);
+            query_result_set.close();
+         }//try
+         catch (SQLException ex)
+         {
+            Logger.getLogger(SQLLiteConnection.class.getName()).log(Level.SEVERE, null, ex);
+         }//catch
       }//if (database is connected)
       return resultant_point_list;
-   }//getPointFromOfficeList
+   }//getLikeliestPointsFromFingerprintTable
+
+   /**
+    * Accumulates candidate points from a fingerprint query result set with
+    * ap_index, RSS, Office, x and y columns. The ap_index of a row picks its
+    * observation record, whose access point ordinal indexes the signal
+    * differential.
+    *
+    * @param queryResultSet       the fingerprint query result set
+    * @param queriedAccessPoints  the access points in ap_index order
+    * @param accessPointSSIDs     the SSID table the ordinals index
+    * @param resultantPointList   the candidate point map to add to
+    * @throws SQLException if the result set cannot be read
+    */
+   private static void addCandidatePoints(ResultSet queryResultSet, ArrayList<AccessPointObservationRecord> queriedAccessPoints,
+           String[] accessPointSSIDs, HashMap<String, CandidatePoint> resultantPointList) throws SQLException
+   {
+      while (queryResultSet.next())
+      {
+         int ap_index = queryResultSet.getInt("ap_index");
+         AccessPointObservationRecord access_point = queriedAccessPoints.get(ap_index);
+         String office_id_string = queryResultSet.getString("Office");
+         //Add a factor if the signal level is weak to help prioritize later
+         int signal_diff = getSignalLevelDiff(access_point.getSignalLevel(), queryResultSet.getInt("RSS"));
+         CandidatePoint candidate_point = resultantPointList.get(office_id_string);
+         if (candidate_point != null)
+         {
+            candidate_point.incrementFrequencyCount();
+            candidate_point.addSignalLevelDiff(access_point.getAccessPointOrdinal(), signal_diff);
+         }//if
+         else
+         {
+            Point office_point = new Point(queryResultSet.getInt("x"), queryResultSet.getInt("y"));
+            candidate_point = new CandidatePoint(office_point, office_id_string, accessPointSSIDs);
+            candidate_point.addSignalLevelDiff(access_point.getAccessPointOrdinal(), signal_diff);
+            resultantPointList.put(office_id_string, candidate_point);
+         }//else
+      }//while
+   }//addCandidatePoints
 
 }//SQLLiteConnection
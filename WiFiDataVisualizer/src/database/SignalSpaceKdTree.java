@@ -0,0 +1,433 @@
+/*
+ * k-d tree over the radio map's offices in RSS signal space
+ */
+package database;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import positioning.AccessPointObservationRecord;
+import static java.lang.Math.abs;
+
+/**
+ * Nearest neighbor engine for weighted KNN fingerprinting. The radio map is
+ * held as a dense offices x access points float matrix (positive dBm, as in
+ * the training tables) and the offices are organized in a k-d tree over that
+ * signal space, so a K nearest neighbor query visits O(log n) offices instead
+ * of every reference point.
+ *
+ * Access points an office has no training row for, and access points missing
+ * from an observation, take the MISSING_RSS floor. Several training rows for
+ * the same office and access point are averaged.
+ *
+ * The tree is implicit: mTreeOffices is permuted so every subtree is a
+ * contiguous range whose splitting office sits in the middle of the range.
+ *
+ * @author James Licata
+ */
+public class SignalSpaceKdTree
+{
+   //RSS used for access points that were not heard, in positive dBm
+   final static float MISSING_RSS = 100.0f;
+
+   //Ranges at or below this size are scanned linearly
+   final static int LEAF_SIZE = 8;
+
+   //The radio map the tree was built from
+   RadioMap mRadioMap;
+
+   int mNumberOfOffices;
+   int mNumberOfAccessPoints;
+
+   //Dense offices x access points RSS matrix, row major
+   float[] mFingerprintMatrix;
+
+   //Office ordinals in tree order
+   int[] mTreeOffices;
+
+   //Split access point of the node whose splitting office is at that tree position
+   int[] mSplitAccessPoints;
+
+   //Per thread query buffers so concurrent queries don't share state
+   ThreadLocal<Workspace> mWorkspace = new ThreadLocal<Workspace>()
+   {
+      @Override
+      protected Workspace initialValue()
+      {
+         return new Workspace();
+      }//initialValue
+   };
+
+   /**
+    * Reusable buffers for a single query
+    */
+   class Workspace
+   {
+      //Observed RSS vector in positive dBm
+      float[] mQuery = new float[mNumberOfAccessPoints];
+
+      //Bounded max heap of the nearest offices found so far, keyed by squared distance
+      int[] mHeapOffices = new int[0];
+      float[] mHeapDistances = new float[0];
+      int mHeapSize = 0;
+      int mK = 0;
+
+      void reset(int k)
+      {
+         if (mHeapOffices.length < k)
+         {
+            mHeapOffices = new int[k];
+            mHeapDistances = new float[k];
+         }//if
+         mHeapSize = 0;
+         mK = k;
+      }//reset
+
+      float getWorstDistance()
+      {
+         return mHeapSize < mK ? Float.POSITIVE_INFINITY : mHeapDistances[0];
+      }//getWorstDistance
+
+      void offer(int officeOrdinal, float squaredDistance)
+      {
+         if (mHeapSize < mK)
+         {
+            //Sift up
+            int child = mHeapSize++;
+            while (child > 0)
+            {
+               int parent = (child - 1) >>> 1;
+               if (mHeapDistances[parent] >= squaredDistance)
+               {
+                  break;
+               }//if
+               mHeapOffices[child] = mHeapOffices[parent];
+               mHeapDistances[child] = mHeapDistances[parent];
+               child = parent;
+            }//while
+            mHeapOffices[child] = officeOrdinal;
+            mHeapDistances[child] = squaredDistance;
+         }//if
+         else if (squaredDistance < mHeapDistances[0])
+         {
+            siftDown(officeOrdinal, squaredDistance);
+         }//else if
+      }//offer
+
+      /**
+       * Removes the farthest office, the root of the heap
+       */
+      void removeWorst()
+      {
+         --mHeapSize;
+         if (mHeapSize > 0)
+         {
+            siftDown(mHeapOffices[mHeapSize], mHeapDistances[mHeapSize]);
+         }//if
+      }//removeWorst
+
+      /**
+       * Places an office at the root and sifts it down to its position
+       */
+      void siftDown(int officeOrdinal, float squaredDistance)
+      {
+         int parent = 0;
+         while (true)
+         {
+            int child = parent * 2 + 1;
+            if (child >= mHeapSize)
+            {
+               break;
+            }//if
+            if (child + 1 < mHeapSize && mHeapDistances[child + 1] > mHeapDistances[child])
+            {
+               ++child;
+            }//if
+            if (mHeapDistances[child] <= squaredDistance)
+            {
+               break;
+            }//if
+            mHeapOffices[parent] = mHeapOffices[child];
+            mHeapDistances[parent] = mHeapDistances[child];
+            parent = child;
+         }//while
+         mHeapOffices[parent] = officeOrdinal;
+         mHeapDistances[parent] = squaredDistance;
+      }//siftDown
+   }//Workspace
+
+   /**
+    * Builds the fingerprint matrix and the k-d tree from the given radio map
+    *
+    * @param radioMap the loaded radio map
+    */
+   public SignalSpaceKdTree(RadioMap radioMap)
+   {
+      mRadioMap = radioMap;
+      mNumberOfOffices = radioMap.getNumberOfOffices();
+      mNumberOfAccessPoints = radioMap.getNumberOfAccessPoints();
+      mFingerprintMatrix = new float[mNumberOfOffices * mNumberOfAccessPoints];
+      int[] row_counts = new int[mNumberOfOffices * mNumberOfAccessPoints];
+      for (int ap = 0; ap < mNumberOfAccessPoints; ++ap)
+      {
+         for (int row = 0; row < radioMap.getNumberOfRows(ap); ++row)
+         {
+            int cell = radioMap.getRowOfficeOrdinal(ap, row) * mNumberOfAccessPoints + ap;
+            mFingerprintMatrix[cell] += radioMap.getRowRSS(ap, row);
+            ++row_counts[cell];
+         }//for
+      }//for
+      for (int cell = 0; cell < mFingerprintMatrix.length; ++cell)
+      {
+         mFingerprintMatrix[cell] = row_counts[cell] == 0 ? MISSING_RSS : mFingerprintMatrix[cell] / row_counts[cell];
+      }//for
+
+      mTreeOffices = new int[mNumberOfOffices];
+      for (int i = 0; i < mNumberOfOffices; ++i)
+      {
+         mTreeOffices[i] = i;
+      }//for
+      mSplitAccessPoints = new int[mNumberOfOffices];
+      if (mNumberOfAccessPoints > 0)
+      {
+         buildTree(0, mNumberOfOffices);
+      }//if
+   }//SignalSpaceKdTree
+
+   /**
+    * Returns the radio map the tree was built from
+    *
+    * @return the radio map
+    */
+   public RadioMap getRadioMap()
+   {
+      return mRadioMap;
+   }//getRadioMap
+
+   /**
+    * Returns the training RSS of an office for an access point, averaged over
+    * its rows or MISSING_RSS when it has none
+    *
+    * @param officeOrdinal      the office ordinal
+    * @param accessPointOrdinal the access point ordinal
+    * @return the training RSS in positive dBm
+    */
+   public float getFingerprintRSS(int officeOrdinal, int accessPointOrdinal)
+   {
+      return mFingerprintMatrix[officeOrdinal * mNumberOfAccessPoints + accessPointOrdinal];
+   }//getFingerprintRSS
+
+   /**
+    * Recursively splits an office range on the access point with the widest
+    * RSS spread
+    *
+    * @param lo first tree position of the range
+    * @param hi one past the last tree position of the range
+    */
+   private void buildTree(int lo, int hi)
+   {
+      if (hi - lo <= LEAF_SIZE)
+      {
+         return;
+      }//if
+      int split_ap = 0;
+      float widest_spread = -1.0f;
+      for (int ap = 0; ap < mNumberOfAccessPoints; ++ap)
+      {
+         float min_rss = Float.POSITIVE_INFINITY;
+         float max_rss = Float.NEGATIVE_INFINITY;
+         for (int i = lo; i < hi; ++i)
+         {
+            float rss = mFingerprintMatrix[mTreeOffices[i] * mNumberOfAccessPoints + ap];
+            min_rss = Math.min(min_rss, rss);
+            max_rss = Math.max(max_rss, rss);
+         }//for
+         if (max_rss - min_rss > widest_spread)
+         {
+            widest_spread = max_rss - min_rss;
+            split_ap = ap;
+         }//if
+      }//for
+      int mid = (lo + hi) >>> 1;
+      selectMedian(lo, hi - 1, mid, split_ap);
+      mSplitAccessPoints[mid] = split_ap;
+      buildTree(lo, mid);
+      buildTree(mid + 1, hi);
+   }//buildTree
+
+   /**
+    * Quickselect: partially orders tree positions left..right so position k
+    * holds the office it would hold if the range were sorted on the access
+    * point's RSS
+    */
+   private void selectMedian(int left, int right, int k, int accessPoint)
+   {
+      while (left < right)
+      {
+         float pivot = mFingerprintMatrix[mTreeOffices[(left + right) >>> 1] * mNumberOfAccessPoints + accessPoint];
+         int i = left;
+         int j = right;
+         while (i <= j)
+         {
+            while (mFingerprintMatrix[mTreeOffices[i] * mNumberOfAccessPoints + accessPoint] < pivot)
+            {
+               ++i;
+            }//while
+            while (mFingerprintMatrix[mTreeOffices[j] * mNumberOfAccessPoints + accessPoint] > pivot)
+            {
+               --j;
+            }//while
+            if (i <= j)
+            {
+               int office = mTreeOffices[i];
+               mTreeOffices[i] = mTreeOffices[j];
+               mTreeOffices[j] = office;
+               ++i;
+               --j;
+            }//if
+         }//while
+         if (k <= j)
+         {
+            right = j;
+         }//if
+         else if (k >= i)
+         {
+            left = i;
+         }//else if
+         else
+         {
+            return;
+         }//else
+      }//while
+   }//selectMedian
+
+   /**
+    * Finds the K offices nearest to the observation in signal space
+    *
+    * @param accessPointList the access point observation record list
+    * @param k               the number of neighbors to find
+    * @param officeOrdinals  receives the neighbors' office ordinals, nearest
+    *                        first, must hold at least k entries
+    * @param distances       receives the neighbors' euclidean signal space
+    *                        distances in dBm, must hold at least k entries
+    * @return the number of neighbors found, less than k only when the radio
+    *         map has fewer offices
+    */
+   public int findNearestNeighbors(ArrayList<AccessPointObservationRecord> accessPointList, int k, int[] officeOrdinals, float[] distances)
+   {
+      Workspace workspace = mWorkspace.get();
+      float[] query = workspace.mQuery;
+      Arrays.fill(query, MISSING_RSS);
+      for (AccessPointObservationRecord access_point : accessPointList)
+      {
+         int ap_ordinal = mRadioMap.getAccessPointOrdinal(access_point.getSSID());
+         if (ap_ordinal >= 0)
+         {
+            query[ap_ordinal] = abs(access_point.getSignalLevel());
+         }//if
+      }//for
+      workspace.reset(Math.min(k, mNumberOfOffices));
+      if (workspace.mK > 0)
+      {
+         search(workspace, 0, mNumberOfOffices);
+      }//if
+
+      //Drain the heap farthest first so the nearest neighbor ends up first
+      int found = workspace.mHeapSize;
+      for (int i = found - 1; i >= 0; --i)
+      {
+         officeOrdinals[i] = workspace.mHeapOffices[0];
+         distances[i] = (float) Math.sqrt(workspace.mHeapDistances[0]);
+         workspace.removeWorst();
+      }//for
+      return found;
+   }//findNearestNeighbors
+
+   /**
+    * Descends the subtree at the given range, near side first, pruning far
+    * sides that can't hold a closer office than the current K-th
+    *
+    * @param workspace the query buffers
+    * @param lo        first tree position of the range
+    * @param hi        one past the last tree position of the range
+    */
+   private void search(Workspace workspace, int lo, int hi)
+   {
+      if (hi - lo <= LEAF_SIZE)
+      {
+         for (int i = lo; i < hi; ++i)
+         {
+            workspace.offer(mTreeOffices[i], getSquaredDistance(workspace.mQuery, mTreeOffices[i]));
+         }//for
+         return;
+      }//if
+      int mid = (lo + hi) >>> 1;
+      int split_office = mTreeOffices[mid];
+      workspace.offer(split_office, getSquaredDistance(workspace.mQuery, split_office));
+      int split_ap = mSplitAccessPoints[mid];
+      float split_diff = workspace.mQuery[split_ap] - mFingerprintMatrix[split_office * mNumberOfAccessPoints + split_ap];
+      if (split_diff < 0)
+      {
+         search(workspace, lo, mid);
+         if (split_diff * split_diff < workspace.getWorstDistance())
+         {
+            search(workspace, mid + 1, hi);
+         }//if
+      }//if
+      else
+      {
+         search(workspace, mid + 1, hi);
+         if (split_diff * split_diff < workspace.getWorstDistance())
+         {
+            search(workspace, lo, mid);
+         }//if
+      }//else
+   }//search
+
+   /**
+    * Returns the squared euclidean distance between the query and an office's
+    * fingerprint
+    */
+   private float getSquaredDistance(float[] query, int officeOrdinal)
+   {
+      int row_offset = officeOrdinal * mNumberOfAccessPoints;
+      float squared_distance = 0.0f;
+      for (int ap = 0; ap < mNumberOfAccessPoints; ++ap)
+      {
+         float diff = query[ap] - mFingerprintMatrix[row_offset + ap];
+         squared_distance += diff * diff;
+      }//for
+      return squared_distance;
+   }//getSquaredDistance
+
+   /**
+    * Weighted KNN estimate: the average of the K nearest offices' locations,
+    * each weighted by the inverse of its signal space distance
+    *
+    * @param accessPointList the access point observation record list
+    * @param k               the number of neighbors to average
+    * @return the estimated location, or null if the radio map is empty
+    */
+   public Point getWeightedEstimate(ArrayList<AccessPointObservationRecord> accessPointList, int k)
+   {
+      int[] office_ordinals = new int[k];
+      float[] distances = new float[k];
+      int found = findNearestNeighbors(accessPointList, k, office_ordinals, distances);
+      if (found == 0)
+      {
+         return null;
+      }//if
+      double weighted_x = 0.0;
+      double weighted_y = 0.0;
+      double total_weight = 0.0;
+      for (int i = 0; i < found; ++i)
+      {
+         //One dBm keeps an exact match from taking all the weight as infinity
+         double weight = 1.0 / (distances[i] + 1.0);
+         weighted_x += weight * mRadioMap.getOfficeX(office_ordinals[i]);
+         weighted_y += weight * mRadioMap.getOfficeY(office_ordinals[i]);
+         total_weight += weight;
+      }//for
+      return new Point((int) Math.round(weighted_x / total_weight), (int) Math.round(weighted_y / total_weight));
+   }//getWeightedEstimate
+}//SignalSpaceKdTree
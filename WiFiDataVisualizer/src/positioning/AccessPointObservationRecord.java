@@ -5,7 +5,6 @@ package positioning;
 
 import java.awt.Point;
 import java.util.Date;
-import wifidatavisualizer.Constants;
 
 /**
  *
@@ -38,6 +37,17 @@ public class AccessPointObservationRecord
     */
    double signalStrengthToDistanceRatio = 1;
 
+   /**
+    * The path loss model the access point is ranged with
+    */
+   PathLossModel mPathLossModel = PathLossModel.FREE_SPACE;
+
+   /**
+    * The access point ordinal in the training data base's SSID table, -1 if
+    * the training data has no fingerprints for it
+    */
+   int mAccessPointOrdinal = -1;
+
    /**
     * The timestamp associated with the accesspoint
     */
@@ -145,10 +155,35 @@ public class AccessPointObservationRecord
       SSID = sSID;
    }
 
+   public PathLossModel getPathLossModel()
+   {
+      return mPathLossModel;
+   }
+
+   public void setPathLossModel(PathLossModel pathLossModel)
+   {
+      this.mPathLossModel = pathLossModel;
+   }
+
+   public int getAccessPointOrdinal()
+   {
+      return mAccessPointOrdinal;
+   }
+
+   public void setAccessPointOrdinal(int accessPointOrdinal)
+   {
+      this.mAccessPointOrdinal = accessPointOrdinal;
+   }
+
+   /**
+    * Returns the distance in meters given the RSS, looked up in the access
+    * point's path loss table
+    *
+    * @return distance in meters
+    */
    public double getDistanceMeters()
    {
-      double exp = (27.55 - (20 * Math.log10(2437)) + Math.abs(this.getSignalLevel())) / 20.0;
-      return Math.pow(10.0, exp);
+      return mPathLossModel.getDistanceMeters(this.getSignalLevel());
    }//getDistanceMeters
 
    /**
@@ -159,11 +194,7 @@ public class AccessPointObservationRecord
     */
    public double getDistancePixels()
    {
-      //Return pixel distance
-      double distance_meters = getDistanceMeters();
-      double distance_feet = distance_meters * Constants.FEET_PER_METER;
-
-      return distance_feet * Constants.PIXELS_PER_FOOT;
+      return mPathLossModel.getDistancePixels(this.getSignalLevel());
    }//getDistancePixels
 
    @Override
@@ -0,0 +1,76 @@
+/*
+ * This class implements a probabilistic (Bayesian) fingerprinting algorithm for the Wifi Data Visualizer
+ */
+package positioning;
+
+import database.GaussianLikelihoodTable;
+import database.RadioMap;
+import database.SQLLiteConnection;
+import java.awt.Point;
+import java.util.ArrayList;
+import wifidatavisualizer.NewWifiDataListener.WifiDataType;
+
+/**
+ * Class with static methods for estimating position from wifi data with a
+ * Gaussian likelihood model of the training data
+ *
+ * @author James Licata
+ */
+public class BayesianFingerprinting implements PositioningEngine
+{
+   /**
+    * Returns the maximum a posteriori training point for the observed access
+    * points
+    *
+    * @param accessPointList        the access point observation record list
+    * @param trainingDataBase       the data base containing the training data
+    *                               points
+    * @param lastPointApproximation the last point approximation, used to break
+    *                               ties
+    * @return the final point approximation
+    */
+   public static Point bayesian(ArrayList<AccessPointObservationRecord> accessPointList, SQLLiteConnection trainingDataBase, Point lastPointApproximation)
+   {
+      return bayesian(new CandidateSet(accessPointList, trainingDataBase), lastPointApproximation);
+   }//bayesian
+
+   /**
+    * Returns the maximum a posteriori training point for an epoch's shared
+    * candidate set. The candidate points themselves are only used by the
+    * fingerprinting fallback.
+    *
+    * @param candidateSet           the epoch's observations and candidate
+    *                               points
+    * @param lastPointApproximation the last point approximation, used to break
+    *                               ties
+    * @return the final point approximation
+    */
+   public static Point bayesian(CandidateSet candidateSet, Point lastPointApproximation)
+   {
+      GaussianLikelihoodTable likelihood_table = candidateSet.getTrainingDataBase().getLikelihoodTable();
+      if (likelihood_table == null)
+      {
+         //The likelihood tables need the radio map in memory
+         return Fingerprinting.fingerprint(candidateSet, lastPointApproximation);
+      }//if
+      int office_ordinal = likelihood_table.getMostLikelyOffice(candidateSet.getAccessPointList(), lastPointApproximation);
+      if (office_ordinal < 0)
+      {
+         return new Point(lastPointApproximation);
+      }//if
+      RadioMap radio_map = likelihood_table.getRadioMap();
+      return new Point(radio_map.getOfficeX(office_ordinal), radio_map.getOfficeY(office_ordinal));
+   }//bayesian
+
+   @Override
+   public WifiDataType getDataType()
+   {
+      return WifiDataType.BAYESIAN;
+   }//getDataType
+
+   @Override
+   public Point estimate(CandidateSet candidateSet, Point lastPointApproximation)
+   {
+      return bayesian(candidateSet, lastPointApproximation);
+   }//estimate
+}//BayesianFingerprinting
@@ -7,12 +7,16 @@
 package positioning;
 
 import java.awt.Point;
-import java.util.HashMap;
-import java.util.Map.Entry;
+import java.util.Arrays;
 
 /**
  * Container class representing an X, Y point that is a candidate
  *
+ * Signal differentials are stored in an int array indexed by a dense access
+ * point ordinal. The ordinal to SSID table is shared by every candidate of a
+ * query, so a candidate only allocates its differential array. A running sum
+ * and count make the average signal differential O(1).
+ *
  * @author James Licata
  */
 public class CandidatePoint
@@ -21,8 +25,18 @@ public class CandidatePoint
    //The location ID for the candidate point
    String mLocationID;
 
-   //The router signal level difference map
-   HashMap<String, Integer> mRouterSignalLevelDifferenceMap = new HashMap<>();
+   //Marks an access point ordinal without a signal differential
+   final static int NO_SIGNAL_LEVEL_DIFF = Integer.MIN_VALUE;
+
+   //SSID of every access point ordinal, shared by all candidates of a query
+   String[] mAccessPointSSIDs;
+
+   //The router signal level differences by access point ordinal
+   int[] mSignalLevelDiffs;
+
+   //Running sum and count of the recorded signal level differences
+   int mSignalLevelDiffSum = 0;
+   int mNumberOfSignalLevelDiffs = 0;
 
    //The frequency count for the likelihood of this candidate point
    int mFrequencyCount = 0;
@@ -35,11 +49,16 @@ public class CandidatePoint
     *
     * @param candidatePointLocation the candidate point location
     * @param locationID             the string location id
+    * @param accessPointSSIDs       the SSID of every access point ordinal,
+    *                               not copied
     */
-   public CandidatePoint(Point candidatePointLocation, String locationID)
+   public CandidatePoint(Point candidatePointLocation, String locationID, String[] accessPointSSIDs)
    {
       this.setCoordinates(candidatePointLocation);
       this.setLocationID(locationID);
+      mAccessPointSSIDs = accessPointSSIDs;
+      mSignalLevelDiffs = new int[accessPointSSIDs.length];
+      Arrays.fill(mSignalLevelDiffs, NO_SIGNAL_LEVEL_DIFF);
       incrementFrequencyCount();
    }//AccessPoint
 
@@ -52,20 +71,50 @@ public class CandidatePoint
     */
    public int getNumberOfRouters()
    {
-      return this.mRouterSignalLevelDifferenceMap.size();
+      return mNumberOfSignalLevelDiffs;
    }//getNumberOfRouters
 
-   public String getRouterSSIDAtIndex(int index)
+   /**
+    * Returns the number of access point ordinals, recorded or not
+    *
+    * @return the size of the access point ordinal range
+    */
+   public int getNumberOfAccessPoints()
    {
-      if (index < this.mRouterSignalLevelDifferenceMap.size())
-      {
-         return (String) this.mRouterSignalLevelDifferenceMap.keySet().toArray()[index];
-      }//if
-      else
-      {
-         return null;
-      }
-   }//getRouterSSIDAtIndex
+      return mSignalLevelDiffs.length;
+   }//getNumberOfAccessPoints
+
+   /**
+    * Returns the SSID table the access point ordinals index, shared by every
+    * candidate point of one query
+    *
+    * @return the SSID of every access point ordinal
+    */
+   public String[] getAccessPointSSIDs()
+   {
+      return mAccessPointSSIDs;
+   }//getAccessPointSSIDs
+
+   public String getAccessPointSSID(int accessPointOrdinal)
+   {
+      return mAccessPointSSIDs[accessPointOrdinal];
+   }//getAccessPointSSID
+
+   /**
+    * Returns whether a signal differential was recorded for the access point
+    *
+    * @param accessPointOrdinal the access point ordinal
+    * @return true if the access point has a signal differential
+    */
+   public boolean hasSignalLevelDiff(int accessPointOrdinal)
+   {
+      return mSignalLevelDiffs[accessPointOrdinal] != NO_SIGNAL_LEVEL_DIFF;
+   }//hasSignalLevelDiff
+
+   public int getSignalLevelDiff(int accessPointOrdinal)
+   {
+      return mSignalLevelDiffs[accessPointOrdinal];
+   }//getSignalLevelDiff
 
    public void incrementFrequencyCount()
    {
@@ -77,23 +126,28 @@ public class CandidatePoint
       return this.mFrequencyCount;
    }//getFrequencyCount
 
-   public HashMap<String, Integer> getSignalLeveDiffMap()
-   {
-      return mRouterSignalLevelDifferenceMap;
-   }//getSignalLevelList
-
    /**
     * Adds a signal level differential (difference between training data point
-    * RSS and observed RSS) for
-    * the indicated SSID
+    * RSS and observed RSS) for the indicated access point, replacing any
+    * differential already recorded for it
     *
-    * @param routerSSID      the router SSID associated with the RSS
-    *                        differential
-    * @param signalLevelDiff the signal level differential (Training - Observed)
+    * @param accessPointOrdinal the ordinal of the access point associated
+    *                           with the RSS differential
+    * @param signalLevelDiff    the signal level differential (Training -
+    *                           Observed)
     */
-   public void addSignalLevelDiff(String routerSSID, int signalLevelDiff)
+   public void addSignalLevelDiff(int accessPointOrdinal, int signalLevelDiff)
    {
-      this.mRouterSignalLevelDifferenceMap.put(routerSSID, signalLevelDiff);
+      if (hasSignalLevelDiff(accessPointOrdinal))
+      {
+         mSignalLevelDiffSum -= mSignalLevelDiffs[accessPointOrdinal];
+      }//if
+      else
+      {
+         ++mNumberOfSignalLevelDiffs;
+      }//else
+      mSignalLevelDiffs[accessPointOrdinal] = signalLevelDiff;
+      mSignalLevelDiffSum += signalLevelDiff;
    }//addSignalLevel
 
    /**
@@ -138,19 +192,14 @@ public class CandidatePoint
    }//setLocationID
 
    /**
-    * Adds all of the differentials for the RSS of senses access points and
-    * takes the average
+    * Returns the average of the differentials for the RSS of sensed access
+    * points from the running sum
     *
     * @return The average signal differential
     */
    public double getAverageSignalDiff()
    {
-      double total_value = 0;
-      for (Entry<String, Integer> test : mRouterSignalLevelDifferenceMap.entrySet())
-      {
-         total_value += test.getValue();
-      }//for
-      return total_value / (double) mRouterSignalLevelDifferenceMap.entrySet().size();
+      return mSignalLevelDiffSum / (double) mNumberOfSignalLevelDiffs;
    }//getAverageSignalDiff
 
    /**
@@ -0,0 +1,143 @@
+/*
+ * Single pass scoring of fingerprinting candidate points shared by the candidate based algorithms
+ */
+package positioning;
+
+import java.awt.Point;
+import java.util.List;
+
+/**
+ * Scores a list of candidate points in one pass. Every candidate's average
+ * signal differential is computed once and cached, and the pass produces the
+ * best candidate. The K candidates of the lowest average signal differential
+ * are then selected from the cached averages with a bounded heap.
+ *
+ * The best candidate has the lowest average signal differential, and ties
+ * go to the candidate closest to the last point approximation. Distances are
+ * compared squared, so no square roots are taken. Remaining ties, and ties
+ * among the K nearest, keep the candidate that comes first in the list.
+ *
+ * @author James Licata
+ */
+public class CandidateScoring
+{
+   //The scored candidates
+   List<CandidatePoint> mCandidatePointList;
+
+   //Average signal differential of every candidate, by list index
+   double[] mAverageSignalDiff;
+
+   //Best candidate and its squared distance from the last point approximation
+   int mBestIndex = -1;
+   double mBestDistanceSq = Double.POSITIVE_INFINITY;
+
+   //Indices of the candidates with the lowest average signal differential, in ascending order
+   int[] mNearestIndices;
+   int mNumberOfNearest = 0;
+
+   /**
+    * Main constructor, scores the candidates
+    *
+    * @param candidatePointList     the candidate points to score
+    * @param lastPointApproximation the last point approximation used to break
+    *                               ties, ties go to the first candidate if
+    *                               null
+    * @param numberOfNearest        how many of the lowest average signal
+    *                               differential candidates to keep, 0 for
+    *                               only the best candidate
+    */
+   public CandidateScoring(List<CandidatePoint> candidatePointList, Point lastPointApproximation, int numberOfNearest)
+   {
+      mCandidatePointList = candidatePointList;
+      mAverageSignalDiff = new double[candidatePointList.size()];
+      mNearestIndices = new int[Math.max(0, Math.min(numberOfNearest, candidatePointList.size()))];
+      double best_average_signal_diff = Double.POSITIVE_INFINITY;
+      int index = 0;
+      for (CandidatePoint candidate_point : candidatePointList)
+      {
+         double average_signal_diff = candidate_point.getAverageSignalDiff();
+         mAverageSignalDiff[index] = average_signal_diff;
+         if (mBestIndex < 0 || average_signal_diff < best_average_signal_diff)
+         {
+            mBestIndex = index;
+            best_average_signal_diff = average_signal_diff;
+            mBestDistanceSq = getDistanceSq(candidate_point, lastPointApproximation);
+         }//if
+         else if (average_signal_diff == best_average_signal_diff)
+         {
+            double distance_sq = getDistanceSq(candidate_point, lastPointApproximation);
+            if (distance_sq < mBestDistanceSq)
+            {
+               mBestIndex = index;
+               mBestDistanceSq = distance_sq;
+            }//if
+         }//else if
+         ++index;
+      }//for
+      mNumberOfNearest = CandidateSelection.selectLowest(mAverageSignalDiff, mAverageSignalDiff.length, mNearestIndices.length, mNearestIndices);
+   }//CandidateScoring
+
+   private static double getDistanceSq(CandidatePoint candidatePoint, Point lastPointApproximation)
+   {
+      if (lastPointApproximation == null)
+      {
+         return 0.0;
+      }//if
+      return lastPointApproximation.distanceSq(candidatePoint.getCoordinates());
+   }//getDistanceSq
+
+   /**
+    * Returns the best candidate
+    *
+    * @return the best candidate, null if there were no candidates
+    */
+   public CandidatePoint getBestCandidate()
+   {
+      return mBestIndex < 0 ? null : mCandidatePointList.get(mBestIndex);
+   }//getBestCandidate
+
+   public int getBestIndex()
+   {
+      return mBestIndex;
+   }//getBestIndex
+
+   /**
+    * Returns the squared distance from the last point approximation to the
+    * best candidate
+    *
+    * @return the squared distance in pixels^2, 0 without a last point
+    *         approximation
+    */
+   public double getBestDistanceSq()
+   {
+      return mBestDistanceSq;
+   }//getBestDistanceSq
+
+   /**
+    * Returns the cached average signal differential of a candidate
+    *
+    * @param index the candidate's list index
+    * @return the average signal differential
+    */
+   public double getAverageSignalDiff(int index)
+   {
+      return mAverageSignalDiff[index];
+   }//getAverageSignalDiff
+
+   public int getNumberOfNearest()
+   {
+      return mNumberOfNearest;
+   }//getNumberOfNearest
+
+   /**
+    * Returns one of the candidates with the lowest average signal
+    * differential
+    *
+    * @param rank 0 for the lowest average signal differential
+    * @return the candidate at that rank
+    */
+   public CandidatePoint getNearestCandidate(int rank)
+   {
+      return mCandidatePointList.get(mNearestIndices[rank]);
+   }//getNearestCandidate
+}//CandidateScoring
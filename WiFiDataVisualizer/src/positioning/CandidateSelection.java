@@ -0,0 +1,143 @@
+/*
+ * Selection utilities for fingerprinting candidate points
+ */
+package positioning;
+
+import java.util.ArrayList;
+
+/**
+ * Class with static methods for selecting fingerprinting candidate points
+ * without sorting them. The most frequent candidates are bucketed in one
+ * linear pass. The K lowest scores are pulled with a bounded max heap of K
+ * candidate indices, which is O(n log K) instead of O(n log n) for a sort or
+ * O(n K) for K scans.
+ *
+ * @author James Licata
+ */
+public class CandidateSelection
+{
+   /**
+    * Returns the candidates that share the highest frequency count, in the
+    * order they are iterated
+    *
+    * @param candidatePoints the candidate points
+    * @return the candidates of the highest frequency
+    */
+   public static ArrayList<CandidatePoint> getMostFrequentCandidates(Iterable<CandidatePoint> candidatePoints)
+   {
+      int highest_frequency = Integer.MIN_VALUE;
+      ArrayList<CandidatePoint> most_frequent_candidates = new ArrayList<>();
+      for (CandidatePoint candidate_point : candidatePoints)
+      {
+         int frequency = candidate_point.getFrequencyCount();
+         if (frequency > highest_frequency)
+         {
+            //A higher frequency starts a new bucket
+            most_frequent_candidates.clear();
+            highest_frequency = frequency;
+         }//if
+         if (frequency == highest_frequency)
+         {
+            most_frequent_candidates.add(candidate_point);
+         }//if
+      }//for
+      return most_frequent_candidates;
+   }//getMostFrequentCandidates
+
+   /**
+    * Selects the indices of the K lowest scores. Equal scores keep the lower
+    * index, so the selection matches a stable sort.
+    *
+    * @param scores         the score of every candidate, by index
+    * @param numberOfScores the number of scores in use
+    * @param k              the number of indices to select
+    * @param selected       receives the selected indices in ascending score
+    *                       order, must hold at least min(k, numberOfScores)
+    * @return the number of indices selected
+    */
+   public static int selectLowest(double[] scores, int numberOfScores, int k, int[] selected)
+   {
+      int capacity = Math.max(0, Math.min(k, numberOfScores));
+      if (capacity == 0)
+      {
+         return 0;
+      }//if
+      int heap_size = 0;
+      for (int index = 0; index < numberOfScores; ++index)
+      {
+         if (heap_size < capacity)
+         {
+            siftUp(scores, selected, heap_size++, index);
+         }//if
+         else if (scores[index] < scores[selected[0]])
+         {
+            //Replaces the worst selected score, later indices never win ties
+            siftDown(scores, selected, heap_size, index);
+         }//else if
+      }//for
+
+      //Move the worst to the back until the selection is in ascending order
+      for (int size = heap_size; size > 1; --size)
+      {
+         int worst = selected[0];
+         siftDown(scores, selected, size - 1, selected[size - 1]);
+         selected[size - 1] = worst;
+      }//for
+      return heap_size;
+   }//selectLowest
+
+   /**
+    * Returns whether the first index ranks behind the second
+    */
+   private static boolean isWorse(double[] scores, int first, int second)
+   {
+      return scores[first] > scores[second] || (scores[first] == scores[second] && first > second);
+   }//isWorse
+
+   /**
+    * Adds an index at the end of the heap and sifts it up to its position
+    */
+   private static void siftUp(double[] scores, int[] heap, int position, int index)
+   {
+      int child = position;
+      while (child > 0)
+      {
+         int parent = (child - 1) >>> 1;
+         if (isWorse(scores, heap[parent], index))
+         {
+            break;
+         }//if
+         heap[child] = heap[parent];
+         child = parent;
+      }//while
+      heap[child] = index;
+   }//siftUp
+
+   /**
+    * Places an index at the root of the heap and sifts it down to its
+    * position
+    */
+   private static void siftDown(double[] scores, int[] heap, int heapSize, int index)
+   {
+      int parent = 0;
+      while (true)
+      {
+         int child = parent * 2 + 1;
+         if (child >= heapSize)
+         {
+            break;
+         }//if
+         if (child + 1 < heapSize && isWorse(scores, heap[child + 1], heap[child]))
+         {
+            ++child;
+         }//if
+         if (isWorse(scores, index, heap[child]))
+         {
+            break;
+         }//if
+         heap[parent] = heap[child];
+         parent = child;
+      }//while
+      heap[parent] = index;
+   }//siftDown
+}//CandidateSelection
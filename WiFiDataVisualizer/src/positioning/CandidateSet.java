@@ -0,0 +1,72 @@
+/*
+ * The frequency filtered fingerprinting candidates of one epoch, shared by every algorithm run on it
+ */
+package positioning;
+
+import database.SQLLiteConnection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One epoch of access point observations together with its fingerprinting
+ * candidate points. The likeliest points are looked up in the training data
+ * and reduced to the candidates of the highest frequency the first time any
+ * algorithm asks for them, and every later algorithm on the same epoch gets
+ * that same result.
+ *
+ * The candidates are handed out as an unmodifiable list, so algorithms that
+ * need to reorder or remove candidates must work on their own copy. Lookup is
+ * synchronized, so a candidate set may be shared by engines running on
+ * different threads.
+ *
+ * @author James Licata
+ */
+public class CandidateSet
+{
+   //The epoch's observations
+   ArrayList<AccessPointObservationRecord> mAccessPointList;
+
+   //The data base containing the training data points
+   SQLLiteConnection mTrainingDataBase;
+
+   //Candidates of the highest frequency, null until first requested
+   List<CandidatePoint> mCandidatePoints = null;
+
+   /**
+    * Main constructor
+    *
+    * @param accessPointList  the access point observation record list
+    * @param trainingDataBase the data base containing the training data points
+    */
+   public CandidateSet(ArrayList<AccessPointObservationRecord> accessPointList, SQLLiteConnection trainingDataBase)
+   {
+      mAccessPointList = accessPointList;
+      mTrainingDataBase = trainingDataBase;
+   }//CandidateSet
+
+   public ArrayList<AccessPointObservationRecord> getAccessPointList()
+   {
+      return mAccessPointList;
+   }//getAccessPointList
+
+   public SQLLiteConnection getTrainingDataBase()
+   {
+      return mTrainingDataBase;
+   }//getTrainingDataBase
+
+   /**
+    * Returns the candidate points that share the highest frequency count, in
+    * the order the training data returned them
+    *
+    * @return unmodifiable list of the most frequent candidate points
+    */
+   public synchronized List<CandidatePoint> getCandidatePoints()
+   {
+      if (mCandidatePoints == null)
+      {
+         mCandidatePoints = Collections.unmodifiableList(CandidateSelection.getMostFrequentCandidates(mTrainingDataBase.getLikeliestPoints(mAccessPointList).values()));
+      }//if
+      return mCandidatePoints;
+   }//getCandidatePoints
+}//CandidateSet
@@ -0,0 +1,76 @@
+/*
+ * Reusable access point observation records of one epoch
+ */
+package positioning;
+
+import database.SQLLiteConnection;
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Map;
+import wifidatavisualizer.AccessPointScanSet;
+import wifidatavisualizer.EpochAligner;
+
+/**
+ * Turns the current epoch of an EpochAligner into an access point
+ * observation record list. An access point's SSID, training data ordinal,
+ * location and path loss model don't change from epoch to epoch, so each
+ * located access point gets one record up front and only its RSS is updated. The list and its records
+ * are reused by every epoch, they are only valid until the next fill.
+ *
+ * An access point is observed when its window around the epoch holds any
+ * samples, with their aggregated RSS.
+ *
+ * @author James Licata
+ */
+public class EpochObservationBuffer
+{
+   //One record per access point ordinal, null for access points the training data doesn't locate
+   AccessPointObservationRecord[] mRecords;
+   ArrayList<AccessPointObservationRecord> mAccessPointList;
+
+   /**
+    * Main constructor
+    *
+    * @param scanSet              the session's access points
+    * @param accessPointLocations the location of each access point by SSID
+    * @param trainingDataBase     the training data base the path loss models
+    *                             are calibrated to
+    */
+   public EpochObservationBuffer(AccessPointScanSet scanSet, Map<String, Point> accessPointLocations, SQLLiteConnection trainingDataBase)
+   {
+      mRecords = new AccessPointObservationRecord[scanSet.getNumberOfAccessPoints()];
+      mAccessPointList = new ArrayList<>(mRecords.length);
+      for (int ap = 0; ap < mRecords.length; ++ap)
+      {
+         String ssid = scanSet.getSSID(ap);
+         Point access_point_location = accessPointLocations.get(ssid);
+         if (access_point_location != null)
+         {
+            mRecords[ap] = new AccessPointObservationRecord(0, access_point_location, ssid);
+            mRecords[ap].setPathLossModel(trainingDataBase.getPathLossModel(ssid));
+            mRecords[ap].setAccessPointOrdinal(trainingDataBase.getAccessPointOrdinal(ssid));
+         }//if
+      }//for
+   }//EpochObservationBuffer
+
+   /**
+    * Fills the observations of the aligner's current epoch
+    *
+    * @param epochAligner the aligner, positioned on an epoch
+    * @return the access point observation record list, in access point
+    *         ordinal order
+    */
+   public ArrayList<AccessPointObservationRecord> fill(EpochAligner epochAligner)
+   {
+      mAccessPointList.clear();
+      for (int ap = 0; ap < mRecords.length; ++ap)
+      {
+         if (mRecords[ap] != null && epochAligner.getNumberOfSamples(ap) > 0)
+         {
+            mRecords[ap].setSignalLevel(epochAligner.getAggregatedRSS(ap));
+            mAccessPointList.add(mRecords[ap]);
+         }//if
+      }//for
+      return mAccessPointList;
+   }//fill
+}//EpochObservationBuffer
@@ -4,13 +4,14 @@
 package positioning;
 
 import database.SQLLiteConnection;
+import database.SignalSpaceKdTree;
 import java.awt.Point;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import wifidatavisualizer.Constants;
+import wifidatavisualizer.NewWifiDataListener.WifiDataType;
 
 /**
  * Class with static methods for manipulating wifi data using fingerprinting
@@ -18,7 +19,7 @@ import wifidatavisualizer.Constants;
  *
  * @author James Licata
  */
-public class Fingerprinting
+public class Fingerprinting implements PositioningEngine
 {
    /**
     * Returns a relative point coordinate for the fingerprinting algorithm
@@ -30,15 +31,31 @@ public class Fingerprinting
     */
    public static Point fingerprint(ArrayList<AccessPointObservationRecord> accessPointList, SQLLiteConnection trainingDataBase, Point lastPointApproximation)
    {
-      Collection<CandidatePoint> collection = trainingDataBase.getLikeliestPoints(accessPointList).values();
-      ArrayList<CandidatePoint> candidate_point_list = new ArrayList<>(collection);
-      Collections.sort(candidate_point_list);
-      int highest_frequency = candidate_point_list.get(candidate_point_list.size() - 1).getFrequencyCount();
-      while (candidate_point_list.get(0).getFrequencyCount() < highest_frequency)
+      return fingerprint(new CandidateSet(accessPointList, trainingDataBase), lastPointApproximation);
+   }//fingerprint
+
+   /**
+    * Returns a relative point coordinate for the fingerprinting algorithm
+    * estimation from an epoch's shared candidate set
+    *
+    * @param candidateSet           the epoch's observations and candidate
+    *                               points
+    * @param lastPointApproximation the last point approximation from previous
+    *                               estimation
+    * @return the final point approximation
+    */
+   public static Point fingerprint(CandidateSet candidateSet, Point lastPointApproximation)
+   {
+      if (Constants.FINGERPRINTING_USE_SIGNAL_SPACE_KNN)
       {
-         //Remove all of the lower frequencies
-         candidate_point_list.remove(0);
-      }//for
+         //The tree is only built once the k-d tree search is switched on
+         SignalSpaceKdTree signal_space_tree = candidateSet.getTrainingDataBase().getSignalSpaceTree();
+         if (signal_space_tree != null)
+         {
+            return weightedKNearestNeighbors(candidateSet.getAccessPointList(), signal_space_tree);
+         }//if
+      }//if
+      List<CandidatePoint> candidate_point_list = candidateSet.getCandidatePoints();
       if (candidate_point_list.size() < Constants.FINGERPRINTING_K_NEAREST_NEIGHBORS)
       {
          return chooseBestPoint(candidate_point_list, lastPointApproximation);
@@ -59,38 +76,11 @@ public class Fingerprinting
     *                               final decider when
     * @return the final point approximation
     */
-   public static Point chooseBestPoint(ArrayList<CandidatePoint> candidatePointList, Point lastPointApproximation)
+   public static Point chooseBestPoint(List<CandidatePoint> candidatePointList, Point lastPointApproximation)
    {
-      int best_point_index = 0;
-      double average_signal_difference = candidatePointList.get(0).getAverageSignalDiff();
-      int index_counter = 0;
-      for (CandidatePoint candidate_point : candidatePointList)
-      {
-         if (candidate_point.getAverageSignalDiff() < average_signal_difference)
-         {
-            best_point_index = index_counter;
-            //Update the average signal difference to get the closest match
-            average_signal_difference = candidate_point.getAverageSignalDiff();
-         }//if
-         else if (candidate_point.getAverageSignalDiff() == average_signal_difference)
-         {
-            double new_point_distance = lastPointApproximation.distance(candidate_point.getCoordinates());
-            double old_point_distance = lastPointApproximation.distance(candidatePointList.get(best_point_index).getCoordinates());
-            if (new_point_distance < old_point_distance)
-            {
-               best_point_index = index_counter;
-               //Update the average signal difference to get the closest match
-               average_signal_difference = candidate_point.getAverageSignalDiff();
-            }//if
-         }//else if
-         else
-         {
-            //Do nothing
-         }//else
-         //Increment the counter
-         ++index_counter;
-      }//for
-      return candidatePointList.get(best_point_index).getCoordinates();
+      CandidatePoint best_candidate_point = new CandidateScoring(candidatePointList, lastPointApproximation, 0).getBestCandidate();
+      //Hand out a copy, candidate points may be shared through the candidate cache
+      return new Point(best_candidate_point.getCoordinates());
    }//chooseBestPoint
 
    /**
@@ -103,16 +93,15 @@ public class Fingerprinting
     *                               final decider when
     * @return the final point approximation
     */
-   public static Point getPointEstimationFromKNearestNeighbors(ArrayList<CandidatePoint> candidatePointList, Point lastPointApproximation)
+   public static Point getPointEstimationFromKNearestNeighbors(List<CandidatePoint> candidatePointList, Point lastPointApproximation)
    {
-      ArrayList<Point> point_list = new ArrayList<Point>(Constants.FINGERPRINTING_K_NEAREST_NEIGHBORS);
-      Point best_training_point = chooseBestPoint(candidatePointList, lastPointApproximation);
-      while (point_list.size() != Constants.FINGERPRINTING_K_NEAREST_NEIGHBORS)
+      CandidateScoring candidate_scoring = new CandidateScoring(candidatePointList, lastPointApproximation, Constants.FINGERPRINTING_K_NEAREST_NEIGHBORS);
+      Point best_training_point = new Point(candidate_scoring.getBestCandidate().getCoordinates());
+      ArrayList<Point> point_list = new ArrayList<Point>(candidate_scoring.getNumberOfNearest());
+      for (int rank = 0; rank < candidate_scoring.getNumberOfNearest(); ++rank)
       {
-         int best_point_index = getBestPointIndex(candidatePointList);
-         point_list.add(candidatePointList.get(best_point_index).getCoordinates());
-         candidatePointList.remove(best_point_index);
-      }//while
+         point_list.add(candidate_scoring.getNearestCandidate(rank).getCoordinates());
+      }//for
       Point centroid_point = getCentroid(point_list);
 
       double distance_from_centroid = lastPointApproximation.distance(centroid_point);
@@ -128,28 +117,18 @@ public class Fingerprinting
    }//chooseBestPoint
 
    /**
-    * Returns the index of the best candidate point (lowest signal differential)
+    * Weighted K nearest neighbor estimate searched over every office in the
+    * radio map, not just the ones whose RSS fell inside the candidate window
     *
-    * @param candidatePointList the candidate point list
-    * @return
+    * @param accessPointList the access point observation record list
+    * @param signalSpaceTree the k-d tree built over the radio map
+    * @return the inverse distance weighted centroid of the K nearest offices
+    *         in signal space
     */
-   public static int getBestPointIndex(ArrayList<CandidatePoint> candidatePointList)
+   public static Point weightedKNearestNeighbors(ArrayList<AccessPointObservationRecord> accessPointList, SignalSpaceKdTree signalSpaceTree)
    {
-      int best_point_index = 0;
-      double average_signal_difference = candidatePointList.get(0).getAverageSignalDiff();
-      int index_counter = 0;
-      for (CandidatePoint candidate_point : candidatePointList)
-      {
-         if (candidate_point.getAverageSignalDiff() < average_signal_difference)
-         {
-            best_point_index = index_counter;
-            //Update the average signal difference to get the closest match
-            average_signal_difference = candidate_point.getAverageSignalDiff();
-         }//if
-         ++index_counter;
-      }//for
-      return best_point_index;
-   }//getBestPointIndex
+      return signalSpaceTree.getWeightedEstimate(accessPointList, Constants.FINGERPRINTING_SIGNAL_SPACE_K_NEAREST_NEIGHBORS);
+   }//weightedKNearestNeighbors
 
    /**
     * Returns the equal centroid given the point list
@@ -169,4 +148,16 @@ public class Fingerprinting
 
       return new Point(centroid_x / pointList.size(), centroid_y / pointList.size());
    }//getCentroid
+
+   @Override
+   public WifiDataType getDataType()
+   {
+      return WifiDataType.FINGERPRINTING;
+   }//getDataType
+
+   @Override
+   public Point estimate(CandidateSet candidateSet, Point lastPointApproximation)
+   {
+      return fingerprint(candidateSet, lastPointApproximation);
+   }//estimate
 }//Fingerprinting
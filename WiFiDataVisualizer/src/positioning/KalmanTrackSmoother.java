@@ -0,0 +1,171 @@
+/*
+ * Streaming constant velocity Kalman smoothing of position estimate tracks
+ */
+package positioning;
+
+import java.awt.Point;
+import java.util.HashMap;
+import wifidatavisualizer.NewWifiDataListener.WifiDataType;
+
+/**
+ * Smooths position estimates one epoch at a time with a constant velocity
+ * Kalman filter. Separate state is kept per device and per algorithm, so
+ * interleaved tracks don't pull on each other.
+ *
+ * The x and y axes are independent under this model, so each axis is a two
+ * state (position, velocity) filter with a symmetric 2x2 covariance held in
+ * primitive fields. Once a track exists, an update does no allocation.
+ *
+ * @author James Licata
+ */
+public class KalmanTrackSmoother
+{
+   //Velocity variance of a new track, in (pixels per second)^2
+   final static double INITIAL_VELOCITY_VARIANCE = 400.0;
+
+   //Random acceleration standard deviation, in pixels per second^2
+   double mProcessSigmaPixels;
+
+   //Position estimate error standard deviation, in pixels
+   double mMeasurementSigmaPixels;
+
+   //Tracks per device, indexed by algorithm
+   HashMap<String, Track[]> mDeviceTracks = new HashMap<>();
+
+   /**
+    * One axis of a constant velocity track
+    */
+   static class Axis
+   {
+      double mPosition;
+      double mVelocity;
+      double mP00;
+      double mP01;
+      double mP11;
+
+      void reset(double position, double measurementVariance)
+      {
+         mPosition = position;
+         mVelocity = 0.0;
+         mP00 = measurementVariance;
+         mP01 = 0.0;
+         mP11 = INITIAL_VELOCITY_VARIANCE;
+      }//reset
+
+      void update(double measurement, double intervalSeconds, double processVariance, double measurementVariance)
+      {
+         //Predict
+         double dt = intervalSeconds;
+         double dt2 = dt * dt;
+         mPosition += mVelocity * dt;
+         mP00 += 2.0 * dt * mP01 + dt2 * mP11 + processVariance * dt2 * dt2 / 4.0;
+         mP01 += dt * mP11 + processVariance * dt2 * dt / 2.0;
+         mP11 += processVariance * dt2;
+
+         //Correct
+         double innovation_variance = mP00 + measurementVariance;
+         double gain_position = mP00 / innovation_variance;
+         double gain_velocity = mP01 / innovation_variance;
+         double innovation = measurement - mPosition;
+         mPosition += gain_position * innovation;
+         mVelocity += gain_velocity * innovation;
+         mP11 -= gain_velocity * mP01;
+         mP00 *= 1.0 - gain_position;
+         mP01 *= 1.0 - gain_position;
+      }//update
+   }//Axis
+
+   /**
+    * Constant velocity track of one algorithm on one device
+    */
+   static class Track
+   {
+      Axis mX = new Axis();
+      Axis mY = new Axis();
+      boolean mInitialized = false;
+   }//Track
+
+   /**
+    * Main constructor
+    *
+    * @param processSigmaPixels     random acceleration standard deviation, in
+    *                               pixels per second^2
+    * @param measurementSigmaPixels position estimate error standard deviation,
+    *                               in pixels
+    */
+   public KalmanTrackSmoother(double processSigmaPixels, double measurementSigmaPixels)
+   {
+      mProcessSigmaPixels = processSigmaPixels;
+      mMeasurementSigmaPixels = measurementSigmaPixels;
+   }//KalmanTrackSmoother
+
+   /**
+    * Smooths the next estimate of a track
+    *
+    * @param deviceId        the device the estimate is for
+    * @param dataType        the algorithm that produced the estimate
+    * @param estimate        the raw estimate
+    * @param intervalSeconds time since the track's previous estimate
+    * @param result          receives the smoothed estimate, may be the
+    *                        estimate itself
+    * @return result
+    */
+   public Point smooth(String deviceId, WifiDataType dataType, Point estimate, double intervalSeconds, Point result)
+   {
+      Track[] device_tracks = mDeviceTracks.get(deviceId);
+      if (device_tracks == null)
+      {
+         device_tracks = new Track[WifiDataType.values().length];
+         mDeviceTracks.put(deviceId, device_tracks);
+      }//if
+      Track track = device_tracks[dataType.ordinal()];
+      if (track == null)
+      {
+         track = new Track();
+         device_tracks[dataType.ordinal()] = track;
+      }//if
+      double measurement_variance = mMeasurementSigmaPixels * mMeasurementSigmaPixels;
+      if (track.mInitialized == false)
+      {
+         track.mX.reset(estimate.x, measurement_variance);
+         track.mY.reset(estimate.y, measurement_variance);
+         track.mInitialized = true;
+      }//if
+      else
+      {
+         double process_variance = mProcessSigmaPixels * mProcessSigmaPixels;
+         track.mX.update(estimate.x, intervalSeconds, process_variance, measurement_variance);
+         track.mY.update(estimate.y, intervalSeconds, process_variance, measurement_variance);
+      }//else
+      result.setLocation(track.mX.mPosition, track.mY.mPosition);
+      return result;
+   }//smooth
+
+   /**
+    * Forgets every track of a device, its next estimate starts a new track
+    *
+    * @param deviceId the device to reset
+    */
+   public void reset(String deviceId)
+   {
+      Track[] device_tracks = mDeviceTracks.get(deviceId);
+      if (device_tracks != null)
+      {
+         for (Track track : device_tracks)
+         {
+            if (track != null)
+            {
+               track.mInitialized = false;
+            }//if
+         }//for
+      }//if
+   }//reset
+
+   /**
+    * Forgets every track of every device
+    */
+   public void clear()
+   {
+      mDeviceTracks.clear();
+   }//clear
+}//KalmanTrackSmoother
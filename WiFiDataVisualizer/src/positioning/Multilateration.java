@@ -0,0 +1,237 @@
+/*
+ * Class that estimates position from any number of ranged access points by least squares
+ */
+package positioning;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import wifidatavisualizer.Constants;
+
+/**
+ * Least squares multilateration engine. The range circles are linearized by
+ * subtracting their weighted mean equation, which leaves a 2x2 system of
+ * normal equations that is solved in closed form for any number of anchors.
+ * With three anchors this is the exact radical center of the range circles.
+ * An optional Gauss-Newton refinement then minimizes the weighted squared
+ * range residuals directly.
+ *
+ * Anchors are weighted by 1 / range^2 since RSS ranging error grows with
+ * distance. Solvers keep their anchor buffers between calls and only grow
+ * them, so steady state estimation does not allocate.
+ *
+ * @author James Licata
+ */
+public class Multilateration
+{
+   //Gauss-Newton stops once a step moves the estimate less than this many pixels
+   final static double GAUSS_NEWTON_TOLERANCE_PIXELS = 0.01;
+
+   //Shortest range used for weighting and residuals, in pixels
+   final static double MIN_RANGE_PIXELS = 1.0;
+
+   //Normal equation determinants below this are treated as collinear anchors
+   final static double SINGULAR_DETERMINANT = 1e-9;
+
+   //Anchors the buffers hold before the first epoch that needs more
+   final static int INITIAL_ANCHOR_CAPACITY = 4;
+
+   //One solver per thread so the static entry point is safe to call concurrently
+   static ThreadLocal<Multilateration> sSolver = new ThreadLocal<Multilateration>()
+   {
+      @Override
+      protected Multilateration initialValue()
+      {
+         return new Multilateration();
+      }//initialValue
+   };
+
+   //Anchor buffers, only the first mNumberOfAnchors entries are in use. They
+   //grow when an epoch observes more access points.
+   double[] mAnchorX = new double[INITIAL_ANCHOR_CAPACITY];
+   double[] mAnchorY = new double[INITIAL_ANCHOR_CAPACITY];
+   double[] mRange = new double[INITIAL_ANCHOR_CAPACITY];
+   double[] mWeight = new double[INITIAL_ANCHOR_CAPACITY];
+   int mNumberOfAnchors = 0;
+
+   //Last solution
+   double mX = 0.0;
+   double mY = 0.0;
+
+   /**
+    * Removes all anchors
+    */
+   public void clearAnchors()
+   {
+      mNumberOfAnchors = 0;
+   }//clearAnchors
+
+   /**
+    * Adds a ranged anchor
+    *
+    * @param x     anchor x coordinate in pixels
+    * @param y     anchor y coordinate in pixels
+    * @param range estimated distance to the anchor in pixels
+    */
+   public void addAnchor(double x, double y, double range)
+   {
+      if (mNumberOfAnchors == mAnchorX.length)
+      {
+         int capacity = mNumberOfAnchors * 2;
+         mAnchorX = Arrays.copyOf(mAnchorX, capacity);
+         mAnchorY = Arrays.copyOf(mAnchorY, capacity);
+         mRange = Arrays.copyOf(mRange, capacity);
+         mWeight = Arrays.copyOf(mWeight, capacity);
+      }//if
+      double clamped_range = Math.max(MIN_RANGE_PIXELS, range);
+      mAnchorX[mNumberOfAnchors] = x;
+      mAnchorY[mNumberOfAnchors] = y;
+      mRange[mNumberOfAnchors] = clamped_range;
+      mWeight[mNumberOfAnchors] = 1.0 / (clamped_range * clamped_range);
+      ++mNumberOfAnchors;
+   }//addAnchor
+
+   /**
+    * Solves for the position from the current anchors
+    *
+    * @param gaussNewtonIterations maximum number of Gauss-Newton refinement
+    *                              iterations, 0 for the linear solution only
+    * @return false if there are fewer than three anchors or they are
+    *         collinear, in which case the solution is their weighted centroid
+    */
+   public boolean solve(int gaussNewtonIterations)
+   {
+      if (mNumberOfAnchors == 0)
+      {
+         mX = 0.0;
+         mY = 0.0;
+         return false;
+      }//if
+
+      //Weighted means of the anchor coordinates and of each circle's constant term
+      double weight_sum = 0.0;
+      double mean_x = 0.0;
+      double mean_y = 0.0;
+      double mean_c = 0.0;
+      for (int i = 0; i < mNumberOfAnchors; ++i)
+      {
+         weight_sum += mWeight[i];
+         mean_x += mWeight[i] * mAnchorX[i];
+         mean_y += mWeight[i] * mAnchorY[i];
+         mean_c += mWeight[i] * (mAnchorX[i] * mAnchorX[i] + mAnchorY[i] * mAnchorY[i] - mRange[i] * mRange[i]);
+      }//for
+      mean_x /= weight_sum;
+      mean_y /= weight_sum;
+      mean_c /= weight_sum;
+      mX = mean_x;
+      mY = mean_y;
+      if (mNumberOfAnchors < 3)
+      {
+         return false;
+      }//if
+
+      //Row i: 2 (xi - mean_x) x + 2 (yi - mean_y) y = ci - mean_c, accumulated straight into the normal equations
+      double a11 = 0.0;
+      double a12 = 0.0;
+      double a22 = 0.0;
+      double b1 = 0.0;
+      double b2 = 0.0;
+      for (int i = 0; i < mNumberOfAnchors; ++i)
+      {
+         double dx = 2.0 * (mAnchorX[i] - mean_x);
+         double dy = 2.0 * (mAnchorY[i] - mean_y);
+         double rhs = mAnchorX[i] * mAnchorX[i] + mAnchorY[i] * mAnchorY[i] - mRange[i] * mRange[i] - mean_c;
+         a11 += mWeight[i] * dx * dx;
+         a12 += mWeight[i] * dx * dy;
+         a22 += mWeight[i] * dy * dy;
+         b1 += mWeight[i] * dx * rhs;
+         b2 += mWeight[i] * dy * rhs;
+      }//for
+      double determinant = a11 * a22 - a12 * a12;
+      if (determinant <= SINGULAR_DETERMINANT * a11 * a22)
+      {
+         return false;
+      }//if
+      mX = (a22 * b1 - a12 * b2) / determinant;
+      mY = (a11 * b2 - a12 * b1) / determinant;
+
+      for (int iteration = 0; iteration < gaussNewtonIterations; ++iteration)
+      {
+         if (refine() < GAUSS_NEWTON_TOLERANCE_PIXELS)
+         {
+            break;
+         }//if
+      }//for
+      return true;
+   }//solve
+
+   /**
+    * One Gauss-Newton step on the weighted range residuals ||p - ai|| - ri
+    *
+    * @return the length of the step taken in pixels, 0 if the step was
+    *         singular
+    */
+   private double refine()
+   {
+      double a11 = 0.0;
+      double a12 = 0.0;
+      double a22 = 0.0;
+      double b1 = 0.0;
+      double b2 = 0.0;
+      for (int i = 0; i < mNumberOfAnchors; ++i)
+      {
+         double dx = mX - mAnchorX[i];
+         double dy = mY - mAnchorY[i];
+         double distance = Math.max(MIN_RANGE_PIXELS, Math.sqrt(dx * dx + dy * dy));
+         double jx = dx / distance;
+         double jy = dy / distance;
+         double residual = distance - mRange[i];
+         a11 += mWeight[i] * jx * jx;
+         a12 += mWeight[i] * jx * jy;
+         a22 += mWeight[i] * jy * jy;
+         b1 += mWeight[i] * jx * residual;
+         b2 += mWeight[i] * jy * residual;
+      }//for
+      double determinant = a11 * a22 - a12 * a12;
+      if (determinant <= SINGULAR_DETERMINANT * a11 * a22)
+      {
+         return 0.0;
+      }//if
+      double step_x = (a22 * b1 - a12 * b2) / determinant;
+      double step_y = (a11 * b2 - a12 * b1) / determinant;
+      mX -= step_x;
+      mY -= step_y;
+      return Math.sqrt(step_x * step_x + step_y * step_y);
+   }//refine
+
+   public double getX()
+   {
+      return mX;
+   }//getX
+
+   public double getY()
+   {
+      return mY;
+   }//getY
+
+   /**
+    * Given a list of access point observations, determines a position
+    * estimation from all of them
+    *
+    * @param accessPointList the access point observation record list
+    * @return a 2D point estimation
+    */
+   public static Point findCenterPoint(ArrayList<AccessPointObservationRecord> accessPointList)
+   {
+      Multilateration solver = sSolver.get();
+      solver.clearAnchors();
+      for (AccessPointObservationRecord access_point : accessPointList)
+      {
+         solver.addAnchor(access_point.getCoordinates().getX(), access_point.getCoordinates().getY(), access_point.getDistancePixels());
+      }//for
+      solver.solve(Constants.MULTILATERATION_GAUSS_NEWTON_ITERATIONS);
+      Point resultant_point = new Point(0, 0);
+      resultant_point.setLocation(solver.getX(), solver.getY());
+      return resultant_point;
+   }//findCenterPoint
+}//Multilateration
@@ -0,0 +1,317 @@
+/*
+ * Particle filter that tracks a position estimate stream with a motion model
+ */
+package positioning;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Tracks a moving device by fusing the estimates of any positioning
+ * algorithm with a constant velocity motion model. Each update predicts every
+ * particle forward, weights it by a Gaussian likelihood of the new estimate,
+ * and resamples systematically once the effective sample size drops below
+ * half the particle count.
+ *
+ * Particles are stored as struct of arrays double buffers. Prediction,
+ * weighting and resampling work on independent chunks of particles, each
+ * with its own random number stream, and run in parallel once there are
+ * enough particles to be worth it.
+ *
+ * @author James Licata
+ */
+public class ParticleFilter
+{
+   //Particles per chunk of work, chunks are the unit of parallelism
+   final static int CHUNK_SIZE = 512;
+
+   //Below this many particles everything runs on the calling thread. The
+   //default PARTICLE_FILTER_NUMBER_OF_PARTICLES is above it.
+   final static int PARALLEL_THRESHOLD = 2 * CHUNK_SIZE;
+
+   int mNumberOfParticles;
+   int mNumberOfChunks;
+
+   //Particle state, mX/mY in pixels and mVelocityX/mVelocityY in pixels per second
+   double[] mX;
+   double[] mY;
+   double[] mVelocityX;
+   double[] mVelocityY;
+   double[] mWeight;
+
+   //Resampling targets, swapped with the state buffers after every resample
+   double[] mNextX;
+   double[] mNextY;
+   double[] mNextVelocityX;
+   double[] mNextVelocityY;
+
+   //Running sum of the weights used to draw resampled particles
+   double[] mCumulativeWeight;
+
+   //Per chunk weight sums, so the weighting step needs no shared accumulator
+   double[] mChunkWeightSum;
+
+   //One random number stream per chunk
+   SplittableRandom[] mChunkRandom;
+
+   //Motion and measurement model
+   double mMotionSigmaPixels;
+   double mMeasurementSigmaPixels;
+
+   boolean mInitialized = false;
+
+   /**
+    * Main constructor
+    *
+    * @param numberOfParticles      the number of particles, more particles
+    *                               give a smoother track for more CPU
+    * @param motionSigmaPixels      standard deviation of the random
+    *                               acceleration per second, in pixels
+    * @param measurementSigmaPixels standard deviation of the positioning
+    *                               algorithm's error, in pixels
+    * @param seed                   random seed
+    */
+   public ParticleFilter(int numberOfParticles, double motionSigmaPixels, double measurementSigmaPixels, long seed)
+   {
+      mNumberOfParticles = Math.max(1, numberOfParticles);
+      mNumberOfChunks = (mNumberOfParticles + CHUNK_SIZE - 1) / CHUNK_SIZE;
+      mMotionSigmaPixels = motionSigmaPixels;
+      mMeasurementSigmaPixels = measurementSigmaPixels;
+      mX = new double[mNumberOfParticles];
+      mY = new double[mNumberOfParticles];
+      mVelocityX = new double[mNumberOfParticles];
+      mVelocityY = new double[mNumberOfParticles];
+      mWeight = new double[mNumberOfParticles];
+      mNextX = new double[mNumberOfParticles];
+      mNextY = new double[mNumberOfParticles];
+      mNextVelocityX = new double[mNumberOfParticles];
+      mNextVelocityY = new double[mNumberOfParticles];
+      mCumulativeWeight = new double[mNumberOfParticles];
+      mChunkWeightSum = new double[mNumberOfChunks];
+      mChunkRandom = new SplittableRandom[mNumberOfChunks];
+      SplittableRandom seed_random = new SplittableRandom(seed);
+      for (int chunk = 0; chunk < mNumberOfChunks; ++chunk)
+      {
+         mChunkRandom[chunk] = seed_random.split();
+      }//for
+   }//ParticleFilter
+
+   public int getNumberOfParticles()
+   {
+      return mNumberOfParticles;
+   }//getNumberOfParticles
+
+   /**
+    * Scatters all particles around a starting point with zero velocity
+    *
+    * @param startPoint the starting point
+    */
+   public void reset(Point startPoint)
+   {
+      forEachChunk(chunk ->
+      {
+         SplittableRandom random = mChunkRandom[chunk];
+         int end = getChunkEnd(chunk);
+         for (int i = chunk * CHUNK_SIZE; i < end; ++i)
+         {
+            mX[i] = startPoint.x + mMeasurementSigmaPixels * nextGaussian(random);
+            mY[i] = startPoint.y + mMeasurementSigmaPixels * nextGaussian(random);
+            mVelocityX[i] = 0.0;
+            mVelocityY[i] = 0.0;
+            mWeight[i] = 1.0 / mNumberOfParticles;
+         }//for
+      });
+      mInitialized = true;
+   }//reset
+
+   /**
+    * Fuses one positioning estimate into the track
+    *
+    * @param estimate        the positioning algorithm's estimate
+    * @param intervalSeconds time since the previous estimate
+    * @return the weighted mean particle position
+    */
+   public Point update(Point estimate, double intervalSeconds)
+   {
+      if (mInitialized == false)
+      {
+         reset(estimate);
+         return new Point(estimate);
+      }//if
+      double motion_sigma = mMotionSigmaPixels * intervalSeconds;
+      double inverse_variance = 1.0 / (mMeasurementSigmaPixels * mMeasurementSigmaPixels);
+
+      //Predict and weight
+      forEachChunk(chunk ->
+      {
+         SplittableRandom random = mChunkRandom[chunk];
+         int end = getChunkEnd(chunk);
+         double weight_sum = 0.0;
+         for (int i = chunk * CHUNK_SIZE; i < end; ++i)
+         {
+            mVelocityX[i] += motion_sigma * nextGaussian(random);
+            mVelocityY[i] += motion_sigma * nextGaussian(random);
+            mX[i] += mVelocityX[i] * intervalSeconds;
+            mY[i] += mVelocityY[i] * intervalSeconds;
+            double dx = mX[i] - estimate.x;
+            double dy = mY[i] - estimate.y;
+            mWeight[i] *= Math.exp(-0.5 * (dx * dx + dy * dy) * inverse_variance);
+            weight_sum += mWeight[i];
+         }//for
+         mChunkWeightSum[chunk] = weight_sum;
+      });
+      double total_weight = 0.0;
+      for (int chunk = 0; chunk < mNumberOfChunks; ++chunk)
+      {
+         total_weight += mChunkWeightSum[chunk];
+      }//for
+      if (total_weight <= 0.0 || Double.isNaN(total_weight))
+      {
+         //The estimate is nowhere near any particle, start over from it
+         reset(estimate);
+         return new Point(estimate);
+      }//if
+
+      //Normalize, and sum the squared weights for the effective sample size
+      double normalizer = 1.0 / total_weight;
+      forEachChunk(chunk ->
+      {
+         int end = getChunkEnd(chunk);
+         double square_sum = 0.0;
+         for (int i = chunk * CHUNK_SIZE; i < end; ++i)
+         {
+            mWeight[i] *= normalizer;
+            square_sum += mWeight[i] * mWeight[i];
+         }//for
+         mChunkWeightSum[chunk] = square_sum;
+      });
+      double square_sum = 0.0;
+      for (int chunk = 0; chunk < mNumberOfChunks; ++chunk)
+      {
+         square_sum += mChunkWeightSum[chunk];
+      }//for
+      Point result = getEstimate();
+      if (1.0 / square_sum < mNumberOfParticles / 2.0)
+      {
+         resample();
+      }//if
+      return result;
+   }//update
+
+   /**
+    * Returns the weighted mean particle position
+    *
+    * @return the current track position
+    */
+   public Point getEstimate()
+   {
+      double mean_x = 0.0;
+      double mean_y = 0.0;
+      for (int i = 0; i < mNumberOfParticles; ++i)
+      {
+         mean_x += mWeight[i] * mX[i];
+         mean_y += mWeight[i] * mY[i];
+      }//for
+      return new Point((int) Math.round(mean_x), (int) Math.round(mean_y));
+   }//getEstimate
+
+   /**
+    * Systematic resampling. Every output particle binary searches its own
+    * position in the cumulative weights, so chunks resample independently.
+    */
+   private void resample()
+   {
+      double[] cumulative_weight = mCumulativeWeight;
+      System.arraycopy(mWeight, 0, cumulative_weight, 0, mNumberOfParticles);
+      if (mNumberOfParticles >= PARALLEL_THRESHOLD)
+      {
+         Arrays.parallelPrefix(cumulative_weight, Double::sum);
+      }//if
+      else
+      {
+         for (int i = 1; i < mNumberOfParticles; ++i)
+         {
+            cumulative_weight[i] += cumulative_weight[i - 1];
+         }//for
+      }//else
+      double total_weight = cumulative_weight[mNumberOfParticles - 1];
+      double step = total_weight / mNumberOfParticles;
+      double offset = mChunkRandom[0].nextDouble() * step;
+      forEachChunk(chunk ->
+      {
+         int end = getChunkEnd(chunk);
+         for (int i = chunk * CHUNK_SIZE; i < end; ++i)
+         {
+            double target = offset + i * step;
+            int source = Arrays.binarySearch(cumulative_weight, 0, mNumberOfParticles, target);
+            if (source < 0)
+            {
+               source = -source - 1;
+            }//if
+            source = Math.min(source, mNumberOfParticles - 1);
+            mNextX[i] = mX[source];
+            mNextY[i] = mY[source];
+            mNextVelocityX[i] = mVelocityX[source];
+            mNextVelocityY[i] = mVelocityY[source];
+            mWeight[i] = 1.0 / mNumberOfParticles;
+         }//for
+      });
+      double[] swap = mX;
+      mX = mNextX;
+      mNextX = swap;
+      swap = mY;
+      mY = mNextY;
+      mNextY = swap;
+      swap = mVelocityX;
+      mVelocityX = mNextVelocityX;
+      mNextVelocityX = swap;
+      swap = mVelocityY;
+      mVelocityY = mNextVelocityY;
+      mNextVelocityY = swap;
+   }//resample
+
+   /**
+    * Runs the action for every chunk, in parallel when there are enough
+    * particles
+    */
+   private void forEachChunk(IntConsumer chunkAction)
+   {
+      if (mNumberOfParticles >= PARALLEL_THRESHOLD)
+      {
+         IntStream.range(0, mNumberOfChunks).parallel().forEach(chunkAction);
+      }//if
+      else
+      {
+         for (int chunk = 0; chunk < mNumberOfChunks; ++chunk)
+         {
+            chunkAction.accept(chunk);
+         }//for
+      }//else
+   }//forEachChunk
+
+   private int getChunkEnd(int chunk)
+   {
+      return Math.min(mNumberOfParticles, (chunk + 1) * CHUNK_SIZE);
+   }//getChunkEnd
+
+   /**
+    * Standard normal sample by the Marsaglia polar method
+    */
+   private static double nextGaussian(SplittableRandom random)
+   {
+      double u;
+      double v;
+      double s;
+      do
+      {
+         u = random.nextDouble() * 2.0 - 1.0;
+         v = random.nextDouble() * 2.0 - 1.0;
+         s = u * u + v * v;
+      }
+      while (s >= 1.0 || s == 0.0);
+      return u * Math.sqrt(-2.0 * Math.log(s) / s);
+   }//nextGaussian
+}//ParticleFilter
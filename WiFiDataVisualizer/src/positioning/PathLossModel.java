@@ -0,0 +1,89 @@
+/*
+ * Log-distance path loss model of one access point with a precomputed RSS to distance table
+ */
+package positioning;
+
+import wifidatavisualizer.Constants;
+
+/**
+ * Log-distance path loss model, |RSS| = reference loss + 10 n log10(d), where
+ * the reference loss is the loss at one meter and n is the path loss
+ * exponent. The distance for every whole dBm RSS magnitude is tabulated once,
+ * so ranging an observation is an array read.
+ *
+ * The free space model at 2437 MHz (channel 6) is the uncalibrated default,
+ * and is what every access point was ranged with before calibration.
+ *
+ * @author James Licata
+ */
+public class PathLossModel
+{
+   //Range of tabulated RSS magnitudes in dBm, readings outside it are clamped
+   final static int MIN_TABLE_RSS = 0;
+   final static int MAX_TABLE_RSS = 120;
+
+   //Pixels per meter on the indoor map
+   final public static double PIXELS_PER_METER = Constants.FEET_PER_METER * Constants.PIXELS_PER_FOOT;
+
+   //Free space path loss at one meter and 2437 MHz, in dB
+   final public static double FREE_SPACE_REFERENCE_LOSS_DB = 20.0 * Math.log10(2437) - 27.55;
+   final public static double FREE_SPACE_PATH_LOSS_EXPONENT = 2.0;
+
+   //Uncalibrated model shared by every access point without a calibration
+   final public static PathLossModel FREE_SPACE = new PathLossModel(FREE_SPACE_REFERENCE_LOSS_DB, FREE_SPACE_PATH_LOSS_EXPONENT);
+
+   double mReferenceLossDb;
+   double mPathLossExponent;
+
+   //Distance in meters for every RSS magnitude from MIN_TABLE_RSS to MAX_TABLE_RSS
+   double[] mDistanceMeters = new double[MAX_TABLE_RSS - MIN_TABLE_RSS + 1];
+
+   /**
+    * Main constructor, tabulates the distances
+    *
+    * @param referenceLossDb  the path loss at one meter in dB
+    * @param pathLossExponent the path loss exponent
+    */
+   public PathLossModel(double referenceLossDb, double pathLossExponent)
+   {
+      mReferenceLossDb = referenceLossDb;
+      mPathLossExponent = pathLossExponent;
+      for (int rss = MIN_TABLE_RSS; rss <= MAX_TABLE_RSS; ++rss)
+      {
+         mDistanceMeters[rss - MIN_TABLE_RSS] = Math.pow(10.0, (rss - referenceLossDb) / (10.0 * pathLossExponent));
+      }//for
+   }//PathLossModel
+
+   public double getReferenceLossDb()
+   {
+      return mReferenceLossDb;
+   }//getReferenceLossDb
+
+   public double getPathLossExponent()
+   {
+      return mPathLossExponent;
+   }//getPathLossExponent
+
+   /**
+    * Returns the distance to the access point for an RSS
+    *
+    * @param signalLevel the RSS in dBm, either sign
+    * @return distance in meters
+    */
+   public double getDistanceMeters(int signalLevel)
+   {
+      int rss = Math.min(MAX_TABLE_RSS, Math.max(MIN_TABLE_RSS, Math.abs(signalLevel)));
+      return mDistanceMeters[rss - MIN_TABLE_RSS];
+   }//getDistanceMeters
+
+   /**
+    * Returns the distance to the access point for an RSS
+    *
+    * @param signalLevel the RSS in dBm, either sign
+    * @return distance in pixels
+    */
+   public double getDistancePixels(int signalLevel)
+   {
+      return getDistanceMeters(signalLevel) * PIXELS_PER_METER;
+   }//getDistancePixels
+}//PathLossModel
@@ -6,8 +6,8 @@ package positioning;
 import database.SQLLiteConnection;
 import java.awt.Point;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
+import wifidatavisualizer.NewWifiDataListener.WifiDataType;
 
 /**
  * Class with static methods for manipulating wifi data using pattern matching
@@ -15,7 +15,7 @@ import java.util.Collections;
  *
  * @author James Licata
  */
-public class PatternMatching
+public class PatternMatching implements PositioningEngine
 {
    /**
     * Returns a relative point coordinate for the pattern matching algorithm
@@ -30,17 +30,22 @@ public class PatternMatching
     */
    public static Point patternMatching(ArrayList<AccessPointObservationRecord> accessPointList, SQLLiteConnection trainingDataBase, Point lastPointApproximation)
    {
-      Collection<CandidatePoint> collection = trainingDataBase.getLikeliestPoints(accessPointList).values();
-      ArrayList<CandidatePoint> candidate_point_list = new ArrayList<>(collection);
-      Collections.sort(candidate_point_list);
-      int highest_frequency = candidate_point_list.get(candidate_point_list.size() - 1).getFrequencyCount();
-      while (candidate_point_list.get(0).getFrequencyCount() < highest_frequency)
-      {
-         //Remove all of the lower frequencies
-         candidate_point_list.remove(0);
-      }//for
+      return patternMatching(new CandidateSet(accessPointList, trainingDataBase), lastPointApproximation);
+   }//patternMatching
 
-      return chooseBestPoint(candidate_point_list, lastPointApproximation);
+   /**
+    * Returns a relative point coordinate for the pattern matching algorithm
+    * estimation from an epoch's shared candidate set
+    *
+    * @param candidateSet           the epoch's observations and candidate
+    *                               points
+    * @param lastPointApproximation the last point approximation from previous
+    *                               estimation
+    * @return the final point approximation
+    */
+   public static Point patternMatching(CandidateSet candidateSet, Point lastPointApproximation)
+   {
+      return chooseBestPoint(candidateSet.getCandidatePoints(), lastPointApproximation);
    }//patternMatching
 
    /**
@@ -53,37 +58,22 @@ public class PatternMatching
     *                               final decider when
     * @return the final point approximation
     */
-   public static Point chooseBestPoint(ArrayList<CandidatePoint> candidatePointList, Point lastPointApproximation)
+   public static Point chooseBestPoint(List<CandidatePoint> candidatePointList, Point lastPointApproximation)
    {
-      int best_point_index = 0;
-      double average_signal_difference = candidatePointList.get(0).getAverageSignalDiff();
-      int index_counter = 0;
-      for (CandidatePoint f_point : candidatePointList)
-      {
-         if (f_point.getAverageSignalDiff() < average_signal_difference)
-         {
-            best_point_index = index_counter;
-            //Update the average signal difference to get the closest match
-            average_signal_difference = f_point.getAverageSignalDiff();
-         }//if
-         else if (f_point.getAverageSignalDiff() == average_signal_difference)
-         {
-            double new_point_distance = lastPointApproximation.distance(f_point.getCoordinates());
-            double old_point_distance = lastPointApproximation.distance(candidatePointList.get(best_point_index).getCoordinates());
-            if (new_point_distance < old_point_distance)
-            {
-               best_point_index = index_counter;
-               //Update the average signal difference to get the closest match
-               average_signal_difference = f_point.getAverageSignalDiff();
-            }//if
-         }//else if
-         else
-         {
-            //Do nothing
-         }//else
-         //Increment the counter
-         ++index_counter;
-      }//for
-      return candidatePointList.get(best_point_index).getCoordinates();
+      CandidatePoint best_candidate_point = new CandidateScoring(candidatePointList, lastPointApproximation, 0).getBestCandidate();
+      //Hand out a copy, candidate points may be shared through the candidate cache
+      return new Point(best_candidate_point.getCoordinates());
    }//chooseBestPoint
+
+   @Override
+   public WifiDataType getDataType()
+   {
+      return WifiDataType.PATTERN_MATCHING;
+   }//getDataType
+
+   @Override
+   public Point estimate(CandidateSet candidateSet, Point lastPointApproximation)
+   {
+      return patternMatching(candidateSet, lastPointApproximation);
+   }//estimate
 }//Fingerprinting
@@ -0,0 +1,39 @@
+/*
+ * Interface implemented by every positioning algorithm of the Wifi Data Visualizer
+ */
+package positioning;
+
+import java.awt.Point;
+import wifidatavisualizer.NewWifiDataListener.WifiDataType;
+
+/**
+ * A positioning algorithm that turns one epoch of access point observations
+ * into a position estimate. Engines keep no per epoch state of their own, so
+ * one engine may be evaluated from several threads at once. All engines run
+ * on an epoch share its candidate set, so the fingerprinting candidates are
+ * looked up and frequency filtered once per epoch.
+ *
+ * @author James Licata
+ */
+public interface PositioningEngine
+{
+   /**
+    * Returns the algorithm type the engine's estimates are reported as
+    *
+    * @return the wifi data type
+    */
+   public WifiDataType getDataType();
+
+   /**
+    * Estimates the position for one epoch of observations. The candidate set
+    * is shared with other engines, and neither its observation list nor its
+    * candidate points may be modified.
+    *
+    * @param candidateSet           the epoch's observations and candidate
+    *                               points
+    * @param lastPointApproximation the engine's last point approximation
+    * @return the point approximation, or null if the engine can't estimate
+    *         from these observations
+    */
+   public Point estimate(CandidateSet candidateSet, Point lastPointApproximation);
+}//PositioningEngine
@@ -0,0 +1,183 @@
+/*
+ * Scheduler that evaluates every registered positioning engine on each epoch
+ */
+package positioning;
+
+import database.SQLLiteConnection;
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import wifidatavisualizer.NewWifiDataListener.WifiDataType;
+
+/**
+ * Runs all registered positioning engines on the same epoch in parallel, so
+ * comparing algorithms on one capture costs a single pass over the data.
+ *
+ * Engines are submitted to an executor shared by every scheduler rather than
+ * one owned per scheduler, so the number of positioning threads stays bounded
+ * by the processor count however many schedulers exist. The calling thread
+ * evaluates the last engine itself instead of sitting idle.
+ *
+ * @author James Licata
+ */
+public class PositioningScheduler
+{
+   //Thread count of the shared executor
+   final static int NUMBER_OF_THREADS = Runtime.getRuntime().availableProcessors();
+
+   //Executor shared by all schedulers, daemon threads so it never keeps the application alive
+   static ExecutorService sSharedExecutor = Executors.newFixedThreadPool(NUMBER_OF_THREADS, new ThreadFactory()
+   {
+      AtomicInteger mThreadCount = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable)
+      {
+         Thread thread = new Thread(runnable, "positioning-" + mThreadCount.getAndIncrement());
+         thread.setDaemon(true);
+         return thread;
+      }//newThread
+   });
+
+   //Registered engines, evaluated in registration order
+   ArrayList<PositioningEngine> mEngines = new ArrayList<>();
+
+   ExecutorService mExecutor;
+
+   /**
+    * Default constructor, uses the shared executor
+    */
+   public PositioningScheduler()
+   {
+      this(sSharedExecutor);
+   }//PositioningScheduler
+
+   /**
+    * Constructor for a scheduler running on a given executor
+    *
+    * @param executor the executor the engines are evaluated on
+    */
+   public PositioningScheduler(ExecutorService executor)
+   {
+      mExecutor = executor;
+   }//PositioningScheduler
+
+   /**
+    * Creates a scheduler with every positioning algorithm registered
+    *
+    * @return the scheduler
+    */
+   public static PositioningScheduler createDefault()
+   {
+      PositioningScheduler scheduler = new PositioningScheduler();
+      scheduler.register(new Fingerprinting());
+      scheduler.register(new WeightedCentroid());
+      scheduler.register(new PatternMatching());
+      scheduler.register(new Trilateration());
+      scheduler.register(new Triangulation());
+      scheduler.register(new BayesianFingerprinting());
+      return scheduler;
+   }//createDefault
+
+   /**
+    * Registers an engine to be evaluated on every epoch
+    *
+    * @param engine the engine to register
+    */
+   public void register(PositioningEngine engine)
+   {
+      mEngines.add(engine);
+   }//register
+
+   public ArrayList<PositioningEngine> getEngines()
+   {
+      return mEngines;
+   }//getEngines
+
+   /**
+    * Evaluates every registered engine on one epoch and waits for all of
+    * them. An engine that fails or has no estimate is left out of the
+    * result.
+    *
+    * @param accessPointList  the access point observation record list
+    * @param trainingDataBase the data base containing the training data
+    *                         points
+    * @param lastPointsByType each algorithm's last point approximation
+    * @return the estimate of each engine by its wifi data type
+    */
+   public EnumMap<WifiDataType, Point> estimateAll(ArrayList<AccessPointObservationRecord> accessPointList, SQLLiteConnection trainingDataBase, Map<WifiDataType, Point> lastPointsByType)
+   {
+      return estimateAll(new CandidateSet(accessPointList, trainingDataBase), lastPointsByType);
+   }//estimateAll
+
+   /**
+    * Evaluates every registered engine on one epoch's candidate set and waits
+    * for all of them. The candidates are looked up once by whichever engine
+    * needs them first and shared by the rest.
+    *
+    * @param candidateSet     the epoch's observations and candidate points
+    * @param lastPointsByType each algorithm's last point approximation
+    * @return the estimate of each engine by its wifi data type
+    */
+   public EnumMap<WifiDataType, Point> estimateAll(CandidateSet candidateSet, Map<WifiDataType, Point> lastPointsByType)
+   {
+      EnumMap<WifiDataType, Point> estimates = new EnumMap<>(WifiDataType.class);
+      if (mEngines.isEmpty())
+      {
+         return estimates;
+      }//if
+      int last_engine_index = mEngines.size() - 1;
+      ArrayList<Future<Point>> futures = new ArrayList<>(last_engine_index);
+      for (int i = 0; i < last_engine_index; ++i)
+      {
+         PositioningEngine engine = mEngines.get(i);
+         Point last_point = lastPointsByType.get(engine.getDataType());
+         futures.add(mExecutor.submit(() -> engine.estimate(candidateSet, last_point)));
+      }//for
+
+      PositioningEngine caller_engine = mEngines.get(last_engine_index);
+      try
+      {
+         putEstimate(estimates, caller_engine, caller_engine.estimate(candidateSet, lastPointsByType.get(caller_engine.getDataType())));
+      }//try
+      catch (RuntimeException ex)
+      {
+         Logger.getLogger(PositioningScheduler.class.getName()).log(Level.SEVERE, null, ex);
+      }//catch
+
+      for (int i = 0; i < last_engine_index; ++i)
+      {
+         try
+         {
+            putEstimate(estimates, mEngines.get(i), futures.get(i).get());
+         }//try
+         catch (InterruptedException ex)
+         {
+            Thread.currentThread().interrupt();
+            Logger.getLogger(PositioningScheduler.class.getName()).log(Level.SEVERE, null, ex);
+         }//catch
+         catch (ExecutionException ex)
+         {
+            Logger.getLogger(PositioningScheduler.class.getName()).log(Level.SEVERE, null, ex.getCause());
+         }//catch
+      }//for
+      return estimates;
+   }//estimateAll
+
+   private static void putEstimate(EnumMap<WifiDataType, Point> estimates, PositioningEngine engine, Point estimate)
+   {
+      if (estimate != null)
+      {
+         estimates.put(engine.getDataType(), estimate);
+      }//if
+   }//putEstimate
+}//PositioningScheduler
@@ -0,0 +1,118 @@
+/*
+ * Router weights resolved to access point ordinals
+ */
+package positioning;
+
+import java.util.Arrays;
+import java.util.List;
+import wifidatavisualizer.Constants;
+
+/**
+ * Router weights for the weighted centroid algorithm, held in an array
+ * indexed by the same access point ordinals as the candidate points. SSIDs
+ * are resolved once when a table is built, so weighting a candidate is a
+ * plain array read.
+ *
+ * The fixed table comes from the configured router weights and is built once
+ * per SSID table by the training data base. Dynamic weights are filled into a
+ * table the caller keeps, from the ordinals the observation records already
+ * carry. Each access point is weighted by the inverse of its path loss range
+ * in the current epoch, scaled so the nearest access point weighs 1.
+ *
+ * @author James Licata
+ */
+public class RouterWeightTable
+{
+   //Weight of an access point without a configured router weight
+   final public static double DEFAULT_ROUTER_WEIGHT = 1.0;
+
+   //Shortest range used for dynamic weights, in pixels
+   final static double MIN_RANGE_PIXELS = 1.0;
+
+   //Weights indexed by access point ordinal, only the first
+   //mNumberOfAccessPoints entries are in use
+   double[] mWeights = new double[0];
+   int mNumberOfAccessPoints = 0;
+
+   /**
+    * Returns the configured router weights for an SSID table
+    *
+    * @param accessPointSSIDs the SSID of every access point ordinal
+    * @return the weight table
+    */
+   public static RouterWeightTable getFixedWeights(String[] accessPointSSIDs)
+   {
+      RouterWeightTable router_weights = new RouterWeightTable();
+      router_weights.resize(accessPointSSIDs.length);
+      for (int ap = 0; ap < accessPointSSIDs.length; ++ap)
+      {
+         Double weight = Constants.getRouterWeightMap().get(accessPointSSIDs[ap]);
+         router_weights.mWeights[ap] = (weight == null) ? DEFAULT_ROUTER_WEIGHT : weight;
+      }//for
+      return router_weights;
+   }//getFixedWeights
+
+   /**
+    * Fills the table with router weights derived from one epoch's
+    * observations. Each access point is weighted by the inverse of its path
+    * loss range, relative to the nearest one. Access points that were not
+    * observed weigh 0.
+    *
+    * @param numberOfAccessPoints the size of the access point ordinal range
+    * @param accessPointList      the epoch's access point observation
+    *                             records
+    */
+   public void setDynamicWeights(int numberOfAccessPoints, List<AccessPointObservationRecord> accessPointList)
+   {
+      resize(numberOfAccessPoints);
+      Arrays.fill(mWeights, 0, numberOfAccessPoints, 0.0);
+      double max_weight = 0.0;
+      for (int i = 0; i < accessPointList.size(); ++i)
+      {
+         AccessPointObservationRecord access_point = accessPointList.get(i);
+         int ap = access_point.getAccessPointOrdinal();
+         if (ap >= 0 && ap < numberOfAccessPoints)
+         {
+            double weight = 1.0 / Math.max(MIN_RANGE_PIXELS, access_point.getDistancePixels());
+            mWeights[ap] = weight;
+            max_weight = Math.max(max_weight, weight);
+         }//if
+      }//for
+      if (max_weight > 0.0)
+      {
+         for (int ap = 0; ap < numberOfAccessPoints; ++ap)
+         {
+            mWeights[ap] /= max_weight;
+         }//for
+      }//if
+   }//setDynamicWeights
+
+   /**
+    * Sets the size of the access point ordinal range, growing the weight
+    * array when needed
+    */
+   private void resize(int numberOfAccessPoints)
+   {
+      if (mWeights.length < numberOfAccessPoints)
+      {
+         mWeights = new double[numberOfAccessPoints];
+      }//if
+      mNumberOfAccessPoints = numberOfAccessPoints;
+   }//resize
+
+   /**
+    * Returns the weight of an access point
+    *
+    * @param accessPointOrdinal the access point ordinal
+    * @return the router weight
+    */
+   public double getWeight(int accessPointOrdinal)
+   {
+      return mWeights[accessPointOrdinal];
+   }//getWeight
+
+   public int getNumberOfAccessPoints()
+   {
+      return mNumberOfAccessPoints;
+   }//getNumberOfAccessPoints
+}//RouterWeightTable
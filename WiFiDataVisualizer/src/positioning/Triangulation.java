@@ -5,6 +5,7 @@ package positioning;
 
 import java.awt.Point;
 import java.util.ArrayList;
+import wifidatavisualizer.NewWifiDataListener.WifiDataType;
 
 /**
  * Class with static methods for manipulating wifi data using Triangulation
@@ -12,7 +13,7 @@ import java.util.ArrayList;
  *
  * @author James Licata
  */
-public class Triangulation
+public class Triangulation implements PositioningEngine
 {
    /**
     * Attempts to use Cramer's rule to help triangulate a point estimation
@@ -46,4 +47,21 @@ public class Triangulation
       }//if
       return resultant_point;
    }//triangulate
+
+   @Override
+   public WifiDataType getDataType()
+   {
+      return WifiDataType.TRIANGULATION;
+   }//getDataType
+
+   @Override
+   public Point estimate(CandidateSet candidateSet, Point lastPointApproximation)
+   {
+      //Cramer's rule only applies to exactly three observations
+      if (candidateSet.getAccessPointList().size() != 3)
+      {
+         return null;
+      }//if
+      return triangulate(candidateSet.getAccessPointList());
+   }//estimate
 }//Triangulation
@@ -6,6 +6,7 @@ package positioning;
 import java.awt.Point;
 import java.awt.geom.Ellipse2D;
 import java.util.ArrayList;
+import wifidatavisualizer.NewWifiDataListener.WifiDataType;
 
 /**
  * Class with static methods for manipulating wifi data using pattern matching
@@ -13,7 +14,7 @@ import java.util.ArrayList;
  *
  * @author James Licata
  */
-public class Trilateration
+public class Trilateration implements PositioningEngine
 {
    /**
     * Finds the center approximation given error elipses
@@ -77,61 +78,26 @@ public class Trilateration
 
    /**
     * Given a list of access point observations, determines a center point
-    * estimation
+    * estimation from every observed access point by least squares
+    * multilateration
     *
     * @param accessPointList the access point observation record list
     * @return a 2D point estimation
     */
    public static Point findCenterPoint(ArrayList<AccessPointObservationRecord> accessPointList)
    {
-      double top = 0;
-      double bot = 0;
-      for (int i = 0; i < 3; i++)
-      {
-         AccessPointObservationRecord c = accessPointList.get(i);
-         double c_radius = c.getDistancePixels();
-         double c2_radius = 0;
-         double c3_radius = 0;
-         AccessPointObservationRecord c2, c3;
-         if (i == 0)
-         {
-            c2 = accessPointList.get(1);
-            c3 = accessPointList.get(2);
-         }//if
-         else if (i == 1)
-         {
-            c2 = accessPointList.get(0);
-            c3 = accessPointList.get(2);
-         }//else if
-         else
-         {
-            c2 = accessPointList.get(0);
-            c3 = accessPointList.get(1);
-         }//else
+      return Multilateration.findCenterPoint(accessPointList);
+   }//findCenterPoint
 
-         c2_radius = c2.getDistancePixels();
-         c3_radius = c3.getDistancePixels();
-
-         double d = c2.getCoordinates().getX() - c3.getCoordinates().getX();
-
-         double v1 = (c.getCoordinates().getX() * c.getCoordinates().getX() + c.getCoordinates().getY() * c.getCoordinates().getY()) - (c_radius * c_radius);
-         top += d * v1;
-
-         double v2 = c.getCoordinates().getY() * d;
-         bot += v2;
-      }//for
-
-      double y = top / (2 * bot);
-      AccessPointObservationRecord c1 = accessPointList.get(0);
-      AccessPointObservationRecord c2 = accessPointList.get(1);
-      double c1_radius = c1.getDistancePixels();
-      double c2_radius = c2.getDistancePixels();
-      top = c2_radius * c2_radius + c1.getCoordinates().getX() * c1.getCoordinates().getX() + c1.getCoordinates().getY() * c1.getCoordinates().getY() - c1_radius * c1_radius - c2.getCoordinates().getX() * c2.getCoordinates().getX() - c2.getCoordinates().getY() * c2.getCoordinates().getY() - 2 * (c1.getCoordinates().getY() - c2.getCoordinates().getY()) * y;
-      bot = c1.getCoordinates().getX() - c2.getCoordinates().getX();
-      double x = top / (2 * bot);
+   @Override
+   public WifiDataType getDataType()
+   {
+      return WifiDataType.TRILATERATION;
+   }//getDataType
 
-      Point resultant_point = new Point(0, 0);
-      resultant_point.setLocation(x, y);
-      return resultant_point;
-   }//findCenter
+   @Override
+   public Point estimate(CandidateSet candidateSet, Point lastPointApproximation)
+   {
+      return findCenterPoint(candidateSet.getAccessPointList());
+   }//estimate
 }//Trilateration
@@ -6,9 +6,9 @@ package positioning;
 import database.SQLLiteConnection;
 import java.awt.Point;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
 import wifidatavisualizer.Constants;
+import wifidatavisualizer.NewWifiDataListener.WifiDataType;
 
 /**
  * Class with static methods for manipulating wifi data using Weighted Centroid
@@ -16,8 +16,18 @@ import wifidatavisualizer.Constants;
  *
  * @author James Licata
  */
-public class WeightedCentroid
+public class WeightedCentroid implements PositioningEngine
 {
+   //One dynamic weight table per thread, refilled every epoch
+   static ThreadLocal<RouterWeightTable> sDynamicWeights = new ThreadLocal<RouterWeightTable>()
+   {
+      @Override
+      protected RouterWeightTable initialValue()
+      {
+         return new RouterWeightTable();
+      }//initialValue
+   };
+
    /**
     * Returns a relative point coordinate for the fingerprinting algorithm
     * estimation
@@ -28,37 +38,65 @@ public class WeightedCentroid
     */
    public static Point weightedCentroid(ArrayList<AccessPointObservationRecord> accessPointList, SQLLiteConnection trainingDataBase, Point lastPointApproximation)
    {
-      Collection<CandidatePoint> collection = trainingDataBase.getLikeliestPoints(accessPointList).values();
-      ArrayList<CandidatePoint> candidate_point_list = new ArrayList<>(collection);
-      Collections.sort(candidate_point_list);
-      int highest_frequency = candidate_point_list.get(candidate_point_list.size() - 1).getFrequencyCount();
-      while (candidate_point_list.get(0).getFrequencyCount() < highest_frequency)
-      {
-         //Remove all of the lower frequencies
-         candidate_point_list.remove(0);
-      }//for
-
-      return getWeightedCentroidEstimation(candidate_point_list, lastPointApproximation);
+      return weightedCentroid(new CandidateSet(accessPointList, trainingDataBase), lastPointApproximation);
    }//fingerprint
 
+   /**
+    * Returns a relative point coordinate for the weighted centroid algorithm
+    * estimation from an epoch's shared candidate set
+    *
+    * @param candidateSet           the epoch's observations and candidate
+    *                               points
+    * @param lastPointApproximation the last point approximation from previous
+    *                               estimation
+    * @return the final point approximation
+    */
+   public static Point weightedCentroid(CandidateSet candidateSet, Point lastPointApproximation)
+   {
+      List<CandidatePoint> candidate_points = candidateSet.getCandidatePoints();
+      RouterWeightTable router_weights = getRouterWeights(candidateSet.getTrainingDataBase(), candidateSet.getAccessPointList());
+      return getWeightedCentroidEstimation(candidate_points, lastPointApproximation, router_weights);
+   }//weightedCentroid
+
+   /**
+    * Returns the router weights for the candidates' access point ordinals,
+    * the training data base's fixed table or this thread's table filled from
+    * the epoch's observations
+    *
+    * @param trainingDataBase the data base the candidates were generated from
+    * @param accessPointList  the epoch's access point observation records
+    * @return the router weight table, valid until this thread's next call
+    */
+   public static RouterWeightTable getRouterWeights(SQLLiteConnection trainingDataBase, List<AccessPointObservationRecord> accessPointList)
+   {
+      RouterWeightTable fixed_weights = trainingDataBase.getRouterWeights();
+      if (Constants.WEIGHTED_CENTROID_USE_DYNAMIC_WEIGHTS)
+      {
+         RouterWeightTable dynamic_weights = sDynamicWeights.get();
+         dynamic_weights.setDynamicWeights(fixed_weights.getNumberOfAccessPoints(), accessPointList);
+         return dynamic_weights;
+      }//if
+      return fixed_weights;
+   }//getRouterWeights
+
    /**
     * Returns the weighted coordinate X value given the input point and it's
     * relative weight
     *
-    * @param inputPoint the candidate point to derive the weighted X coordinate
-    *                   from
+    * @param inputPoint    the candidate point to derive the weighted X
+    *                      coordinate from
+    * @param routerWeights the router weights by access point ordinal
     * @return
     */
-   public static double getWeightedCoordinateXValue(CandidatePoint inputPoint)
+   public static double getWeightedCoordinateXValue(CandidatePoint inputPoint, RouterWeightTable routerWeights)
    {
       double centroid_x_value = 0;
 
-      for (int i = 0; i < inputPoint.getNumberOfRouters(); ++i)
+      for (int ap = 0; ap < inputPoint.getNumberOfAccessPoints(); ++ap)
       {
-         String ssid = inputPoint.getRouterSSIDAtIndex(i);
-         if (ssid != null)
+         if (inputPoint.hasSignalLevelDiff(ap))
          {
-            centroid_x_value += Constants.getRouterWeightMap().get(ssid) * inputPoint.getCoordinates().getX();
+            centroid_x_value += routerWeights.getWeight(ap) * inputPoint.getCoordinates().getX();
          }//if
       }
       return centroid_x_value;
@@ -68,19 +106,19 @@ public class WeightedCentroid
     * Returns the weighted coordinate Y value given the input point and it's
     * relative weight
     *
-    * @param inputPoint the candidate point to derive the weighted Y coordinate
-    *                   from
+    * @param inputPoint    the candidate point to derive the weighted Y
+    *                      coordinate from
+    * @param routerWeights the router weights by access point ordinal
     * @return
     */
-   public static double getWeightedCoordinateYValue(CandidatePoint inputPoint)
+   public static double getWeightedCoordinateYValue(CandidatePoint inputPoint, RouterWeightTable routerWeights)
    {
       double centroid_y_value = 0;
-      for (int i = 0; i < inputPoint.getNumberOfRouters(); ++i)
+      for (int ap = 0; ap < inputPoint.getNumberOfAccessPoints(); ++ap)
       {
-         String ssid = inputPoint.getRouterSSIDAtIndex(i);
-         if (ssid != null)
+         if (inputPoint.hasSignalLevelDiff(ap))
          {
-            centroid_y_value += Constants.getRouterWeightMap().get(ssid) * inputPoint.getCoordinates().getY();
+            centroid_y_value += routerWeights.getWeight(ap) * inputPoint.getCoordinates().getY();
          }//if
       }
       return centroid_y_value;
@@ -96,38 +134,9 @@ public class WeightedCentroid
     *                               final decider when
     * @return the final point approximation
     */
-   public static CandidatePoint chooseBestPoint(ArrayList<CandidatePoint> candidatePointList, Point lastPointApproximation)
+   public static CandidatePoint chooseBestPoint(List<CandidatePoint> candidatePointList, Point lastPointApproximation)
    {
-      int best_point_index = 0;
-      double average_signal_difference = candidatePointList.get(0).getAverageSignalDiff();
-      int index_counter = 0;
-      for (CandidatePoint f_point : candidatePointList)
-      {
-         if (f_point.getAverageSignalDiff() < average_signal_difference)
-         {
-            best_point_index = index_counter;
-            //Update the average signal difference to get the closest match
-            average_signal_difference = f_point.getAverageSignalDiff();
-         }//if
-         else if (f_point.getAverageSignalDiff() == average_signal_difference)
-         {
-            double new_point_distance = lastPointApproximation.distance(f_point.getCoordinates());
-            double old_point_distance = lastPointApproximation.distance(candidatePointList.get(best_point_index).getCoordinates());
-            if (new_point_distance < old_point_distance)
-            {
-               best_point_index = index_counter;
-               //Update the average signal difference to get the closest match
-               average_signal_difference = f_point.getAverageSignalDiff();
-            }//if
-         }//else if
-         else
-         {
-            //Do nothing
-         }//else
-         //Increment the counter
-         ++index_counter;
-      }//for
-      return candidatePointList.get(best_point_index);
+      return new CandidateScoring(candidatePointList, lastPointApproximation, 0).getBestCandidate();
    }//chooseBestPoint
 
    /**
@@ -138,9 +147,10 @@ public class WeightedCentroid
     *                               from
     * @param lastPointApproximation the last point approximation to use as a
     *                               final decider when
+    * @param routerWeights          the router weights by access point ordinal
     * @return the final point approximation
     */
-   public static Point getWeightedCentroidEstimation(ArrayList<CandidatePoint> candidatePointList, Point lastPointApproximation)
+   public static Point getWeightedCentroidEstimation(List<CandidatePoint> candidatePointList, Point lastPointApproximation, RouterWeightTable routerWeights)
    {
       ArrayList<CandidatePoint> point_list = new ArrayList<>(Constants.FINGERPRINTING_K_NEAREST_NEIGHBORS);
       CandidatePoint best_training_point = chooseBestPoint(candidatePointList, lastPointApproximation);
@@ -151,13 +161,14 @@ public class WeightedCentroid
          candidatePointList.remove(best_point_index);
       }//while
        */
-      Point centroid_point = getWeightedCentroid(best_training_point);
+      Point centroid_point = getWeightedCentroid(best_training_point, routerWeights);
 
       double distance_from_centroid = lastPointApproximation.distance(centroid_point);
       double distance_from_best_point = lastPointApproximation.distance(best_training_point.getCoordinates());
       if (distance_from_centroid - distance_from_best_point > Constants.FINGERPRINTING_K_NEAREST_NEIGHBORS_DISTANCE_TOLERANCE)
       {
-         return best_training_point.getCoordinates();
+         //Hand out a copy, candidate points may be shared through the candidate cache
+         return new Point(best_training_point.getCoordinates());
       }//if
       else
       {
@@ -165,39 +176,16 @@ public class WeightedCentroid
       }//else
    }//chooseBestPoint
 
-   /**
-    * Returns the index for the best candidate point
-    *
-    * @param candidatePointList
-    * @return
-    */
-   public static int getBestPointIndex(ArrayList<CandidatePoint> candidatePointList)
-   {
-      int best_point_index = 0;
-      double average_signal_difference = candidatePointList.get(0).getAverageSignalDiff();
-      int index_counter = 0;
-      for (CandidatePoint candidate_point : candidatePointList)
-      {
-         if (candidate_point.getAverageSignalDiff() < average_signal_difference)
-         {
-            best_point_index = index_counter;
-            //Update the average signal difference to get the closest match
-            average_signal_difference = candidate_point.getAverageSignalDiff();
-         }//if
-         ++index_counter;
-      }//for
-      return best_point_index;
-   }//getBestPointIndex
-
    /**
     *
     * @param dataPoint
+    * @param routerWeights
     * @return
     */
-   public static Point getWeightedCentroid(CandidatePoint dataPoint)
+   public static Point getWeightedCentroid(CandidatePoint dataPoint, RouterWeightTable routerWeights)
    {
-      double centroid_x = getWeightedCoordinateXValue(dataPoint);
-      double centroid_y = getWeightedCoordinateYValue(dataPoint);
+      double centroid_x = getWeightedCoordinateXValue(dataPoint, routerWeights);
+      double centroid_y = getWeightedCoordinateYValue(dataPoint, routerWeights);
 
       centroid_x /= dataPoint.getNumberOfRouters();
       centroid_y /= dataPoint.getNumberOfRouters();
@@ -206,4 +194,16 @@ public class WeightedCentroid
       weighted_centroid_point.setLocation(centroid_x, centroid_y);
       return weighted_centroid_point;
    }//getCentroid
+
+   @Override
+   public WifiDataType getDataType()
+   {
+      return WifiDataType.WEIGHTED_CENTROID;
+   }//getDataType
+
+   @Override
+   public Point estimate(CandidateSet candidateSet, Point lastPointApproximation)
+   {
+      return weightedCentroid(candidateSet, lastPointApproximation);
+   }//estimate
 }//Fingerprinting
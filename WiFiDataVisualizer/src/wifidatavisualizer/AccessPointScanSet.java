@@ -0,0 +1,161 @@
+/*
+ * The RSS samples of every access point seen in a capture session
+ */
+package wifidatavisualizer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+
+/**
+ * The scan samples of any number of access points, indexed by an access
+ * point ordinal. Ordinals follow SSID order, so the same scan files always
+ * give the same ordinals.
+ *
+ * Sources that are memory-mapped scan files are closed with the set.
+ *
+ * @author James Licata
+ */
+public class AccessPointScanSet implements Closeable
+{
+   String[] mSSIDs;
+   RssSampleSource[] mSamples;
+   HashMap<String, Integer> mOrdinalMap = new HashMap<>();
+
+   /**
+    * Main constructor
+    *
+    * @param ssids   the access point SSIDs, in ordinal order
+    * @param samples each access point's samples, in ordinal order
+    */
+   public AccessPointScanSet(String[] ssids, RssSampleSource[] samples)
+   {
+      mSSIDs = ssids;
+      mSamples = samples;
+      for (int i = 0; i < ssids.length; ++i)
+      {
+         mOrdinalMap.put(ssids[i], i);
+      }//for
+   }//AccessPointScanSet
+
+   public int getNumberOfAccessPoints()
+   {
+      return mSSIDs.length;
+   }//getNumberOfAccessPoints
+
+   public String getSSID(int accessPointOrdinal)
+   {
+      return mSSIDs[accessPointOrdinal];
+   }//getSSID
+
+   public RssSampleSource getSamples(int accessPointOrdinal)
+   {
+      return mSamples[accessPointOrdinal];
+   }//getSamples
+
+   /**
+    * Returns the ordinal of an access point
+    *
+    * @param ssid the access point SSID
+    * @return the ordinal, or -1 if the access point was not scanned
+    */
+   public int getOrdinal(String ssid)
+   {
+      Integer ordinal = mOrdinalMap.get(ssid);
+      return (ordinal != null) ? ordinal : -1;
+   }//getOrdinal
+
+   /**
+    * @return true if no access point has any samples
+    */
+   public boolean isEmpty()
+   {
+      for (RssSampleSource samples : mSamples)
+      {
+         if (samples.isEmpty() == false)
+         {
+            return false;
+         }//if
+      }//for
+      return true;
+   }//isEmpty
+
+   /**
+    * Returns the earliest timestamp of any access point
+    *
+    * @return the timestamp in milliseconds, Integer.MAX_VALUE if the set is
+    *         empty
+    */
+   public int getFirstTimestamp()
+   {
+      int first_timestamp = Integer.MAX_VALUE;
+      for (RssSampleSource samples : mSamples)
+      {
+         if (samples.isEmpty() == false)
+         {
+            first_timestamp = Math.min(first_timestamp, samples.getFirstTimestamp());
+         }//if
+      }//for
+      return first_timestamp;
+   }//getFirstTimestamp
+
+   /**
+    * Returns the latest timestamp of any access point
+    *
+    * @return the timestamp in milliseconds, Integer.MIN_VALUE if the set is
+    *         empty
+    */
+   public int getLastTimestamp()
+   {
+      int last_timestamp = Integer.MIN_VALUE;
+      for (RssSampleSource samples : mSamples)
+      {
+         if (samples.isEmpty() == false)
+         {
+            last_timestamp = Math.max(last_timestamp, samples.getLastTimestamp());
+         }//if
+      }//for
+      return last_timestamp;
+   }//getLastTimestamp
+
+   /**
+    * Closes the memory-mapped scan files of the set
+    */
+   @Override
+   public void close() throws IOException
+   {
+      closeSources(mSamples);
+   }//close
+
+   /**
+    * Closes every source that is a memory-mapped scan file, skipping nulls
+    *
+    * @param sources the sample sources
+    * @throws IOException if a file can't be closed
+    */
+   static void closeSources(RssSampleSource[] sources) throws IOException
+   {
+      IOException first_exception = null;
+      for (RssSampleSource samples : sources)
+      {
+         if (samples instanceof Closeable)
+         {
+            try
+            {
+               ((Closeable) samples).close();
+            }//try
+            catch (IOException ex)
+            {
+               if (first_exception == null)
+               {
+                  first_exception = ex;
+               }//if
+            }//catch
+         }//if
+      }//for
+      if (first_exception != null)
+      {
+         throw first_exception;
+      }//if
+   }//closeSources
+}//AccessPointScanSet
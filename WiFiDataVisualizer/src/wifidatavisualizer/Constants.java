@@ -18,13 +18,16 @@ public class Constants
    final public static String ROUTER_PREFIX_SSID = "CiscoLinksysE120";
    final public static String DEFAULT_DATA_PATH = "data/02012015-5sec/";
    final public static String DEFAULT_DATA_FILE_EXTENSION = ".csv";
-   final public static int DEFAULT_NUMBER_OF_ROUTERS = 4;
    final public static int DEFAULT_PIXEL_ADJUSTMENT = 25;
    final public static int DEFAULT_CALIBRATION_START_POINT_X_COORDINATE = 1081;
    final public static int DEFAULT_CALIBRATION_START_POINT_Y_COORDINATE = 518;
 
    final public static int DEFAULT_WIFI_DATA_COLLECTION_INTERVAL_MILLISECONDS = 5000;
 
+   //Size of the default map image, estimates are kept inside it
+   final public static int DEFAULT_MAP_WIDTH_PIXELS = 1392;
+   final public static int DEFAULT_MAP_HEIGHT_PIXELS = 872;
+
    //Map conversions
    final public static double PIXELS_PER_FOOT = 5.7;
    final public static double FEET_PER_METER = 0.3048;
@@ -33,13 +36,49 @@ public class Constants
    //CSV Data File Constants
    final public static String CSV_FILE_RECORD_TIMESTAMP_COLUMN = "Timestamp";
    final public static String CSV_FILE_RECORD_RSS_COLUMN = "RSS";
+   final public static String CSV_FILE_RECORD_SSID_COLUMN = "SSID";
+   //Scan files at least this large are memory-mapped and read a time window at a time
+   final public static long SCAN_FILE_MEMORY_MAP_THRESHOLD_BYTES = 64L << 20;
+   final public static int SCAN_FILE_WINDOW_MILLISECONDS = 10 * 60 * 1000;
+
+   //RSS aggregation, an access point is observed in an epoch when its window holds any samples
+   final public static RssWindowAggregator.Mode RSS_AGGREGATION_MODE = RssWindowAggregator.Mode.MEDIAN;
+   final public static int RSS_AGGREGATION_WINDOW_MILLISECONDS = 1000;
+   final public static double RSS_AGGREGATION_EMA_ALPHA = 0.5;
 
    //Fingerprinting
    final public static int FINGERPRINTING_K_NEAREST_NEIGHBORS = 4;
    final public static int FINGERPRINTING_K_NEAREST_NEIGHBORS_DISTANCE_TOLERANCE = 90;
+   //Weighted KNN over the whole radio map instead of the RSS window candidates
+   final public static boolean FINGERPRINTING_USE_SIGNAL_SPACE_KNN = false;
+   final public static int FINGERPRINTING_SIGNAL_SPACE_K_NEAREST_NEIGHBORS = 4;
+
+   //Candidate generation
+   final public static int DEFAULT_CANDIDATE_CACHE_CAPACITY = 256;
+   //Prepared statements kept open when the radio map is queried from the database every epoch
+   final public static int DEFAULT_PREPARED_STATEMENT_CACHE_CAPACITY = 64;
+
+   //Range access points with path loss models calibrated to the radio map instead of free space,
+   //off by default so ranging keeps the 2437 MHz free space model
+   final public static boolean PATH_LOSS_USE_CALIBRATION = false;
+
+   //Multilateration, 0 keeps the linear least squares solution
+   final public static int MULTILATERATION_GAUSS_NEWTON_ITERATIONS = 0;
+
+   //Particle filter tracking
+   final public static int PARTICLE_FILTER_NUMBER_OF_PARTICLES = 2000;
+   final public static double PARTICLE_FILTER_MOTION_SIGMA_PIXELS = 2.0;
+   final public static double PARTICLE_FILTER_MEASUREMENT_SIGMA_PIXELS = 80.0;
+
+   //Kalman track smoothing
+   final public static String DEFAULT_DEVICE_ID = "default";
+   final public static double KALMAN_PROCESS_SIGMA_PIXELS = 2.0;
+   final public static double KALMAN_MEASUREMENT_SIGMA_PIXELS = 80.0;
 
    //Weighted Centroid
    final public static int WEIGHTED_CENTROID_NUMBER_OF_POINTS = 4;
+   //Weight routers by their observed path loss range instead of the fixed router weights
+   final public static boolean WEIGHTED_CENTROID_USE_DYNAMIC_WEIGHTS = false;
 
    //Training Data Points
    final public static int DEFAULT_TRAINING_DATA_POINT_SIZE = 16;
@@ -72,7 +111,15 @@ public class Constants
    final public static int DEFAULT_CALIBRATION_POINT_CIRCLE_SIZE = 16;
    final public static int DEFAULT_CALIBRATION_POINT_CIRCLE_OFFSET = 8;
 
+   //Fixed router weights by SSID, built once
+   private final static Map<String, Double> ROUTER_WEIGHT_MAP = createRouterWeightMap();
+
    public static Map<String, Double> getRouterWeightMap()
+   {
+      return ROUTER_WEIGHT_MAP;
+   }//getRouterWeightMap
+
+   private static Map<String, Double> createRouterWeightMap()
    {
       Map<String, Double> result = new HashMap<>();
       result.put(ROUTER_PREFIX_SSID + "0", 0.85);
@@ -80,5 +127,5 @@ public class Constants
       result.put(ROUTER_PREFIX_SSID + "2", 0.80);
       result.put(ROUTER_PREFIX_SSID + "3", 0.95);
       return Collections.unmodifiableMap(result);
-   }//getRouterWeightMap
+   }//createRouterWeightMap
 }//Constants
@@ -0,0 +1,214 @@
+/*
+ * Aligns the RSS samples of every access point to fixed interval epochs
+ */
+package wifidatavisualizer;
+
+import java.io.IOException;
+
+/**
+ * Walks the epochs of a capture session, one every interval from the
+ * earliest sample to the latest, and tells for each access point which of
+ * its samples fall in the window around the epoch, from half a window
+ * before the epoch up to but excluding half a window after it, and their
+ * aggregated RSS.
+ *
+ * Every access point keeps a window start and end cursor into its time
+ * ordered samples. Epochs only move forward, so the cursors do too and the
+ * whole session is a single linear merge over all series, O(total samples
+ * plus epochs times access points) with no searching. A sample passed by
+ * the end cursor enters the access point's RssWindowAggregator and leaves
+ * it when passed by the start cursor. The cursors and aggregators are the
+ * epoch's observation buffer, advancing an epoch allocates nothing once the
+ * aggregators' ring buffers have grown to the widest window.
+ *
+ * Memory-mapped sources are read SCAN_FILE_WINDOW_MILLISECONDS at a time.
+ * A source already in memory hands out itself as every window, and its
+ * cursors carry straight on from one load to the next. A mapped source's
+ * aggregator is refilled from the new window, so an EMA starts over.
+ *
+ * @author James Licata
+ */
+public class EpochAligner
+{
+   AccessPointScanSet mScanSet;
+   int mIntervalMilliseconds;
+
+   //Window of an epoch, from mWindowLeadMilliseconds before it to mWindowTrailMilliseconds after it
+   int mWindowLeadMilliseconds;
+   int mWindowTrailMilliseconds;
+
+   //Current epoch, and the epoch after the last one
+   long mTimestamp;
+   long mEndTimestamp;
+   boolean mStarted = false;
+
+   //Samples loaded for each access point, covering every epoch before mLoadedEndTimestamp
+   RssTimeSeries[] mSeries;
+   long mLoadedEndTimestamp = Long.MIN_VALUE;
+
+   //Each access point's epoch window, [mWindowStart, mWindowEnd) of its series
+   int[] mWindowStart;
+   int[] mWindowEnd;
+
+   //Aggregate of each access point's window samples
+   RssWindowAggregator[] mAggregators;
+
+   /**
+    * Main constructor
+    *
+    * @param scanSet              the session's access points
+    * @param intervalMilliseconds the time between epochs
+    * @param windowMilliseconds   the width of an epoch's window
+    * @param aggregationMode      how the RSS samples in a window are
+    *                             aggregated
+    */
+   public EpochAligner(AccessPointScanSet scanSet, int intervalMilliseconds, int windowMilliseconds, RssWindowAggregator.Mode aggregationMode)
+   {
+      if (intervalMilliseconds <= 0)
+      {
+         throw new IllegalArgumentException("Epoch interval must be positive: " + intervalMilliseconds);
+      }//if
+      if (windowMilliseconds <= 0)
+      {
+         throw new IllegalArgumentException("Epoch window must be positive: " + windowMilliseconds);
+      }//if
+      mScanSet = scanSet;
+      mIntervalMilliseconds = intervalMilliseconds;
+      mWindowLeadMilliseconds = windowMilliseconds / 2;
+      mWindowTrailMilliseconds = windowMilliseconds - mWindowLeadMilliseconds;
+      int number_of_access_points = scanSet.getNumberOfAccessPoints();
+      mSeries = new RssTimeSeries[number_of_access_points];
+      mWindowStart = new int[number_of_access_points];
+      mWindowEnd = new int[number_of_access_points];
+      mAggregators = new RssWindowAggregator[number_of_access_points];
+      for (int ap = 0; ap < number_of_access_points; ++ap)
+      {
+         mAggregators[ap] = new RssWindowAggregator(aggregationMode, Constants.RSS_AGGREGATION_EMA_ALPHA);
+      }//for
+      mTimestamp = scanSet.getFirstTimestamp();
+      mEndTimestamp = scanSet.isEmpty() ? mTimestamp : (long) scanSet.getLastTimestamp() + mWindowLeadMilliseconds;
+   }//EpochAligner
+
+   /**
+    * Moves to the next epoch, the first one on the first call
+    *
+    * @return false once every epoch has been visited
+    * @throws IOException if a memory-mapped scan file can't be read
+    */
+   public boolean nextEpoch() throws IOException
+   {
+      if (mStarted)
+      {
+         mTimestamp += mIntervalMilliseconds;
+      }//if
+      mStarted = true;
+      if (mTimestamp >= mEndTimestamp)
+      {
+         return false;
+      }//if
+      if (mTimestamp >= mLoadedEndTimestamp)
+      {
+         loadWindow();
+      }//if
+      long window_from = mTimestamp - mWindowLeadMilliseconds;
+      long window_to = mTimestamp + mWindowTrailMilliseconds;
+      for (int ap = 0; ap < mSeries.length; ++ap)
+      {
+         RssTimeSeries series = mSeries[ap];
+         RssWindowAggregator aggregator = mAggregators[ap];
+         int start = mWindowStart[ap];
+         int end = mWindowEnd[ap];
+
+         //Samples enter before older ones leave, so each sample passes through the aggregator exactly once
+         while (end < series.mSize && series.mTimestamps[end] < window_to)
+         {
+            aggregator.add(series.mRSS[end]);
+            ++end;
+         }//while
+         while (start < end && series.mTimestamps[start] < window_from)
+         {
+            aggregator.removeOldest();
+            ++start;
+         }//while
+         mWindowStart[ap] = start;
+         mWindowEnd[ap] = end;
+      }//for
+      return true;
+   }//nextEpoch
+
+   /**
+    * Loads the samples of every epoch from the current one up to
+    * SCAN_FILE_WINDOW_MILLISECONDS later
+    */
+   private void loadWindow() throws IOException
+   {
+      mLoadedEndTimestamp = mTimestamp + Constants.SCAN_FILE_WINDOW_MILLISECONDS;
+      int from_timestamp = clampToInt(mTimestamp - mWindowLeadMilliseconds);
+      int to_timestamp = clampToInt(mLoadedEndTimestamp + mWindowTrailMilliseconds);
+      for (int ap = 0; ap < mSeries.length; ++ap)
+      {
+         RssTimeSeries series = mScanSet.getSamples(ap).getWindow(from_timestamp, to_timestamp);
+         if (series != mSeries[ap])
+         {
+            mSeries[ap] = series;
+            mWindowStart[ap] = series.lowerBound(from_timestamp);
+            mWindowEnd[ap] = mWindowStart[ap];
+            mAggregators[ap].clear();
+         }//if
+      }//for
+   }//loadWindow
+
+   private static int clampToInt(long value)
+   {
+      return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+   }//clampToInt
+
+   /**
+    * @return the current epoch timestamp in milliseconds
+    */
+   public int getTimestamp()
+   {
+      return (int) mTimestamp;
+   }//getTimestamp
+
+   public AccessPointScanSet getScanSet()
+   {
+      return mScanSet;
+   }//getScanSet
+
+   /**
+    * Returns how many samples of an access point fall in the current epoch's
+    * window
+    *
+    * @param accessPointOrdinal the access point
+    * @return the number of samples
+    */
+   public int getNumberOfSamples(int accessPointOrdinal)
+   {
+      return mWindowEnd[accessPointOrdinal] - mWindowStart[accessPointOrdinal];
+   }//getNumberOfSamples
+
+   /**
+    * Returns the RSS of one sample in the current epoch's window
+    *
+    * @param accessPointOrdinal the access point
+    * @param sample             the sample, 0 for the earliest in the window
+    * @return the RSS in dBm
+    */
+   public int getRSS(int accessPointOrdinal, int sample)
+   {
+      return mSeries[accessPointOrdinal].getRSS(mWindowStart[accessPointOrdinal] + sample);
+   }//getRSS
+
+   /**
+    * Returns the aggregated RSS of an access point's samples in the current
+    * epoch's window
+    *
+    * @param accessPointOrdinal the access point
+    * @return the RSS in dBm, 0 if the window holds no samples
+    */
+   public int getAggregatedRSS(int accessPointOrdinal)
+   {
+      return mAggregators[accessPointOrdinal].getValue();
+   }//getAggregatedRSS
+}//EpochAligner
@@ -7,21 +7,26 @@ import java.awt.AWTEvent;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.Point;
+import java.awt.RenderingHints;
 import java.awt.event.MouseEvent;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
-import java.io.File;
+import java.awt.image.BufferedImage;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.net.URL;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.imageio.ImageIO;
 import javax.swing.JComponent;
 import javax.swing.JFrame;
@@ -44,6 +49,7 @@ public class MapDisplayPanel
 {
    private final Map<NewWifiDataListener.WifiDataType, ArrayList<Point>> mMapPointsOfInterestList;
    private final ArrayList<Point> mRouterPointList;
+   private final ArrayList<String> mRouterSSIDList;
    private final ArrayList<Image> mRouterImageList;
    /**
     * List of rectangles that represent the bounded area around routers
@@ -81,32 +87,85 @@ public class MapDisplayPanel
     *
     * @param trainingDataPointList list of training data points used as
     *                              references for position estimation
-    * @param routerPointList       list of coordinates for the routers (access
-    *                              points) used to collect data
-    * @param routerResourcePath    the path to router image files
+    * @param routerLocations       map of router (access point) SSID to
+    *                              coordinates for the routers used to collect
+    *                              data
     */
-   public MapDisplayPanel(ArrayList<Point> trainingDataPointList, ArrayList<Point> routerPointList, ArrayList<String> routerResourcePath)
+   public MapDisplayPanel(ArrayList<Point> trainingDataPointList, Map<String, Point> routerLocations)
    {
       mMapPointsOfInterestList = new WeakHashMap<>();
+      mRouterPointList = new ArrayList<>();
+      mRouterSSIDList = new ArrayList<>();
       mRouterImageList = new ArrayList<>();
       mRecordedTruthPathPointList = new ArrayList<>();
       mTrainingDataPointList = trainingDataPointList;
-      mRouterPointList = routerPointList;
       mTruthPathDataPointList = new ArrayList<>();
       mRouterImageBoundedRectangleList = new ArrayList<>();
+      setRouters(routerLocations);
+      //this.addMouseMotionListener(this);
+   }//MapDisplayPanel
 
-      try
+   /**
+    * Replaces the routers drawn on the map, one per located access point
+    *
+    * @param routerLocations map of router (access point) SSID to coordinates
+    */
+   public final void setRouters(Map<String, Point> routerLocations)
+   {
+      mRouterPointList.clear();
+      mRouterSSIDList.clear();
+      mRouterImageList.clear();
+      mRouterImageBoundedRectangleList.clear();
+      for (Map.Entry<String, Point> router : routerLocations.entrySet())
       {
-         for (String router_resource : routerResourcePath)
-         {
-            mRouterImageList.add(ImageIO.read(new File(router_resource)));
-         }//for
-      }//try
-      catch (IOException e)
+         mRouterSSIDList.add(router.getKey());
+         mRouterPointList.add(router.getValue());
+         mRouterImageList.add(loadRouterImage(router.getKey()));
+      }//for
+   }//setRouters
+
+   /**
+    * Loads the icon for a router. The known routers have their own image,
+    * any other access point is drawn as a badge with the end of its SSID.
+    *
+    * @param ssid the router SSID
+    * @return the router icon
+    */
+   private Image loadRouterImage(String ssid)
+   {
+      if (ssid.startsWith(Constants.ROUTER_PREFIX_SSID))
       {
-      }//catch
-      //this.addMouseMotionListener(this);
-   }//MapDisplayPanel
+         URL router_resource = getClass().getResource("/resources/router120"
+                                                      + ssid.substring(Constants.ROUTER_PREFIX_SSID.length()) + ".PNG");
+         if (router_resource != null)
+         {
+            try
+            {
+               return ImageIO.read(router_resource);
+            }//try
+            catch (IOException ex)
+            {
+               Logger.getLogger(MapDisplayPanel.class.getName()).log(Level.SEVERE, null, ex);
+            }//catch
+         }//if
+      }//if
+      BufferedImage router_image = new BufferedImage(Constants.DEFAULT_ROUTER_POINT_WIDTH,
+                                                     Constants.DEFAULT_ROUTER_POINT_HEIGHT,
+                                                     BufferedImage.TYPE_INT_ARGB);
+      Graphics2D graphics = router_image.createGraphics();
+      graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      graphics.setColor(Color.DARK_GRAY);
+      graphics.fillRoundRect(0, 0, Constants.DEFAULT_ROUTER_POINT_WIDTH - 1, Constants.DEFAULT_ROUTER_POINT_HEIGHT - 1, 8, 8);
+      graphics.setColor(Color.WHITE);
+      graphics.setFont(new Font("Arial", Font.BOLD, 12));
+      String label = ssid.substring(Math.max(0, ssid.length() - 4));
+      FontMetrics metrics = graphics.getFontMetrics();
+      graphics.drawString(label,
+                          (Constants.DEFAULT_ROUTER_POINT_WIDTH - metrics.stringWidth(label)) / 2,
+                          (Constants.DEFAULT_ROUTER_POINT_HEIGHT - metrics.getHeight()) / 2 + metrics.getAscent());
+      graphics.dispose();
+      return router_image;
+   }//loadRouterImage
 
    /**
     * Creates the glass layer and the event mask for mouse events
@@ -136,6 +195,8 @@ public class MapDisplayPanel
       this.mMapPointsOfInterestList.clear();
       this.mRouterImageBoundedRectangleList.clear();
       this.mRouterPointList.clear();
+      this.mRouterSSIDList.clear();
+      this.mRouterImageList.clear();
    }//uninstallUI
 
    /**
@@ -252,7 +313,7 @@ public class MapDisplayPanel
          {
             if (this.mRouterImageBoundedRectangleList.get(i).contains(test_point))
             {
-               JOptionPane.showMessageDialog(null, "Router: " + Constants.ROUTER_PREFIX_SSID + i + " X,Y: ("
+               JOptionPane.showMessageDialog(null, "Router: " + mRouterSSIDList.get(i) + " X,Y: ("
                                              + mRouterPointList.get(i).x + "," + mRouterPointList.get(i).y + ")");
             }//if
          }//for
@@ -341,6 +402,10 @@ public class MapDisplayPanel
                graphics_2d_utility.setColor(Color.RED);
                points_to_draw = this.mMapPointsOfInterestList.get(type);
                break;
+            case BAYESIAN:
+               graphics_2d_utility.setColor(Color.CYAN);
+               points_to_draw = this.mMapPointsOfInterestList.get(type);
+               break;
             default:
                graphics_2d_utility.setColor(Color.BLACK);
                points_to_draw = this.mMapPointsOfInterestList.get(type);
@@ -562,6 +627,9 @@ public class MapDisplayPanel
          case PATTERN_MATCHING:
             points_to_draw = this.mMapPointsOfInterestList.get(dataType);
             break;
+         case BAYESIAN:
+            points_to_draw = this.mMapPointsOfInterestList.get(dataType);
+            break;
          default:
             points_to_draw = this.mMapPointsOfInterestList.get(dataType);
             break;
@@ -0,0 +1,497 @@
+/*
+ * Memory-mapped access to large scan CSV files by time window
+ */
+package wifidatavisualizer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+/**
+ * Reads a scan CSV file through memory mappings, a time window at a time,
+ * so a capture of any length opens without reading it and only the window
+ * in use is held on the heap. The file is mapped lazily in fixed size
+ * regions, which also lifts the 2 GB limit of a single mapping.
+ *
+ * Seeking uses a sparse timestamp index with one slot per INDEX_STRIDE bytes
+ * of data. A slot holds the first row starting in its stride and is filled
+ * the first time a binary search probes it, so finding a window costs
+ * O(log n) row reads and repeated seeks get cheaper. Seeking relies on the
+ * rows being in time order, as the Android application writes them.
+ *
+ * Windows are parsed by a ScanFileReader fed with mapped blocks. A file
+ * holding several access points is split by its SSID column: readSSIDs finds
+ * them with one keys-only pass, and getAccessPoint hands out a source per
+ * access point. Those sources share the file and the last window parsed, so
+ * reading one window of every access point parses the rows once. A
+ * MappedScanFile and its access point sources are not thread safe, open one
+ * file per thread.
+ *
+ * @author James Licata
+ */
+public class MappedScanFile implements RssSampleSource, Closeable
+{
+   //Size of each lazily mapped region of the file
+   final static int MAPPING_SHIFT = 28;
+   final static long MAPPING_SIZE = 1L << MAPPING_SHIFT;
+
+   //Bytes of data per sparse index slot, 16 bytes of index per stride
+   final static int INDEX_STRIDE = 1 << 14;
+
+   //Longest header line read
+   final static int MAX_HEADER_LENGTH = 4096;
+
+   //Index slot timestamp of a slot not probed yet
+   final static long UNLOADED = Long.MIN_VALUE;
+
+   FileChannel mChannel;
+   long mFileSize;
+   MappedByteBuffer[] mMappings;
+
+   //Offset of the first data row, just past the header
+   long mDataStart;
+   int mRSSColumn;
+   int mTimestampColumn;
+
+   //SSID column, -1 if the file has none
+   int mSSIDColumn;
+
+   //Sparse index, row start offset and timestamp of each slot's first row
+   long[] mIndexRowStarts;
+   long[] mIndexTimestamps;
+
+   //Timestamps of the first and last row, Long.MAX_VALUE when there are no rows
+   long mFirstTimestamp;
+   long mLastTimestamp;
+
+   ScanFileReader mScanFileReader = new ScanFileReader();
+
+   //Access point sources still open, the file is closed with the last one
+   int mNumberOfOpenAccessPoints;
+
+   //Last window split by SSID, shared by the access point sources
+   int mGroupsFromTimestamp;
+   int mGroupsToTimestamp;
+   LinkedHashMap<String, RssTimeSeries> mGroups;
+
+   /**
+    * The samples of one access point of a file holding several. Its first and
+    * last timestamps are the file's.
+    */
+   class AccessPointSamples implements RssSampleSource, Closeable
+   {
+      String mSSID;
+      boolean mClosed;
+
+      AccessPointSamples(String ssid)
+      {
+         mSSID = ssid;
+      }//AccessPointSamples
+
+      @Override
+      public boolean isEmpty()
+      {
+         return MappedScanFile.this.isEmpty();
+      }//isEmpty
+
+      @Override
+      public int getFirstTimestamp()
+      {
+         return MappedScanFile.this.getFirstTimestamp();
+      }//getFirstTimestamp
+
+      @Override
+      public int getLastTimestamp()
+      {
+         return MappedScanFile.this.getLastTimestamp();
+      }//getLastTimestamp
+
+      @Override
+      public RssTimeSeries getWindow(int fromTimestamp, int toTimestamp) throws IOException
+      {
+         return getAccessPointWindow(mSSID, fromTimestamp, toTimestamp);
+      }//getWindow
+
+      @Override
+      public void close() throws IOException
+      {
+         if (mClosed == false)
+         {
+            mClosed = true;
+            --mNumberOfOpenAccessPoints;
+            if (mNumberOfOpenAccessPoints == 0)
+            {
+               MappedScanFile.this.close();
+            }//if
+         }//if
+      }//close
+   }//AccessPointSamples
+
+   /**
+    * Opens a scan file, reading only its header, first row and last row
+    *
+    * @param scanFile the scan CSV file
+    * @throws IOException if the file can't be mapped or has no RSS and
+    *                     Timestamp columns
+    */
+   public MappedScanFile(File scanFile) throws IOException
+   {
+      mChannel = FileChannel.open(scanFile.toPath(), StandardOpenOption.READ);
+      try
+      {
+         mFileSize = mChannel.size();
+         mMappings = new MappedByteBuffer[(int) ((mFileSize + MAPPING_SIZE - 1) >>> MAPPING_SHIFT)];
+         readHeader();
+         int number_of_slots = (int) ((mFileSize - mDataStart + INDEX_STRIDE - 1) / INDEX_STRIDE) + 1;
+         mIndexRowStarts = new long[number_of_slots];
+         mIndexTimestamps = new long[number_of_slots];
+         Arrays.fill(mIndexTimestamps, UNLOADED);
+         mFirstTimestamp = getSlotTimestamp(0);
+         mLastTimestamp = readLastTimestamp();
+      }//try
+      catch (IOException | RuntimeException ex)
+      {
+         mChannel.close();
+         throw ex;
+      }//catch
+   }//MappedScanFile
+
+   @Override
+   public boolean isEmpty()
+   {
+      return mFirstTimestamp == Long.MAX_VALUE;
+   }//isEmpty
+
+   @Override
+   public int getFirstTimestamp()
+   {
+      return (int) mFirstTimestamp;
+   }//getFirstTimestamp
+
+   @Override
+   public int getLastTimestamp()
+   {
+      return (int) mLastTimestamp;
+   }//getLastTimestamp
+
+   public long getFileSize()
+   {
+      return mFileSize;
+   }//getFileSize
+
+   /**
+    * Returns exactly the samples from fromTimestamp up to but excluding
+    * toTimestamp
+    */
+   @Override
+   public RssTimeSeries getWindow(int fromTimestamp, int toTimestamp) throws IOException
+   {
+      //The window's rows lie between the last slot before it and the first slot after it
+      int first_slot = Math.max(0, lowerBoundSlot(fromTimestamp) - 1);
+      int end_slot = lowerBoundSlot(toTimestamp);
+      long start = mIndexRowStarts[first_slot];
+      long end = (end_slot < mIndexRowStarts.length) ? mIndexRowStarts[end_slot] : mFileSize;
+      mScanFileReader.beginWindow(mRSSColumn, mTimestampColumn, fromTimestamp, toTimestamp);
+      parseRows(start, end);
+      return mScanFileReader.finish();
+   }//getWindow
+
+   /**
+    * Finds the access points of the file with a keys-only pass over every
+    * row. Rows without an SSID, or every row of a file without an SSID
+    * column, are listed under the empty SSID.
+    *
+    * @return the SSIDs in order of first appearance, empty if the file has no
+    *         good rows
+    * @throws IOException if the file can't be read
+    */
+   public ArrayList<String> readSSIDs() throws IOException
+   {
+      mScanFileReader.beginKeys(mRSSColumn, mTimestampColumn, mSSIDColumn);
+      parseRows(mDataStart, mFileSize);
+      return new ArrayList<>(mScanFileReader.finishGroups().keySet());
+   }//readSSIDs
+
+   /**
+    * Returns the samples of one access point of the file. The file stays
+    * open until every source handed out is closed.
+    *
+    * @param ssid the access point SSID, as returned by readSSIDs
+    * @return the access point's samples
+    */
+   public AccessPointSamples getAccessPoint(String ssid)
+   {
+      ++mNumberOfOpenAccessPoints;
+      return new AccessPointSamples(ssid);
+   }//getAccessPoint
+
+   /**
+    * Returns exactly one access point's samples from fromTimestamp up to but
+    * excluding toTimestamp. The window is split by SSID once and kept for
+    * the other access points.
+    */
+   private RssTimeSeries getAccessPointWindow(String ssid, int fromTimestamp, int toTimestamp) throws IOException
+   {
+      if (mGroups == null || mGroupsFromTimestamp != fromTimestamp || mGroupsToTimestamp != toTimestamp)
+      {
+         int first_slot = Math.max(0, lowerBoundSlot(fromTimestamp) - 1);
+         int end_slot = lowerBoundSlot(toTimestamp);
+         long start = mIndexRowStarts[first_slot];
+         long end = (end_slot < mIndexRowStarts.length) ? mIndexRowStarts[end_slot] : mFileSize;
+         mScanFileReader.beginWindow(mRSSColumn, mTimestampColumn, mSSIDColumn, fromTimestamp, toTimestamp);
+         parseRows(start, end);
+         mGroups = mScanFileReader.finishGroups();
+         mGroupsFromTimestamp = fromTimestamp;
+         mGroupsToTimestamp = toTimestamp;
+      }//if
+      RssTimeSeries series = mGroups.get(ssid);
+      return (series != null) ? series : new RssTimeSeries(new int[0], new byte[0], 0);
+   }//getAccessPointWindow
+
+   @Override
+   public void close() throws IOException
+   {
+      mChannel.close();
+      Arrays.fill(mMappings, null);
+      mGroups = null;
+   }//close
+
+   /**
+    * Feeds the rows between two offsets to the reader, a block at a time
+    */
+   private void parseRows(long start, long end) throws IOException
+   {
+      byte[] block = mScanFileReader.mReadBuffer;
+      for (long position = start; position < end;)
+      {
+         int length = (int) Math.min(block.length, end - position);
+         length = copy(position, block, length);
+         mScanFileReader.parse(block, 0, length);
+         position += length;
+      }//for
+   }//parseRows
+
+   /**
+    * Returns the first slot whose row is at or after a timestamp, loading
+    * the probed slots
+    */
+   private int lowerBoundSlot(long timestamp) throws IOException
+   {
+      int low = 0;
+      int high = mIndexRowStarts.length;
+      while (low < high)
+      {
+         int middle = (low + high) >>> 1;
+         if (getSlotTimestamp(middle) < timestamp)
+         {
+            low = middle + 1;
+         }//if
+         else
+         {
+            high = middle;
+         }//else
+      }//while
+      return low;
+   }//lowerBoundSlot
+
+   /**
+    * Returns the timestamp of a slot's first row, Long.MAX_VALUE if no row
+    * starts in or after the slot's stride
+    */
+   private long getSlotTimestamp(int slot) throws IOException
+   {
+      if (mIndexTimestamps[slot] != UNLOADED)
+      {
+         return mIndexTimestamps[slot];
+      }//if
+      long row_start = mDataStart + (long) slot * INDEX_STRIDE;
+      if (slot > 0)
+      {
+         row_start = Math.min(mFileSize, getNextRowStart(row_start - 1));
+      }//if
+      long timestamp = Long.MAX_VALUE;
+      long position = row_start;
+      while (position < mFileSize)
+      {
+         long row_timestamp = readRowTimestamp(position);
+         if (row_timestamp != UNLOADED)
+         {
+            timestamp = row_timestamp;
+            break;
+         }//if
+         //Malformed or blank row, the slot is keyed by the next good one
+         position = getNextRowStart(position);
+      }//while
+      mIndexRowStarts[slot] = row_start;
+      mIndexTimestamps[slot] = timestamp;
+      return timestamp;
+   }//getSlotTimestamp
+
+   /**
+    * Returns the offset just past the first newline at or after a position
+    */
+   private long getNextRowStart(long position) throws IOException
+   {
+      while (position < mFileSize && byteAt(position) != '\n')
+      {
+         ++position;
+      }//while
+      return position + 1;
+   }//getNextRowStart
+
+   /**
+    * Parses the timestamp of the row starting at a position
+    *
+    * @return the timestamp, UNLOADED if the row has none
+    */
+   private long readRowTimestamp(long position) throws IOException
+   {
+      int column = 0;
+      boolean in_quotes = false;
+      long value = 0;
+      boolean negative = false;
+      boolean has_digits = false;
+      boolean valid = true;
+      for (; position < mFileSize; ++position)
+      {
+         byte b = byteAt(position);
+         if (b == '"')
+         {
+            in_quotes = !in_quotes;
+            continue;
+         }//if
+         if (in_quotes == false && (b == ',' || b == '\n'))
+         {
+            if (column == mTimestampColumn || b == '\n')
+            {
+               break;
+            }//if
+            ++column;
+            continue;
+         }//if
+         if (column != mTimestampColumn)
+         {
+            continue;
+         }//if
+         if (b >= '0' && b <= '9' && value <= Integer.MAX_VALUE)
+         {
+            value = value * 10 + (b - '0');
+            has_digits = true;
+         }//if
+         else if (b == '-' && has_digits == false)
+         {
+            negative = true;
+         }//else if
+         else if (b != ' ' && b != '+' && b != '\r')
+         {
+            valid = false;
+         }//else if
+      }//for
+      if (column != mTimestampColumn || has_digits == false || valid == false || value > Integer.MAX_VALUE)
+      {
+         return UNLOADED;
+      }//if
+      return negative ? -value : value;
+   }//readRowTimestamp
+
+   /**
+    * Returns the timestamp of the last good row, searching back from the end
+    */
+   private long readLastTimestamp() throws IOException
+   {
+      long row_end = mFileSize;
+      while (row_end > mDataStart)
+      {
+         long row_start = row_end - 1;
+         while (row_start > mDataStart && byteAt(row_start - 1) != '\n')
+         {
+            --row_start;
+         }//while
+         long timestamp = readRowTimestamp(row_start);
+         if (timestamp != UNLOADED)
+         {
+            return timestamp;
+         }//if
+         row_end = row_start;
+      }//while
+      return Long.MAX_VALUE;
+   }//readLastTimestamp
+
+   /**
+    * Finds the RSS, Timestamp and SSID columns and the start of the data rows
+    */
+   private void readHeader() throws IOException
+   {
+      byte[] header = new byte[(int) Math.min(MAX_HEADER_LENGTH, mFileSize)];
+      int length = copy(0, header, header.length);
+      int start = 0;
+      if (length >= 3 && header[0] == (byte) 0xEF && header[1] == (byte) 0xBB && header[2] == (byte) 0xBF)
+      {
+         //UTF-8 byte order mark
+         start = 3;
+      }//if
+      int end = start;
+      while (end < length && header[end] != '\n')
+      {
+         ++end;
+      }//while
+      if (end == length && length < mFileSize)
+      {
+         throw new IOException("Scan file header is longer than " + MAX_HEADER_LENGTH + " bytes");
+      }//if
+      if (mScanFileReader.readHeader(header, start, end, Constants.CSV_FILE_RECORD_SSID_COLUMN) == false)
+      {
+         throw new IOException("Scan file has no " + Constants.CSV_FILE_RECORD_RSS_COLUMN + " and "
+                               + Constants.CSV_FILE_RECORD_TIMESTAMP_COLUMN + " columns");
+      }//if
+      mRSSColumn = mScanFileReader.getRSSColumn();
+      mTimestampColumn = mScanFileReader.getTimestampColumn();
+      mSSIDColumn = mScanFileReader.getGroupColumn();
+      mDataStart = Math.min(mFileSize, end + 1);
+   }//readHeader
+
+   /**
+    * Returns the mapped region holding a position, mapping it on first use
+    */
+   private MappedByteBuffer getMapping(long position) throws IOException
+   {
+      int region = (int) (position >>> MAPPING_SHIFT);
+      MappedByteBuffer mapping = mMappings[region];
+      if (mapping == null)
+      {
+         long region_start = (long) region << MAPPING_SHIFT;
+         mapping = mChannel.map(FileChannel.MapMode.READ_ONLY, region_start, Math.min(MAPPING_SIZE, mFileSize - region_start));
+         mMappings[region] = mapping;
+      }//if
+      return mapping;
+   }//getMapping
+
+   private byte byteAt(long position) throws IOException
+   {
+      return getMapping(position).get((int) (position & (MAPPING_SIZE - 1)));
+   }//byteAt
+
+   /**
+    * Copies bytes from a position, stopping early at the end of a mapped
+    * region
+    *
+    * @return the number of bytes copied
+    */
+   private int copy(long position, byte[] destination, int length) throws IOException
+   {
+      MappedByteBuffer mapping = getMapping(position);
+      int offset = (int) (position & (MAPPING_SIZE - 1));
+      int copied = Math.min(length, mapping.limit() - offset);
+      ByteBuffer view = mapping.duplicate();
+      view.position(offset);
+      view.get(destination, 0, copied);
+      return copied;
+   }//copy
+}//MappedScanFile
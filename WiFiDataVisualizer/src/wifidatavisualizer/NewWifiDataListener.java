@@ -42,6 +42,7 @@ public interface NewWifiDataListener
       FINGERPRINTING,
       WEIGHTED_CENTROID,
       PATTERN_MATCHING,
+      BAYESIAN,
       DEFAULT
    }//WifiDataType
 
@@ -0,0 +1,41 @@
+/*
+ * Source of one access point's RSS samples by time window
+ */
+package wifidatavisualizer;
+
+import java.io.IOException;
+
+/**
+ * One access point's RSS samples, handed out a time window at a time so a
+ * source need not hold all of them in memory
+ *
+ * @author James Licata
+ */
+public interface RssSampleSource
+{
+   /**
+    * @return true if the source has no samples
+    */
+   public boolean isEmpty();
+
+   /**
+    * @return the earliest sample timestamp in milliseconds
+    */
+   public int getFirstTimestamp();
+
+   /**
+    * @return the latest sample timestamp in milliseconds
+    */
+   public int getLastTimestamp();
+
+   /**
+    * Returns samples covering a time window. Every sample from fromTimestamp
+    * up to but excluding toTimestamp is included, samples outside it may be.
+    *
+    * @param fromTimestamp window start in milliseconds
+    * @param toTimestamp   window end in milliseconds, exclusive
+    * @return the samples in time order
+    * @throws IOException if the samples can't be read
+    */
+   public RssTimeSeries getWindow(int fromTimestamp, int toTimestamp) throws IOException;
+}//RssSampleSource
@@ -0,0 +1,100 @@
+/*
+ * Time ordered RSS samples of one access point held in primitive columns
+ */
+package wifidatavisualizer;
+
+/**
+ * The RSS samples of one access point as two parallel columns, timestamps in
+ * milliseconds strictly increasing and RSS in dBm. Sample windows are found by
+ * binary search instead of through a boxed sorted map.
+ *
+ * @author James Licata
+ */
+public class RssTimeSeries implements RssSampleSource
+{
+   int[] mTimestamps;
+   byte[] mRSS;
+   int mSize;
+
+   /**
+    * Main constructor, the columns are used as is
+    *
+    * @param timestamps strictly increasing timestamps in milliseconds
+    * @param rss        RSS in dBm, one per timestamp
+    * @param size       the number of samples in use
+    */
+   public RssTimeSeries(int[] timestamps, byte[] rss, int size)
+   {
+      mTimestamps = timestamps;
+      mRSS = rss;
+      mSize = size;
+   }//RssTimeSeries
+
+   public int getSize()
+   {
+      return mSize;
+   }//getSize
+
+   @Override
+   public boolean isEmpty()
+   {
+      return mSize == 0;
+   }//isEmpty
+
+   public int getTimestamp(int index)
+   {
+      return mTimestamps[index];
+   }//getTimestamp
+
+   public int getRSS(int index)
+   {
+      return mRSS[index];
+   }//getRSS
+
+   @Override
+   public int getFirstTimestamp()
+   {
+      return mTimestamps[0];
+   }//getFirstTimestamp
+
+   @Override
+   public int getLastTimestamp()
+   {
+      return mTimestamps[mSize - 1];
+   }//getLastTimestamp
+
+   /**
+    * The whole series is already in memory, so every window is the series
+    * itself
+    */
+   @Override
+   public RssTimeSeries getWindow(int fromTimestamp, int toTimestamp)
+   {
+      return this;
+   }//getWindow
+
+   /**
+    * Returns the index of the first sample at or after a timestamp
+    *
+    * @param timestamp the timestamp in milliseconds
+    * @return the sample index, the size if every sample is earlier
+    */
+   public int lowerBound(int timestamp)
+   {
+      int low = 0;
+      int high = mSize;
+      while (low < high)
+      {
+         int middle = (low + high) >>> 1;
+         if (mTimestamps[middle] < timestamp)
+         {
+            low = middle + 1;
+         }//if
+         else
+         {
+            high = middle;
+         }//else
+      }//while
+      return low;
+   }//lowerBound
+}//RssTimeSeries
@@ -0,0 +1,231 @@
+/*
+ * Sliding window aggregation of one access point's RSS samples
+ */
+package wifidatavisualizer;
+
+import java.util.Arrays;
+
+/**
+ * Aggregates the RSS samples of one access point that are in a sliding time
+ * window. Samples enter at the new end of the window and leave from the old
+ * end, so they are held in a ring buffer in arrival order.
+ *
+ * MEAN keeps a running sum and MAX a monotonic queue, both O(1) amortized
+ * per sample. MEDIAN keeps a Fenwick tree over the 256 possible byte RSS
+ * values, so an update or a median query is O(log 256) however wide the
+ * window is. EMA smooths every sample as it enters, starting over from a
+ * sample that enters an empty window.
+ *
+ * @author James Licata
+ */
+public class RssWindowAggregator
+{
+   /**
+    * Aggregate of the samples in the window
+    */
+   public enum Mode
+   {
+      MEDIAN, MEAN, MAX, EMA
+   }//Mode
+
+   //RSS values are bytes, shifted by RSS_OFFSET into histogram bins
+   final static int RSS_OFFSET = 128;
+   final static int NUMBER_OF_RSS_VALUES = 256;
+   final static int INITIAL_CAPACITY = 8;
+
+   Mode mMode;
+   double mEmaAlpha;
+
+   //Samples in the window, oldest at mHead
+   int[] mRing = new int[INITIAL_CAPACITY];
+   int mHead = 0;
+   int mSize = 0;
+
+   //MEAN
+   long mSum = 0;
+
+   //MAX, non-increasing queue of window values, front at mMaxHead
+   int[] mMaxQueue;
+   int mMaxHead = 0;
+   int mMaxSize = 0;
+
+   //MEDIAN, Fenwick tree of the RSS histogram, 1-based
+   int[] mFenwickTree;
+
+   //EMA
+   double mEma = 0.0;
+
+   /**
+    * Main constructor
+    *
+    * @param mode     the aggregate to keep
+    * @param emaAlpha weight of a new sample in EMA mode, in (0, 1]
+    */
+   public RssWindowAggregator(Mode mode, double emaAlpha)
+   {
+      mMode = mode;
+      mEmaAlpha = emaAlpha;
+      if (mode == Mode.MAX)
+      {
+         mMaxQueue = new int[INITIAL_CAPACITY];
+      }//if
+      else if (mode == Mode.MEDIAN)
+      {
+         mFenwickTree = new int[NUMBER_OF_RSS_VALUES + 1];
+      }//else if
+   }//RssWindowAggregator
+
+   public Mode getMode()
+   {
+      return mMode;
+   }//getMode
+
+   /**
+    * @return the number of samples in the window
+    */
+   public int getSize()
+   {
+      return mSize;
+   }//getSize
+
+   /**
+    * Adds a sample entering the window
+    *
+    * @param rss the RSS in dBm
+    */
+   public void add(int rss)
+   {
+      if (mSize == mRing.length)
+      {
+         mRing = grow(mRing, mHead, mSize);
+         mHead = 0;
+      }//if
+      mRing[(mHead + mSize) % mRing.length] = rss;
+      ++mSize;
+      switch (mMode)
+      {
+         case MEAN:
+            mSum += rss;
+            break;
+         case MAX:
+            while (mMaxSize > 0 && mMaxQueue[(mMaxHead + mMaxSize - 1) % mMaxQueue.length] < rss)
+            {
+               --mMaxSize;
+            }//while
+            if (mMaxSize == mMaxQueue.length)
+            {
+               mMaxQueue = grow(mMaxQueue, mMaxHead, mMaxSize);
+               mMaxHead = 0;
+            }//if
+            mMaxQueue[(mMaxHead + mMaxSize) % mMaxQueue.length] = rss;
+            ++mMaxSize;
+            break;
+         case MEDIAN:
+            updateHistogram(rss, 1);
+            break;
+         case EMA:
+            mEma = (mSize == 1) ? rss : mEmaAlpha * rss + (1.0 - mEmaAlpha) * mEma;
+            break;
+      }//switch
+   }//add
+
+   /**
+    * Removes the oldest sample, which has left the window
+    */
+   public void removeOldest()
+   {
+      int rss = mRing[mHead];
+      mHead = (mHead + 1) % mRing.length;
+      --mSize;
+      switch (mMode)
+      {
+         case MEAN:
+            mSum -= rss;
+            break;
+         case MAX:
+            if (mMaxQueue[mMaxHead] == rss)
+            {
+               mMaxHead = (mMaxHead + 1) % mMaxQueue.length;
+               --mMaxSize;
+            }//if
+            break;
+         case MEDIAN:
+            updateHistogram(rss, -1);
+            break;
+         case EMA:
+            break;
+      }//switch
+   }//removeOldest
+
+   /**
+    * Empties the window
+    */
+   public void clear()
+   {
+      while (mSize > 0)
+      {
+         removeOldest();
+      }//while
+   }//clear
+
+   /**
+    * Returns the aggregate of the samples in the window, the upper middle
+    * sample for a median of an even count
+    *
+    * @return the aggregated RSS in dBm, 0 if the window is empty
+    */
+   public int getValue()
+   {
+      if (mSize == 0)
+      {
+         return 0;
+      }//if
+      switch (mMode)
+      {
+         case MEAN:
+            return (int) Math.round((double) mSum / mSize);
+         case MAX:
+            return mMaxQueue[mMaxHead];
+         case MEDIAN:
+            return findRank(mSize / 2) - RSS_OFFSET;
+         default:
+            return (int) Math.round(mEma);
+      }//switch
+   }//getValue
+
+   private void updateHistogram(int rss, int count)
+   {
+      for (int i = rss + RSS_OFFSET + 1; i <= NUMBER_OF_RSS_VALUES; i += i & -i)
+      {
+         mFenwickTree[i] += count;
+      }//for
+   }//updateHistogram
+
+   /**
+    * Returns the histogram bin holding the sample of a rank, 0 for the lowest
+    */
+   private int findRank(int rank)
+   {
+      int bin = 0;
+      int remaining = rank;
+      for (int step = NUMBER_OF_RSS_VALUES; step > 0; step >>= 1)
+      {
+         if (bin + step <= NUMBER_OF_RSS_VALUES && mFenwickTree[bin + step] <= remaining)
+         {
+            bin += step;
+            remaining -= mFenwickTree[bin];
+         }//if
+      }//for
+      return bin;
+   }//findRank
+
+   private static int[] grow(int[] ring, int head, int size)
+   {
+      int[] grown = Arrays.copyOf(ring, ring.length * 2);
+      for (int i = 0; i < size; ++i)
+      {
+         grown[i] = ring[(head + i) % ring.length];
+      }//for
+      return grown;
+   }//grow
+}//RssWindowAggregator
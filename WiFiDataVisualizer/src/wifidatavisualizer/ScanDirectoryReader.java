@@ -0,0 +1,314 @@
+/*
+ * Discovers and parses the scan files of a capture session in parallel
+ */
+package wifidatavisualizer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads the scan files of a capture session into an AccessPointScanSet. Any
+ * number of access points is found, each CSV file with RSS and Timestamp
+ * columns may hold one access point or many, and its rows are grouped by
+ * SSID. An access point spread over several files is merged.
+ *
+ * Each file is parsed by a task of its own. The tasks run on the fork/join
+ * pool of the calling task, or the common pool, so a session processed by
+ * the batch engine shares the pool its sessions run on. Every thread keeps
+ * one ScanFileReader.
+ *
+ * Files of at least SCAN_FILE_MEMORY_MAP_THRESHOLD_BYTES are memory-mapped
+ * instead. Only the SSIDs of a mapped file are read up front, in one
+ * keys-only pass, and each of its access points is read from the mapping a
+ * window at a time.
+ *
+ * @author James Licata
+ */
+public class ScanDirectoryReader
+{
+   //Longest header line read when checking for a scan file
+   final static int MAX_HEADER_LENGTH = 4096;
+
+   //One reader per pool thread, its buffers are reused from file to file
+   static ThreadLocal<ScanFileReader> sScanFileReader = new ThreadLocal<ScanFileReader>()
+   {
+      @Override
+      protected ScanFileReader initialValue()
+      {
+         return new ScanFileReader();
+      }//initialValue
+   };
+
+   /**
+    * Parses one scan file
+    */
+   static class ScanFileTask extends RecursiveAction
+   {
+      private static final long serialVersionUID = 1L;
+
+      File mScanFile;
+      Map<String, RssTimeSeries> mGroups;
+      MappedScanFile mMappedScanFile;
+      ArrayList<String> mMappedSSIDs;
+      IOException mException;
+
+      ScanFileTask(File scanFile)
+      {
+         mScanFile = scanFile;
+      }//ScanFileTask
+
+      @Override
+      protected void compute()
+      {
+         try
+         {
+            if (mScanFile.length() >= Constants.SCAN_FILE_MEMORY_MAP_THRESHOLD_BYTES)
+            {
+               mMappedScanFile = new MappedScanFile(mScanFile);
+               try
+               {
+                  mMappedSSIDs = mMappedScanFile.readSSIDs();
+               }//try
+               catch (IOException | RuntimeException ex)
+               {
+                  mMappedScanFile.close();
+                  mMappedScanFile = null;
+                  throw ex;
+               }//catch
+            }//if
+            else
+            {
+               mGroups = sScanFileReader.get().readGroups(mScanFile, Constants.CSV_FILE_RECORD_SSID_COLUMN);
+            }//else
+         }//try
+         catch (IOException ex)
+         {
+            mException = ex;
+         }//catch
+      }//compute
+   }//ScanFileTask
+
+   /**
+    * Tells whether a file is a scan file, a CSV file whose header has RSS and
+    * Timestamp columns
+    *
+    * @param file the file to check
+    * @return true if the file is a scan file
+    */
+   public static boolean isScanFile(File file)
+   {
+      if (file.isFile() == false || file.getName().endsWith(Constants.DEFAULT_DATA_FILE_EXTENSION) == false)
+      {
+         return false;
+      }//if
+      byte[] header = new byte[MAX_HEADER_LENGTH];
+      int length = 0;
+      try (InputStream input_stream = new FileInputStream(file))
+      {
+         int bytes_read;
+         while (length < header.length && (bytes_read = input_stream.read(header, length, header.length - length)) > 0)
+         {
+            length += bytes_read;
+         }//while
+      }//try
+      catch (IOException ex)
+      {
+         return false;
+      }//catch
+      int end = 0;
+      while (end < length && header[end] != '\n')
+      {
+         ++end;
+      }//while
+      int start = (length >= 3 && header[0] == (byte) 0xEF && header[1] == (byte) 0xBB && header[2] == (byte) 0xBF) ? 3 : 0;
+      return new ScanFileReader().readHeader(header, start, end);
+   }//isScanFile
+
+   /**
+    * Lists the scan files of a directory
+    *
+    * @param directory the capture session directory
+    * @return the scan files in name order, empty if there are none
+    */
+   public static File[] listScanFiles(File directory)
+   {
+      File[] files = directory.listFiles(ScanDirectoryReader::isScanFile);
+      if (files == null)
+      {
+         return new File[0];
+      }//if
+      Arrays.sort(files);
+      return files;
+   }//listScanFiles
+
+   /**
+    * Reads every scan file of a directory
+    *
+    * @param directory the capture session directory
+    * @return the samples of every access point found
+    * @throws IOException if a scan file can't be read
+    */
+   public static AccessPointScanSet read(File directory) throws IOException
+   {
+      return read(listScanFiles(directory));
+   }//read
+
+   /**
+    * Reads scan files, one task per file
+    *
+    * @param scanFiles the scan files
+    * @return the samples of every access point found
+    * @throws IOException if a scan file can't be read
+    */
+   public static AccessPointScanSet read(File[] scanFiles) throws IOException
+   {
+      ArrayList<ScanFileTask> tasks = new ArrayList<>(scanFiles.length);
+      for (File scan_file : scanFiles)
+      {
+         tasks.add(new ScanFileTask(scan_file));
+      }//for
+      ForkJoinTask.invokeAll(tasks);
+
+      //Merge by SSID, a TreeMap gives the ordinals in SSID order
+      TreeMap<String, RssSampleSource> access_points = new TreeMap<>();
+      IOException first_exception = null;
+      for (ScanFileTask task : tasks)
+      {
+         if (task.mException != null)
+         {
+            if (first_exception == null)
+            {
+               first_exception = task.mException;
+            }//if
+         }//if
+         else if (task.mMappedScanFile != null)
+         {
+            addMappedAccessPoints(access_points, task);
+         }//else if
+         else
+         {
+            for (Map.Entry<String, RssTimeSeries> group : task.mGroups.entrySet())
+            {
+               addAccessPoint(access_points, getSSID(group.getKey(), task.mScanFile), group.getValue());
+            }//for
+         }//else
+      }//for
+      if (first_exception != null)
+      {
+         AccessPointScanSet.closeSources(access_points.values().toArray(new RssSampleSource[0]));
+         throw first_exception;
+      }//if
+      return new AccessPointScanSet(access_points.keySet().toArray(new String[0]),
+                                    access_points.values().toArray(new RssSampleSource[0]));
+   }//read
+
+   /**
+    * Adds the access points of a memory-mapped file. A file of one access
+    * point is used as it is, a file of several is shared by a source per
+    * access point and closed with the last of them.
+    */
+   private static void addMappedAccessPoints(TreeMap<String, RssSampleSource> accessPoints, ScanFileTask task) throws IOException
+   {
+      if (task.mMappedSSIDs.isEmpty())
+      {
+         task.mMappedScanFile.close();
+      }//if
+      else if (task.mMappedSSIDs.size() == 1)
+      {
+         addAccessPoint(accessPoints, getSSID(task.mMappedSSIDs.get(0), task.mScanFile), task.mMappedScanFile);
+      }//else if
+      else
+      {
+         //Every source is handed out before any is added, a duplicate closed on the way can't close the file
+         ArrayList<RssSampleSource> sources = new ArrayList<>(task.mMappedSSIDs.size());
+         for (String ssid : task.mMappedSSIDs)
+         {
+            sources.add(task.mMappedScanFile.getAccessPoint(ssid));
+         }//for
+         for (int ap = 0; ap < sources.size(); ++ap)
+         {
+            addAccessPoint(accessPoints, getSSID(task.mMappedSSIDs.get(ap), task.mScanFile), sources.get(ap));
+         }//for
+      }//else
+   }//addMappedAccessPoints
+
+   private static void addAccessPoint(TreeMap<String, RssSampleSource> accessPoints, String ssid, RssSampleSource samples) throws IOException
+   {
+      RssSampleSource existing_samples = accessPoints.get(ssid);
+      if (existing_samples == null)
+      {
+         accessPoints.put(ssid, samples);
+      }//if
+      else if (existing_samples instanceof RssTimeSeries && samples instanceof RssTimeSeries)
+      {
+         accessPoints.put(ssid, merge((RssTimeSeries) existing_samples, (RssTimeSeries) samples));
+      }//else if
+      else
+      {
+         Logger.getLogger(ScanDirectoryReader.class.getName()).log(Level.WARNING, "{0} is in a memory-mapped scan file and another file, only the first is used", ssid);
+         AccessPointScanSet.closeSources(new RssSampleSource[]
+         {
+            samples
+         });
+      }//else
+   }//addAccessPoint
+
+   /**
+    * Merges two series of one access point. Of a timestamp in both, the
+    * later file's sample wins, as a repeated row does within a file.
+    */
+   private static RssTimeSeries merge(RssTimeSeries first, RssTimeSeries second)
+   {
+      int[] timestamps = new int[first.getSize() + second.getSize()];
+      byte[] rss = new byte[timestamps.length];
+      int size = 0;
+      int i = 0;
+      int j = 0;
+      while (i < first.getSize() || j < second.getSize())
+      {
+         if (j == second.getSize() || (i < first.getSize() && first.getTimestamp(i) < second.getTimestamp(j)))
+         {
+            timestamps[size] = first.getTimestamp(i);
+            rss[size] = (byte) first.getRSS(i);
+            ++i;
+         }//if
+         else
+         {
+            if (i < first.getSize() && first.getTimestamp(i) == second.getTimestamp(j))
+            {
+               ++i;
+            }//if
+            timestamps[size] = second.getTimestamp(j);
+            rss[size] = (byte) second.getRSS(j);
+            ++j;
+         }//else
+         ++size;
+      }//while
+      return new RssTimeSeries(timestamps, rss, size);
+   }//merge
+
+   /**
+    * Rows without an SSID belong to the access point the file is named after
+    */
+   private static String getSSID(String groupKey, File scanFile)
+   {
+      return groupKey.isEmpty() ? getFileStem(scanFile) : groupKey;
+   }//getSSID
+
+   private static String getFileStem(File file)
+   {
+      String name = file.getName();
+      int dot = name.lastIndexOf('.');
+      return (dot > 0) ? name.substring(0, dot) : name;
+   }//getFileStem
+}//ScanDirectoryReader
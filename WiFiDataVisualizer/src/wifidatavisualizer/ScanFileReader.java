@@ -0,0 +1,650 @@
+/*
+ * Byte level reader of the Android application's scan CSV files
+ */
+package wifidatavisualizer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads the scan CSV files written by the Android application,
+ * SSID,Channel,Frequency,MAC,RSS,Timestamp, straight from bytes into an
+ * RssTimeSeries. The RSS and Timestamp columns are found by their header
+ * names and parsed as digits, no field is ever turned into a String and the
+ * other columns are only skipped over. Quoted fields are understood.
+ *
+ * A file holding several access points can be split by its SSID or MAC
+ * column. Rows are matched to their group by the hash and bytes of that
+ * field, and a group's String key is only made once, when it is returned.
+ * A keys-only pass finds the groups without keeping any samples.
+ *
+ * Rows that are already in time order are appended as they are parsed,
+ * otherwise the columns are sorted once at the end. As with a sorted map,
+ * the last row of a repeated timestamp wins. A reader reuses its buffers
+ * from file to file, so keep one per thread. MappedScanFile drives the same
+ * parser over mapped blocks of a file, keeping only one time window.
+ *
+ * @author James Licata
+ */
+public class ScanFileReader
+{
+   final static int READ_BUFFER_SIZE = 1 << 16;
+   final static int INITIAL_CAPACITY = 1024;
+
+   //Longest header name compared, longer header fields can't be RSS or Timestamp
+   final static int MAX_HEADER_FIELD_LENGTH = 64;
+
+   //Longest group key kept, SSIDs are at most 32 bytes and MACs 17
+   final static int MAX_GROUP_KEY_LENGTH = 256;
+
+   final static byte[] RSS_COLUMN_NAME = Constants.CSV_FILE_RECORD_RSS_COLUMN.getBytes(StandardCharsets.US_ASCII);
+   final static byte[] TIMESTAMP_COLUMN_NAME = Constants.CSV_FILE_RECORD_TIMESTAMP_COLUMN.getBytes(StandardCharsets.US_ASCII);
+
+   byte[] mReadBuffer = new byte[READ_BUFFER_SIZE];
+   byte[] mHeaderField = new byte[MAX_HEADER_FIELD_LENGTH];
+
+   //Parsed columns of each group, reused from file to file
+   ArrayList<Column> mGroups = new ArrayList<>();
+   int mNumberOfGroups;
+   int mLastGroup;
+
+   //Rows are only matched to their group, no samples are kept
+   boolean mKeysOnly;
+
+   //Rows outside [mFromTimestamp, mToTimestamp) are skipped
+   long mFromTimestamp;
+   long mToTimestamp;
+   int mNumberOfMalformedRows;
+
+   //Column rows are grouped by, null to keep every row in one group
+   byte[] mGroupColumnName;
+   int mGroupColumn;
+   byte[] mRowGroupKey = new byte[MAX_GROUP_KEY_LENGTH];
+   int mRowGroupKeyLength;
+   int mRowGroupKeyHash;
+
+   //Parser state
+   boolean mInHeader;
+   boolean mInQuotes;
+   boolean mAfterQuote;
+   int mColumn;
+   int mRecordLength;
+   int mHeaderFieldLength;
+   int mRSSColumn;
+   int mTimestampColumn;
+   int mFieldValue;
+   boolean mFieldNegative;
+   boolean mFieldHasSign;
+   boolean mFieldHasDigits;
+   boolean mFieldValid;
+   int mRowRSS;
+   int mRowTimestamp;
+   boolean mRowRSSValid;
+   boolean mRowTimestampValid;
+
+   /**
+    * Timestamp and RSS columns of one group of rows, grown by doubling and
+    * trimmed into the returned series
+    */
+   static class Column
+   {
+      byte[] mKey = new byte[MAX_GROUP_KEY_LENGTH];
+      int mKeyLength;
+      int mKeyHash;
+      int[] mTimestamps = new int[INITIAL_CAPACITY];
+      byte[] mRSS = new byte[INITIAL_CAPACITY];
+      int mSize;
+      boolean mInTimeOrder;
+
+      void clear(byte[] key, int keyLength, int keyHash)
+      {
+         System.arraycopy(key, 0, mKey, 0, keyLength);
+         mKeyLength = keyLength;
+         mKeyHash = keyHash;
+         mSize = 0;
+         mInTimeOrder = true;
+      }//clear
+
+      boolean matches(byte[] key, int keyLength, int keyHash)
+      {
+         if (mKeyHash != keyHash || mKeyLength != keyLength)
+         {
+            return false;
+         }//if
+         for (int i = 0; i < keyLength; ++i)
+         {
+            if (mKey[i] != key[i])
+            {
+               return false;
+            }//if
+         }//for
+         return true;
+      }//matches
+
+      void append(int timestamp, int rss)
+      {
+         if (mSize == mTimestamps.length)
+         {
+            mTimestamps = Arrays.copyOf(mTimestamps, mSize * 2);
+            mRSS = Arrays.copyOf(mRSS, mSize * 2);
+         }//if
+         if (mSize > 0 && mTimestamps[mSize - 1] >= timestamp)
+         {
+            mInTimeOrder = false;
+         }//if
+         mTimestamps[mSize] = timestamp;
+         mRSS[mSize] = (byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, rss));
+         ++mSize;
+      }//append
+
+      RssTimeSeries toSeries()
+      {
+         if (mInTimeOrder == false)
+         {
+            sortByTimestamp();
+         }//if
+         return new RssTimeSeries(Arrays.copyOf(mTimestamps, mSize), Arrays.copyOf(mRSS, mSize), mSize);
+      }//toSeries
+
+      /**
+       * Sorts the columns by timestamp, keeping the last row of a repeated
+       * timestamp. Each row is packed with its row number into one long, so a
+       * primitive sort keeps the file order of equal timestamps.
+       */
+      private void sortByTimestamp()
+      {
+         long[] keys = new long[mSize];
+         for (int i = 0; i < mSize; ++i)
+         {
+            keys[i] = ((long) mTimestamps[i] << 32) | i;
+         }//for
+         Arrays.sort(keys);
+         byte[] rss = Arrays.copyOf(mRSS, mSize);
+         int size = 0;
+         for (int i = 0; i < keys.length; ++i)
+         {
+            int timestamp = (int) (keys[i] >> 32);
+            int row = (int) keys[i];
+            if (size > 0 && mTimestamps[size - 1] == timestamp)
+            {
+               --size;
+            }//if
+            mTimestamps[size] = timestamp;
+            mRSS[size] = rss[row];
+            ++size;
+         }//for
+         mSize = size;
+         mInTimeOrder = true;
+      }//sortByTimestamp
+   }//Column
+
+   /**
+    * Reads a scan file
+    *
+    * @param scanFile the scan CSV file
+    * @return the file's samples in time order
+    * @throws IOException if the file can't be read or has no RSS and
+    *                     Timestamp columns
+    */
+   public RssTimeSeries read(File scanFile) throws IOException
+   {
+      try (InputStream input_stream = new FileInputStream(scanFile))
+      {
+         return read(input_stream);
+      }//try
+   }//read
+
+   /**
+    * Reads scan CSV data from a stream, which is left open
+    *
+    * @param inputStream the scan CSV data
+    * @return the samples in time order
+    * @throws IOException if the stream can't be read or has no RSS and
+    *                     Timestamp columns
+    */
+   public RssTimeSeries read(InputStream inputStream) throws IOException
+   {
+      parseStream(inputStream, null);
+      return getSeries();
+   }//read
+
+   /**
+    * Reads a scan file holding any number of access points, split by the
+    * value of one column
+    *
+    * @param scanFile        the scan CSV file
+    * @param groupColumnName the column to split by, e.g. SSID or MAC
+    * @return each group's samples in time order, in order of first appearance
+    * @throws IOException if the file can't be read or lacks the RSS,
+    *                     Timestamp or group column
+    */
+   public LinkedHashMap<String, RssTimeSeries> readGroups(File scanFile, String groupColumnName) throws IOException
+   {
+      try (InputStream input_stream = new FileInputStream(scanFile))
+      {
+         parseStream(input_stream, groupColumnName.getBytes(StandardCharsets.UTF_8));
+      }//try
+      return getGroups();
+   }//readGroups
+
+   private void parseStream(InputStream inputStream, byte[] groupColumnName) throws IOException
+   {
+      reset(groupColumnName);
+      int bytes_read;
+      boolean first_block = true;
+      while ((bytes_read = inputStream.read(mReadBuffer)) > 0)
+      {
+         int start = 0;
+         if (first_block && bytes_read >= 3 && mReadBuffer[0] == (byte) 0xEF && mReadBuffer[1] == (byte) 0xBB && mReadBuffer[2] == (byte) 0xBF)
+         {
+            //UTF-8 byte order mark
+            start = 3;
+         }//if
+         first_block = false;
+         parse(mReadBuffer, start, bytes_read);
+      }//while
+      completeRead();
+   }//parseStream
+
+   /**
+    * Parses a header line and keeps its RSS and Timestamp column positions
+    *
+    * @return true if both columns were found
+    */
+   boolean readHeader(byte[] buffer, int start, int end)
+   {
+      return readHeader(buffer, start, end, null);
+   }//readHeader
+
+   /**
+    * Parses a header line and keeps its RSS, Timestamp and group column
+    * positions. The group column is optional, getGroupColumn is -1 without it.
+    *
+    * @param groupColumnName the column rows are split by, or null
+    * @return true if the RSS and Timestamp columns were found
+    */
+   boolean readHeader(byte[] buffer, int start, int end, String groupColumnName)
+   {
+      reset((groupColumnName != null) ? groupColumnName.getBytes(StandardCharsets.UTF_8) : null);
+      parse(buffer, start, end);
+      if (mRecordLength > 0)
+      {
+         endField();
+         endRecord();
+      }//if
+      return mInHeader == false && mRSSColumn >= 0 && mTimestampColumn >= 0;
+   }//readHeader
+
+   int getRSSColumn()
+   {
+      return mRSSColumn;
+   }//getRSSColumn
+
+   int getTimestampColumn()
+   {
+      return mTimestampColumn;
+   }//getTimestampColumn
+
+   int getGroupColumn()
+   {
+      return mGroupColumn;
+   }//getGroupColumn
+
+   /**
+    * Starts parsing header-less blocks of data rows, keeping only the rows
+    * from fromTimestamp up to but excluding toTimestamp. Blocks are fed to
+    * parse and the result collected with finish.
+    */
+   void beginWindow(int rssColumn, int timestampColumn, long fromTimestamp, long toTimestamp)
+   {
+      beginWindow(rssColumn, timestampColumn, -1, fromTimestamp, toTimestamp);
+   }//beginWindow
+
+   /**
+    * Starts parsing header-less blocks of data rows split by a column, see
+    * beginWindow. The groups are collected with finishGroups.
+    *
+    * @param groupColumn the column rows are split by, -1 to keep every row in
+    *                    one group
+    */
+   void beginWindow(int rssColumn, int timestampColumn, int groupColumn, long fromTimestamp, long toTimestamp)
+   {
+      reset(null);
+      mInHeader = false;
+      mRSSColumn = rssColumn;
+      mTimestampColumn = timestampColumn;
+      mGroupColumn = groupColumn;
+      mFromTimestamp = fromTimestamp;
+      mToTimestamp = toTimestamp;
+   }//beginWindow
+
+   /**
+    * Starts a keys-only pass over header-less blocks of data rows, which
+    * finds the groups of every good row but keeps none of their samples. The
+    * keys are collected with finishGroups.
+    */
+   void beginKeys(int rssColumn, int timestampColumn, int groupColumn)
+   {
+      beginWindow(rssColumn, timestampColumn, groupColumn, Long.MIN_VALUE, Long.MAX_VALUE);
+      mKeysOnly = true;
+   }//beginKeys
+
+   /**
+    * Completes the last row and returns the parsed samples in time order
+    */
+   RssTimeSeries finish() throws IOException
+   {
+      completeRead();
+      return getSeries();
+   }//finish
+
+   /**
+    * Completes the last row and returns each group's samples in time order,
+    * in order of first appearance. The samples are empty after a keys-only
+    * pass.
+    */
+   LinkedHashMap<String, RssTimeSeries> finishGroups() throws IOException
+   {
+      completeRead();
+      return getGroups();
+   }//finishGroups
+
+   private void completeRead() throws IOException
+   {
+      if (mRecordLength > 0)
+      {
+         endField();
+         endRecord();
+      }//if
+      if (mInHeader || mRSSColumn < 0 || mTimestampColumn < 0)
+      {
+         throw new IOException("Scan file has no " + Constants.CSV_FILE_RECORD_RSS_COLUMN + " and "
+                               + Constants.CSV_FILE_RECORD_TIMESTAMP_COLUMN + " columns");
+      }//if
+      if (mGroupColumnName != null && mGroupColumn < 0)
+      {
+         throw new IOException("Scan file has no " + new String(mGroupColumnName, StandardCharsets.UTF_8) + " column");
+      }//if
+      if (mNumberOfMalformedRows > 0)
+      {
+         Logger.getLogger(ScanFileReader.class.getName()).log(Level.WARNING, "{0} malformed scan rows skipped", mNumberOfMalformedRows);
+      }//if
+   }//completeRead
+
+   /**
+    * Returns the samples of an ungrouped read
+    */
+   private RssTimeSeries getSeries()
+   {
+      if (mNumberOfGroups == 0)
+      {
+         return new RssTimeSeries(new int[0], new byte[0], 0);
+      }//if
+      return mGroups.get(0).toSeries();
+   }//getSeries
+
+   /**
+    * Returns the samples of a grouped read, keyed by the group column value
+    */
+   private LinkedHashMap<String, RssTimeSeries> getGroups()
+   {
+      LinkedHashMap<String, RssTimeSeries> groups = new LinkedHashMap<>();
+      for (int group = 0; group < mNumberOfGroups; ++group)
+      {
+         Column column = mGroups.get(group);
+         groups.put(new String(column.mKey, 0, column.mKeyLength, StandardCharsets.UTF_8), column.toSeries());
+      }//for
+      return groups;
+   }//getGroups
+
+   private void reset(byte[] groupColumnName)
+   {
+      mNumberOfGroups = 0;
+      mLastGroup = -1;
+      mKeysOnly = false;
+      mNumberOfMalformedRows = 0;
+      mFromTimestamp = Long.MIN_VALUE;
+      mToTimestamp = Long.MAX_VALUE;
+      mGroupColumnName = groupColumnName;
+      mGroupColumn = -1;
+      mInHeader = true;
+      mInQuotes = false;
+      mAfterQuote = false;
+      mRSSColumn = -1;
+      mTimestampColumn = -1;
+      startRecord();
+   }//reset
+
+   private void startRecord()
+   {
+      mColumn = 0;
+      mRecordLength = 0;
+      mRowRSSValid = false;
+      mRowTimestampValid = false;
+      mRowGroupKeyLength = 0;
+      mRowGroupKeyHash = 0;
+      startField();
+   }//startRecord
+
+   private void startField()
+   {
+      mHeaderFieldLength = 0;
+      mFieldValue = 0;
+      mFieldNegative = false;
+      mFieldHasSign = false;
+      mFieldHasDigits = false;
+      mFieldValid = true;
+   }//startField
+
+   /**
+    * Runs the parser over a block of bytes. Fields and records may span
+    * blocks.
+    */
+   void parse(byte[] buffer, int start, int end)
+   {
+      for (int i = start; i < end; ++i)
+      {
+         byte b = buffer[i];
+         if (mInQuotes)
+         {
+            if (b == '"')
+            {
+               mInQuotes = false;
+               mAfterQuote = true;
+            }//if
+            else
+            {
+               fieldByte(b);
+            }//else
+            continue;
+         }//if
+         switch (b)
+         {
+            case '"':
+               if (mAfterQuote)
+               {
+                  //Doubled quote inside a quoted field
+                  fieldByte(b);
+               }//if
+               mInQuotes = true;
+               mAfterQuote = false;
+               ++mRecordLength;
+               break;
+            case ',':
+               mAfterQuote = false;
+               endField();
+               ++mColumn;
+               ++mRecordLength;
+               startField();
+               break;
+            case '\n':
+               mAfterQuote = false;
+               if (mRecordLength > 0)
+               {
+                  endField();
+                  endRecord();
+               }//if
+               startRecord();
+               break;
+            case '\r':
+               break;
+            default:
+               mAfterQuote = false;
+               ++mRecordLength;
+               fieldByte(b);
+         }//switch
+      }//for
+   }//parse
+
+   private void fieldByte(byte b)
+   {
+      if (mInHeader)
+      {
+         if (mHeaderFieldLength < MAX_HEADER_FIELD_LENGTH)
+         {
+            mHeaderField[mHeaderFieldLength] = b;
+         }//if
+         ++mHeaderFieldLength;
+      }//if
+      else if (mColumn == mRSSColumn || mColumn == mTimestampColumn)
+      {
+         if (b >= '0' && b <= '9')
+         {
+            int digit = b - '0';
+            if (mFieldValue > (Integer.MAX_VALUE - digit) / 10)
+            {
+               mFieldValid = false;
+            }//if
+            mFieldValue = mFieldValue * 10 + digit;
+            mFieldHasDigits = true;
+         }//if
+         else if ((b == '-' || b == '+') && mFieldHasDigits == false && mFieldHasSign == false)
+         {
+            mFieldNegative = (b == '-');
+            mFieldHasSign = true;
+         }//else if
+         else if (b != ' ')
+         {
+            mFieldValid = false;
+         }//else if
+      }//else if
+      else if (mColumn == mGroupColumn && mRowGroupKeyLength < MAX_GROUP_KEY_LENGTH)
+      {
+         mRowGroupKey[mRowGroupKeyLength] = b;
+         ++mRowGroupKeyLength;
+         mRowGroupKeyHash = 31 * mRowGroupKeyHash + b;
+      }//else if
+   }//fieldByte
+
+   private void endField()
+   {
+      if (mInHeader)
+      {
+         if (matchesHeaderField(RSS_COLUMN_NAME))
+         {
+            mRSSColumn = mColumn;
+         }//if
+         else if (matchesHeaderField(TIMESTAMP_COLUMN_NAME))
+         {
+            mTimestampColumn = mColumn;
+         }//else if
+         else if (mGroupColumnName != null && matchesHeaderField(mGroupColumnName))
+         {
+            mGroupColumn = mColumn;
+         }//else if
+         return;
+      }//if
+      if (mColumn != mRSSColumn && mColumn != mTimestampColumn)
+      {
+         return;
+      }//if
+      boolean valid = mFieldValid && mFieldHasDigits;
+      int value = mFieldNegative ? -mFieldValue : mFieldValue;
+      if (mColumn == mRSSColumn)
+      {
+         mRowRSS = value;
+         mRowRSSValid = valid;
+      }//if
+      else
+      {
+         mRowTimestamp = value;
+         mRowTimestampValid = valid;
+      }//else
+   }//endField
+
+   private boolean matchesHeaderField(byte[] columnName)
+   {
+      if (mHeaderFieldLength != columnName.length)
+      {
+         return false;
+      }//if
+      for (int i = 0; i < columnName.length; ++i)
+      {
+         if (mHeaderField[i] != columnName[i])
+         {
+            return false;
+         }//if
+      }//for
+      return true;
+   }//matchesHeaderField
+
+   private void endRecord()
+   {
+      if (mInHeader)
+      {
+         mInHeader = false;
+         return;
+      }//if
+      if (mRowRSSValid == false || mRowTimestampValid == false)
+      {
+         ++mNumberOfMalformedRows;
+         return;
+      }//if
+      if (mRowTimestamp < mFromTimestamp || mRowTimestamp >= mToTimestamp)
+      {
+         return;
+      }//if
+      Column column = getRowGroup();
+      if (mKeysOnly == false)
+      {
+         column.append(mRowTimestamp, mRowRSS);
+      }//if
+   }//endRecord
+
+   /**
+    * Returns the group of the current row, adding it if it is new. Rows of
+    * one access point tend to come in runs, so the last group is tried first.
+    */
+   private Column getRowGroup()
+   {
+      if (mLastGroup >= 0 && mGroups.get(mLastGroup).matches(mRowGroupKey, mRowGroupKeyLength, mRowGroupKeyHash))
+      {
+         return mGroups.get(mLastGroup);
+      }//if
+      for (int group = 0; group < mNumberOfGroups; ++group)
+      {
+         if (mGroups.get(group).matches(mRowGroupKey, mRowGroupKeyLength, mRowGroupKeyHash))
+         {
+            mLastGroup = group;
+            return mGroups.get(group);
+         }//if
+      }//for
+      if (mNumberOfGroups == mGroups.size())
+      {
+         mGroups.add(new Column());
+      }//if
+      Column column = mGroups.get(mNumberOfGroups);
+      column.clear(mRowGroupKey, mRowGroupKeyLength, mRowGroupKeyHash);
+      mLastGroup = mNumberOfGroups;
+      ++mNumberOfGroups;
+      return column;
+   }//getRowGroup
+}//ScanFileReader
@@ -60,18 +60,14 @@ public class TruthPathDataReader
     */
    public void closeFile()
    {
-      for (int i = 0; i < 4; ++i)
+      try
       {
-         String ssid_id = Constants.ROUTER_PREFIX_SSID + i;
-         try
-         {
-            mTruthPathFileReader.close();
-         }//try
-         catch (IOException ex)
-         {
-            Logger.getLogger(TruthPathDataReader.class.getName()).log(Level.SEVERE, null, ex);
-         }//catch//catch
-      }//for
+         mTruthPathFileReader.close();
+      }//try
+      catch (IOException ex)
+      {
+         Logger.getLogger(TruthPathDataReader.class.getName()).log(Level.SEVERE, null, ex);
+      }//catch
    }//closeFiles
 
    /**
@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.io.Reader;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -47,11 +48,10 @@ public class WifiDataReader
       Reader csv_reader = null;
       try
       {
-         for (int i = 0; i < csvFileList.size(); ++i)
+         for (Map.Entry<String, String> csv_file : csvFileList.entrySet())
          {
-            String ssid_id = Constants.ROUTER_PREFIX_SSID + i;
-            csv_reader = new FileReader(csvFileList.get(ssid_id));
-            mWifiDataCSVFileMap.put(ssid_id, csv_reader);
+            csv_reader = new FileReader(csv_file.getValue());
+            mWifiDataCSVFileMap.put(csv_file.getKey(), csv_reader);
          }//for
       }//try
       catch (FileNotFoundException ex)
@@ -65,12 +65,11 @@ public class WifiDataReader
     */
    public void closeFiles()
    {
-      for (int i = 0; i < 4; ++i)
+      for (Reader csv_reader : mWifiDataCSVFileMap.values())
       {
-         String ssid_id = Constants.ROUTER_PREFIX_SSID + i;
          try
          {
-            mWifiDataCSVFileMap.get(ssid_id).close();
+            csv_reader.close();
          }//try
          catch (IOException ex)
          {
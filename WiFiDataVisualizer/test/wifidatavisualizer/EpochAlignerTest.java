@@ -0,0 +1,384 @@
+/*
+ * Checks the epoch aligner's windows against a brute force reference
+ */
+package wifidatavisualizer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Walks EpochAligner over in-memory and memory-mapped scan sets. In-memory
+ * windows are checked sample by sample against a scan of the whole series,
+ * and a mapped file longer than SCAN_FILE_WINDOW_MILLISECONDS has to give
+ * the same windows as the same file read into memory, across its reloads.
+ *
+ * @author James Licata
+ */
+public class EpochAlignerTest
+{
+   final static String[] SSIDS =
+   {
+      "CiscoLinksysE1200", "CiscoLinksysE1201", "CiscoLinksysE1202"
+   };
+
+   @Rule
+   public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+   @Test
+   public void testWindowEdges() throws IOException
+   {
+      //Epochs at 10000, 11000 and 12000, each window from 500 before up to but excluding 500 after
+      AccessPointScanSet scan_set = new AccessPointScanSet(new String[]
+      {
+         "a", "b", "c"
+      }, new RssSampleSource[]
+      {
+         createSeries(new int[]
+         {
+            10000, 12000
+         }, new int[]
+         {
+            -40, -41
+         }),
+         createSeries(new int[]
+         {
+            10499, 10500, 11499, 11500
+         }, new int[]
+         {
+            -50, -51, -52, -53
+         }),
+         createSeries(new int[0], new int[0])
+      });
+      EpochAligner epoch_aligner = new EpochAligner(scan_set, 1000, 1000, RssWindowAggregator.Mode.MAX);
+
+      assertTrue(epoch_aligner.nextEpoch());
+      assertEquals(10000, epoch_aligner.getTimestamp());
+      assertWindowEquals(new int[]
+      {
+         -40
+      }, epoch_aligner, 0);
+      assertWindowEquals(new int[]
+      {
+         -50
+      }, epoch_aligner, 1);
+      assertWindowEquals(new int[0], epoch_aligner, 2);
+
+      assertTrue(epoch_aligner.nextEpoch());
+      assertEquals(11000, epoch_aligner.getTimestamp());
+      assertWindowEquals(new int[0], epoch_aligner, 0);
+      assertWindowEquals(new int[]
+      {
+         -51, -52
+      }, epoch_aligner, 1);
+      assertEquals(-51, epoch_aligner.getAggregatedRSS(1));
+
+      assertTrue(epoch_aligner.nextEpoch());
+      assertEquals(12000, epoch_aligner.getTimestamp());
+      assertWindowEquals(new int[]
+      {
+         -41
+      }, epoch_aligner, 0);
+      assertWindowEquals(new int[]
+      {
+         -53
+      }, epoch_aligner, 1);
+
+      assertFalse(epoch_aligner.nextEpoch());
+      assertFalse(epoch_aligner.nextEpoch());
+   }//testWindowEdges
+
+   @Test
+   public void testOddWindowTrailsByOneMillisecond() throws IOException
+   {
+      AccessPointScanSet scan_set = new AccessPointScanSet(new String[]
+      {
+         "a"
+      }, new RssSampleSource[]
+      {
+         createSeries(new int[]
+         {
+            500, 1000, 1500
+         }, new int[]
+         {
+            -40, -41, -42
+         })
+      });
+      EpochAligner epoch_aligner = new EpochAligner(scan_set, 2000, 1001, RssWindowAggregator.Mode.MEAN);
+      assertTrue(epoch_aligner.nextEpoch());
+      assertEquals(500, epoch_aligner.getTimestamp());
+      assertWindowEquals(new int[]
+      {
+         -40, -41
+      }, epoch_aligner, 0);
+      assertFalse(epoch_aligner.nextEpoch());
+   }//testOddWindowTrailsByOneMillisecond
+
+   @Test
+   public void testMatchesReference() throws IOException
+   {
+      Random random = new Random(1);
+      RssTimeSeries[] series = new RssTimeSeries[SSIDS.length];
+      for (int ap = 0; ap < series.length; ++ap)
+      {
+         int number_of_samples = 200 + random.nextInt(200);
+         int[] timestamps = new int[number_of_samples];
+         int[] rss = new int[number_of_samples];
+         int timestamp = 1000 * ap + random.nextInt(1000);
+         for (int i = 0; i < number_of_samples; ++i)
+         {
+            //Gaps now and then so some windows are empty
+            timestamp += 1 + ((random.nextInt(20) == 0) ? 5000 : random.nextInt(700));
+            timestamps[i] = timestamp;
+            rss[i] = -30 - random.nextInt(70);
+         }//for
+         series[ap] = createSeries(timestamps, rss);
+      }//for
+      AccessPointScanSet scan_set = new AccessPointScanSet(SSIDS, series);
+      for (RssWindowAggregator.Mode mode : new RssWindowAggregator.Mode[]
+      {
+         RssWindowAggregator.Mode.MEDIAN, RssWindowAggregator.Mode.MEAN, RssWindowAggregator.Mode.MAX
+      })
+      {
+         EpochAligner epoch_aligner = new EpochAligner(scan_set, 700, 2500, mode);
+         int number_of_epochs = 0;
+         while (epoch_aligner.nextEpoch())
+         {
+            int timestamp = epoch_aligner.getTimestamp();
+            assertEquals(scan_set.getFirstTimestamp() + 700 * number_of_epochs, timestamp);
+            for (int ap = 0; ap < series.length; ++ap)
+            {
+               int[] expected = getWindowSamples(series[ap], timestamp - 1250, timestamp + 1250);
+               assertWindowEquals(expected, epoch_aligner, ap);
+               assertEquals(mode + " at " + timestamp, getReferenceValue(mode, expected), epoch_aligner.getAggregatedRSS(ap));
+            }//for
+            ++number_of_epochs;
+         }//while
+         //Every epoch before the last sample plus half a window
+         int span = scan_set.getLastTimestamp() + 1250 - scan_set.getFirstTimestamp();
+         assertEquals((span + 699) / 700, number_of_epochs);
+      }//for
+   }//testMatchesReference
+
+   @Test
+   public void testEmptyScanSetHasNoEpochs() throws IOException
+   {
+      AccessPointScanSet scan_set = new AccessPointScanSet(new String[]
+      {
+         "a"
+      }, new RssSampleSource[]
+      {
+         createSeries(new int[0], new int[0])
+      });
+      assertFalse(new EpochAligner(scan_set, 1000, 1000, RssWindowAggregator.Mode.MEDIAN).nextEpoch());
+   }//testEmptyScanSetHasNoEpochs
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testNonPositiveIntervalRejected()
+   {
+      new EpochAligner(new AccessPointScanSet(new String[0], new RssSampleSource[0]), 0, 1000, RssWindowAggregator.Mode.MEDIAN);
+   }//testNonPositiveIntervalRejected
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testNonPositiveWindowRejected()
+   {
+      new EpochAligner(new AccessPointScanSet(new String[0], new RssSampleSource[0]), 1000, -1, RssWindowAggregator.Mode.MEDIAN);
+   }//testNonPositiveWindowRejected
+
+   @Test
+   public void testMappedWindowsMatchInMemory() throws IOException
+   {
+      File scan_file = writeSessionFile("session.csv", 3);
+      LinkedHashMap<String, RssTimeSeries> groups = new ScanFileReader().readGroups(scan_file, "SSID");
+      assertEquals(SSIDS.length, groups.size());
+      RssSampleSource[] in_memory = new RssSampleSource[SSIDS.length];
+      for (int ap = 0; ap < SSIDS.length; ++ap)
+      {
+         in_memory[ap] = groups.get(SSIDS[ap]);
+      }//for
+
+      for (RssWindowAggregator.Mode mode : new RssWindowAggregator.Mode[]
+      {
+         RssWindowAggregator.Mode.MEDIAN, RssWindowAggregator.Mode.MEAN, RssWindowAggregator.Mode.MAX
+      })
+      {
+         try (MappedScanFile mapped_scan_file = new MappedScanFile(scan_file))
+         {
+            assertEquals(groups.keySet(), new HashSet<>(mapped_scan_file.readSSIDs()));
+            RssSampleSource[] mapped = new RssSampleSource[SSIDS.length];
+            for (int ap = 0; ap < SSIDS.length; ++ap)
+            {
+               mapped[ap] = mapped_scan_file.getAccessPoint(SSIDS[ap]);
+            }//for
+            assertEpochsEqual(new AccessPointScanSet(SSIDS, in_memory), new AccessPointScanSet(SSIDS, mapped), mode);
+         }//try
+      }//for
+   }//testMappedWindowsMatchInMemory
+
+   @Test
+   public void testMappedEmaRestartsOnReload() throws IOException
+   {
+      File scan_file = writeSessionFile("ema.csv", 1);
+      try (MappedScanFile mapped_scan_file = new MappedScanFile(scan_file))
+      {
+         AccessPointScanSet scan_set = new AccessPointScanSet(new String[]
+         {
+            SSIDS[0]
+         }, new RssSampleSource[]
+         {
+            mapped_scan_file
+         });
+         EpochAligner epoch_aligner = new EpochAligner(scan_set, 1000, 3000, RssWindowAggregator.Mode.EMA);
+         int first_timestamp = scan_set.getFirstTimestamp();
+         int number_of_reloads = 0;
+         while (epoch_aligner.nextEpoch())
+         {
+            if ((epoch_aligner.getTimestamp() - first_timestamp) % Constants.SCAN_FILE_WINDOW_MILLISECONDS == 0)
+            {
+               //A fresh window smooths only its own samples
+               double ema = 0.0;
+               int number_of_samples = epoch_aligner.getNumberOfSamples(0);
+               for (int i = 0; i < number_of_samples; ++i)
+               {
+                  int rss = epoch_aligner.getRSS(0, i);
+                  ema = (i == 0) ? rss : Constants.RSS_AGGREGATION_EMA_ALPHA * rss + (1.0 - Constants.RSS_AGGREGATION_EMA_ALPHA) * ema;
+               }//for
+               assertTrue(number_of_samples > 1);
+               assertEquals((int) Math.round(ema), epoch_aligner.getAggregatedRSS(0));
+               ++number_of_reloads;
+            }//if
+         }//while
+         assertEquals(3, number_of_reloads);
+      }//try
+   }//testMappedEmaRestartsOnReload
+
+   /**
+    * Walks two scan sets holding the same samples and checks that every
+    * epoch's windows are the same
+    */
+   private static void assertEpochsEqual(AccessPointScanSet expected, AccessPointScanSet actual, RssWindowAggregator.Mode mode) throws IOException
+   {
+      EpochAligner expected_aligner = new EpochAligner(expected, 1000, 3000, mode);
+      EpochAligner actual_aligner = new EpochAligner(actual, 1000, 3000, mode);
+      int number_of_epochs = 0;
+      while (expected_aligner.nextEpoch())
+      {
+         assertTrue(actual_aligner.nextEpoch());
+         assertEquals(expected_aligner.getTimestamp(), actual_aligner.getTimestamp());
+         for (int ap = 0; ap < expected.getNumberOfAccessPoints(); ++ap)
+         {
+            int number_of_samples = expected_aligner.getNumberOfSamples(ap);
+            assertEquals(number_of_samples, actual_aligner.getNumberOfSamples(ap));
+            for (int i = 0; i < number_of_samples; ++i)
+            {
+               assertEquals(expected_aligner.getRSS(ap, i), actual_aligner.getRSS(ap, i));
+            }//for
+            assertEquals(mode + " at " + expected_aligner.getTimestamp(), expected_aligner.getAggregatedRSS(ap), actual_aligner.getAggregatedRSS(ap));
+         }//for
+         ++number_of_epochs;
+      }//while
+      assertFalse(actual_aligner.nextEpoch());
+      //The session spans more than two SCAN_FILE_WINDOW_MILLISECONDS loads
+      assertTrue(number_of_epochs * 1000L > 2L * Constants.SCAN_FILE_WINDOW_MILLISECONDS);
+   }//assertEpochsEqual
+
+   /**
+    * Writes a time ordered scan file of 25 minutes, rows of the first
+    * numberOfAccessPoints SSIDs interleaved
+    */
+   private File writeSessionFile(String name, int numberOfAccessPoints) throws IOException
+   {
+      Random random = new Random(numberOfAccessPoints);
+      StringBuilder contents = new StringBuilder("SSID,Channel,Frequency,MAC,RSS,Timestamp\n");
+      int first_timestamp = 1000000;
+      for (int timestamp = first_timestamp; timestamp < first_timestamp + 25 * 60 * 1000; timestamp += 1 + random.nextInt(300))
+      {
+         contents.append(SSIDS[random.nextInt(numberOfAccessPoints)]).append(",6,2437,c8:b3:73:1f:b4:b6,")
+                 .append(-30 - random.nextInt(70)).append(',').append(timestamp).append('\n');
+      }//for
+      File scan_file = new File(mTemporaryFolder.getRoot(), name);
+      try (OutputStream output_stream = new FileOutputStream(scan_file))
+      {
+         output_stream.write(contents.toString().getBytes(StandardCharsets.UTF_8));
+      }//try
+      return scan_file;
+   }//writeSessionFile
+
+   private static RssTimeSeries createSeries(int[] timestamps, int[] rss)
+   {
+      byte[] rss_bytes = new byte[rss.length];
+      for (int i = 0; i < rss.length; ++i)
+      {
+         rss_bytes[i] = (byte) rss[i];
+      }//for
+      return new RssTimeSeries(timestamps, rss_bytes, timestamps.length);
+   }//createSeries
+
+   /**
+    * Returns the RSS of the samples from fromTimestamp up to but excluding
+    * toTimestamp, by scanning the whole series
+    */
+   private static int[] getWindowSamples(RssTimeSeries series, int fromTimestamp, int toTimestamp)
+   {
+      ArrayList<Integer> samples = new ArrayList<>();
+      for (int i = 0; i < series.getSize(); ++i)
+      {
+         if (series.getTimestamp(i) >= fromTimestamp && series.getTimestamp(i) < toTimestamp)
+         {
+            samples.add(series.getRSS(i));
+         }//if
+      }//for
+      int[] rss = new int[samples.size()];
+      for (int i = 0; i < rss.length; ++i)
+      {
+         rss[i] = samples.get(i);
+      }//for
+      return rss;
+   }//getWindowSamples
+
+   private static int getReferenceValue(RssWindowAggregator.Mode mode, int[] samples)
+   {
+      if (samples.length == 0)
+      {
+         return 0;
+      }//if
+      int[] sorted = samples.clone();
+      Arrays.sort(sorted);
+      switch (mode)
+      {
+         case MEAN:
+            long sum = 0;
+            for (int rss : samples)
+            {
+               sum += rss;
+            }//for
+            return (int) Math.round((double) sum / samples.length);
+         case MAX:
+            return sorted[sorted.length - 1];
+         default:
+            return sorted[sorted.length / 2];
+      }//switch
+   }//getReferenceValue
+
+   private static void assertWindowEquals(int[] expected, EpochAligner epochAligner, int accessPointOrdinal)
+   {
+      assertEquals(expected.length, epochAligner.getNumberOfSamples(accessPointOrdinal));
+      for (int i = 0; i < expected.length; ++i)
+      {
+         assertEquals(expected[i], epochAligner.getRSS(accessPointOrdinal, i));
+      }//for
+   }//assertWindowEquals
+}//EpochAlignerTest
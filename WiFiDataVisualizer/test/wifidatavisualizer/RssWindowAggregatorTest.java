@@ -0,0 +1,191 @@
+/*
+ * Checks the sliding window RSS aggregates against a brute force reference
+ */
+package wifidatavisualizer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Drives RssWindowAggregator with random add and remove sequences and checks
+ * every aggregate against one recomputed from a plain copy of the window.
+ * Windows grow well past the initial ring capacity, so the ring and the MAX
+ * queue are checked across their growth too.
+ *
+ * @author James Licata
+ */
+public class RssWindowAggregatorTest
+{
+   final static double EMA_ALPHA = 0.3;
+
+   @Test
+   public void testMedianMatchesReference()
+   {
+      checkRandomSequence(RssWindowAggregator.Mode.MEDIAN, 1);
+   }//testMedianMatchesReference
+
+   @Test
+   public void testMeanMatchesReference()
+   {
+      checkRandomSequence(RssWindowAggregator.Mode.MEAN, 2);
+   }//testMeanMatchesReference
+
+   @Test
+   public void testMaxMatchesReference()
+   {
+      checkRandomSequence(RssWindowAggregator.Mode.MAX, 3);
+   }//testMaxMatchesReference
+
+   @Test
+   public void testEmaMatchesReference()
+   {
+      checkRandomSequence(RssWindowAggregator.Mode.EMA, 4);
+   }//testEmaMatchesReference
+
+   @Test
+   public void testMedianOfEvenCountIsUpperMiddle()
+   {
+      RssWindowAggregator aggregator = new RssWindowAggregator(RssWindowAggregator.Mode.MEDIAN, EMA_ALPHA);
+      aggregator.add(-70);
+      aggregator.add(-40);
+      assertEquals(-40, aggregator.getValue());
+      aggregator.add(-50);
+      assertEquals(-50, aggregator.getValue());
+      aggregator.add(-128);
+      assertEquals(-50, aggregator.getValue());
+      aggregator.removeOldest();
+      aggregator.removeOldest();
+      assertEquals(-50, aggregator.getValue());
+      aggregator.add(127);
+      aggregator.add(127);
+      assertEquals(127, aggregator.getValue());
+   }//testMedianOfEvenCountIsUpperMiddle
+
+   @Test
+   public void testMaxEvictionWithRepeatedValues()
+   {
+      RssWindowAggregator aggregator = new RssWindowAggregator(RssWindowAggregator.Mode.MAX, EMA_ALPHA);
+      int[] samples =
+      {
+         -50, -60, -50, -70, -50, -80
+      };
+      for (int rss : samples)
+      {
+         aggregator.add(rss);
+      }//for
+      //Each -50 keeps the maximum until the last of them has left
+      int[] expected =
+      {
+         -50, -50, -50, -50, -80
+      };
+      for (int i = 0; i < expected.length; ++i)
+      {
+         aggregator.removeOldest();
+         assertEquals(expected[i], aggregator.getValue());
+      }//for
+      aggregator.removeOldest();
+      assertEquals(0, aggregator.getSize());
+      assertEquals(0, aggregator.getValue());
+   }//testMaxEvictionWithRepeatedValues
+
+   @Test
+   public void testEmaKeepsLeftSamplesAndRestartsWhenEmpty()
+   {
+      RssWindowAggregator aggregator = new RssWindowAggregator(RssWindowAggregator.Mode.EMA, 0.5);
+      aggregator.add(-40);
+      aggregator.add(-60);
+      assertEquals(-50, aggregator.getValue());
+      //A sample leaving the window doesn't change the smoothed value
+      aggregator.removeOldest();
+      assertEquals(-50, aggregator.getValue());
+      aggregator.add(-70);
+      assertEquals(-60, aggregator.getValue());
+      aggregator.clear();
+      assertEquals(0, aggregator.getValue());
+      aggregator.add(-90);
+      assertEquals(-90, aggregator.getValue());
+   }//testEmaKeepsLeftSamplesAndRestartsWhenEmpty
+
+   @Test
+   public void testEmptyWindowIsZero()
+   {
+      for (RssWindowAggregator.Mode mode : RssWindowAggregator.Mode.values())
+      {
+         RssWindowAggregator aggregator = new RssWindowAggregator(mode, EMA_ALPHA);
+         assertEquals(0, aggregator.getValue());
+         for (int i = 0; i < 20; ++i)
+         {
+            aggregator.add(-30 - i);
+         }//for
+         aggregator.clear();
+         assertEquals(mode.toString(), 0, aggregator.getSize());
+         assertEquals(mode.toString(), 0, aggregator.getValue());
+      }//for
+   }//testEmptyWindowIsZero
+
+   /**
+    * Adds and removes random samples, emptying the window now and then, and
+    * checks the aggregate after every step
+    */
+   private static void checkRandomSequence(RssWindowAggregator.Mode mode, long seed)
+   {
+      Random random = new Random(seed);
+      RssWindowAggregator aggregator = new RssWindowAggregator(mode, EMA_ALPHA);
+      ArrayDeque<Integer> window = new ArrayDeque<>();
+      double ema = 0.0;
+      for (int step = 0; step < 20000; ++step)
+      {
+         int choice = random.nextInt(100);
+         if (choice == 0)
+         {
+            aggregator.clear();
+            window.clear();
+         }//if
+         else if (window.isEmpty() || (choice < 55 && window.size() < 60))
+         {
+            //Narrow RSS ranges now and then so the window holds repeated values
+            int rss = (random.nextInt(4) == 0) ? -50 - random.nextInt(4) : random.nextInt(256) - 128;
+            aggregator.add(rss);
+            ema = window.isEmpty() ? rss : EMA_ALPHA * rss + (1.0 - EMA_ALPHA) * ema;
+            window.addLast(rss);
+         }//else if
+         else
+         {
+            aggregator.removeOldest();
+            window.removeFirst();
+         }//else
+         assertEquals(window.size(), aggregator.getSize());
+         assertEquals("step " + step, getReferenceValue(mode, window, ema), aggregator.getValue());
+      }//for
+   }//checkRandomSequence
+
+   private static int getReferenceValue(RssWindowAggregator.Mode mode, ArrayDeque<Integer> window, double ema)
+   {
+      if (window.isEmpty())
+      {
+         return 0;
+      }//if
+      switch (mode)
+      {
+         case MEAN:
+            long sum = 0;
+            for (int rss : window)
+            {
+               sum += rss;
+            }//for
+            return (int) Math.round((double) sum / window.size());
+         case MAX:
+            return Collections.max(window);
+         case MEDIAN:
+            ArrayList<Integer> sorted = new ArrayList<>(window);
+            Collections.sort(sorted);
+            return sorted.get(sorted.size() / 2);
+         default:
+            return (int) Math.round(ema);
+      }//switch
+   }//getReferenceValue
+}//RssWindowAggregatorTest
@@ -0,0 +1,318 @@
+/*
+ * Checks the byte level scan file reader against the Commons CSV reader
+ */
+package wifidatavisualizer;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Reads scan files with ScanFileReader and with the Commons CSV based
+ * WifiDataReader, whose sorted map of timestamp to RSS is the reference: rows
+ * in time order, the last row of a repeated timestamp winning.
+ *
+ * @author James Licata
+ */
+public class ScanFileReaderTest
+{
+   final static String HEADER = "SSID,Channel,Frequency,MAC,RSS,Timestamp";
+
+   @Rule
+   public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+   @Test
+   public void testReadMatchesCommonsCsv() throws IOException
+   {
+      Random random = new Random(1);
+      StringBuilder contents = new StringBuilder(HEADER).append('\n');
+      int timestamp = 0;
+      for (int row = 0; row < 5000; ++row)
+      {
+         //Mostly increasing, with repeated and out of order timestamps
+         timestamp += random.nextInt(10) - 2;
+         contents.append("CiscoLinksysE1200,6,2437,c8:b3:73:1f:b4:b6,").append(-30 - random.nextInt(60))
+                 .append(',').append(timestamp).append('\n');
+      }//for
+      File scan_file = writeScanFile("scan.csv", contents.toString());
+      assertSeriesEquals(readWithCommonsCsv(scan_file), new ScanFileReader().read(scan_file));
+   }//testReadMatchesCommonsCsv
+
+   @Test
+   public void testColumnsFoundByHeaderName() throws IOException
+   {
+      File scan_file = writeScanFile("reordered.csv", "Timestamp,MAC,RSS,Extra\r\n"
+                                                      + "1000,c8:b3:73:1f:b4:b6,-40,x\r\n"
+                                                      + "2000,c8:b3:73:1f:b4:b6,-41,y\r\n"
+                                                      + "1500,c8:b3:73:1f:b4:b6,-42,z\r\n");
+      RssTimeSeries series = new ScanFileReader().read(scan_file);
+      assertSeriesEquals(readWithCommonsCsv(scan_file), series);
+      assertSeriesEquals(new int[]
+      {
+         1000, 1500, 2000
+      }, new int[]
+      {
+         -40, -42, -41
+      }, series);
+   }//testColumnsFoundByHeaderName
+
+   @Test
+   public void testByteOrderMarkIsSkipped() throws IOException
+   {
+      byte[] bom = new byte[]
+      {
+         (byte) 0xEF, (byte) 0xBB, (byte) 0xBF
+      };
+      File scan_file = writeScanFile("bom.csv", bom, "RSS,Timestamp\n-50,10\n-51,20\n".getBytes(StandardCharsets.UTF_8));
+      assertSeriesEquals(new int[]
+      {
+         10, 20
+      }, new int[]
+      {
+         -50, -51
+      }, new ScanFileReader().read(scan_file));
+   }//testByteOrderMarkIsSkipped
+
+   @Test
+   public void testQuotedFields() throws IOException
+   {
+      File scan_file = writeScanFile("quoted.csv", HEADER + "\n"
+                                                   + "\"Office, \"\"North\"\"\",6,2437,\"c8:b3\",\"-45\",\"100\"\n"
+                                                   + "\"Line\nbreak\",6,2437,c8:b3,-46,200\n"
+                                                   + "Plain,6,2437,c8:b3,-47,300\n");
+      assertSeriesEquals(readWithCommonsCsv(scan_file), new ScanFileReader().read(scan_file));
+
+      LinkedHashMap<String, RssTimeSeries> groups = new ScanFileReader().readGroups(scan_file, "SSID");
+      assertArrayEquals(new String[]
+      {
+         "Office, \"North\"", "Line\nbreak", "Plain"
+      }, groups.keySet().toArray(new String[0]));
+      assertSeriesEquals(new int[]
+      {
+         100
+      }, new int[]
+      {
+         -45
+      }, groups.get("Office, \"North\""));
+   }//testQuotedFields
+
+   @Test
+   public void testRSSClampedToByte() throws IOException
+   {
+      File scan_file = writeScanFile("clamped.csv", "RSS,Timestamp\n-200,1\n300,2\n-128,3\n127,4\n");
+      assertSeriesEquals(new int[]
+      {
+         1, 2, 3, 4
+      }, new int[]
+      {
+         -128, 127, -128, 127
+      }, new ScanFileReader().read(scan_file));
+   }//testRSSClampedToByte
+
+   @Test
+   public void testOutOfOrderRowsSortedAndLastRowWins() throws IOException
+   {
+      File scan_file = writeScanFile("unsorted.csv", "RSS,Timestamp\n-50,30\n-51,10\n-52,20\n-53,10\n-54,30\n");
+      RssTimeSeries series = new ScanFileReader().read(scan_file);
+      assertSeriesEquals(readWithCommonsCsv(scan_file), series);
+      assertSeriesEquals(new int[]
+      {
+         10, 20, 30
+      }, new int[]
+      {
+         -53, -52, -54
+      }, series);
+   }//testOutOfOrderRowsSortedAndLastRowWins
+
+   @Test
+   public void testMalformedRowsSkippedAndCounted() throws IOException
+   {
+      File scan_file = writeScanFile("malformed.csv", "RSS,Timestamp\n"
+                                                      + "-50,10\n"
+                                                      + "abc,20\n"
+                                                      + "-51\n"
+                                                      + "-52,3x0\n"
+                                                      + "\n"
+                                                      + "-53,,\n"
+                                                      + "- 54,40\n"
+                                                      + "99999999999,50\n"
+                                                      + "-55,60\n");
+      ScanFileReader scan_file_reader = new ScanFileReader();
+      RssTimeSeries series = scan_file_reader.read(scan_file);
+      assertSeriesEquals(new int[]
+      {
+         10, 40, 60
+      }, new int[]
+      {
+         -50, -54, -55
+      }, series);
+      //The blank line isn't a row
+      assertEquals(5, scan_file_reader.mNumberOfMalformedRows);
+   }//testMalformedRowsSkippedAndCounted
+
+   @Test
+   public void testMissingColumnsRejected() throws IOException
+   {
+      File scan_file = writeScanFile("no_rss.csv", "SSID,Timestamp\nCisco,10\n");
+      try
+      {
+         new ScanFileReader().read(scan_file);
+         fail("A file without an RSS column was read");
+      }//try
+      catch (IOException ex)
+      {
+      }//catch
+      try
+      {
+         new ScanFileReader().readGroups(writeScanFile("no_mac.csv", "RSS,Timestamp\n-50,10\n"), "MAC");
+         fail("A file without the group column was read");
+      }//try
+      catch (IOException ex)
+      {
+      }//catch
+   }//testMissingColumnsRejected
+
+   @Test
+   public void testReadGroupsMatchesCommonsCsv() throws IOException
+   {
+      String[] ssids =
+      {
+         "CiscoLinksysE1200", "CiscoLinksysE1201", "CiscoLinksysE1202"
+      };
+      Random random = new Random(2);
+      StringBuilder contents = new StringBuilder(HEADER).append("\r\n");
+      for (int row = 0; row < 3000; ++row)
+      {
+         contents.append(ssids[random.nextInt(ssids.length)]).append(",6,2437,c8:b3:73:1f:b4:b6,")
+                 .append(-30 - random.nextInt(60)).append(',').append(random.nextInt(2000)).append("\r\n");
+      }//for
+      File scan_file = writeScanFile("groups.csv", contents.toString());
+      LinkedHashMap<String, RssTimeSeries> groups = new ScanFileReader().readGroups(scan_file, "SSID");
+      assertEquals(ssids.length, groups.size());
+      for (String ssid : ssids)
+      {
+         StringBuilder group_contents = new StringBuilder(HEADER).append("\r\n");
+         for (String line : contents.toString().split("\r\n"))
+         {
+            if (line.startsWith(ssid + ","))
+            {
+               group_contents.append(line).append("\r\n");
+            }//if
+         }//for
+         assertSeriesEquals(readWithCommonsCsv(writeScanFile(ssid + ".csv", group_contents.toString())), groups.get(ssid));
+      }//for
+   }//testReadGroupsMatchesCommonsCsv
+
+   @Test
+   public void testGroupKeyLimit() throws IOException
+   {
+      StringBuilder prefix = new StringBuilder();
+      for (int i = 0; i < ScanFileReader.MAX_GROUP_KEY_LENGTH; ++i)
+      {
+         prefix.append((char) ('a' + i % 26));
+      }//for
+      //Keys are cut at MAX_GROUP_KEY_LENGTH bytes, so these two SSIDs share a group
+      File scan_file = writeScanFile("long_ssid.csv", "SSID,RSS,Timestamp\n"
+                                                      + prefix + "1,-50,10\n"
+                                                      + prefix + "2,-51,20\n"
+                                                      + "short,-52,30\n");
+      LinkedHashMap<String, RssTimeSeries> groups = new ScanFileReader().readGroups(scan_file, "SSID");
+      assertEquals(2, groups.size());
+      assertSeriesEquals(new int[]
+      {
+         10, 20
+      }, new int[]
+      {
+         -50, -51
+      }, groups.get(prefix.toString()));
+   }//testGroupKeyLimit
+
+   @Test
+   public void testReaderReusedAcrossFiles() throws IOException
+   {
+      ScanFileReader scan_file_reader = new ScanFileReader();
+      scan_file_reader.readGroups(writeScanFile("first.csv", "SSID,RSS,Timestamp\na,-50,10\nb,-51,20\n"), "SSID");
+      RssTimeSeries series = scan_file_reader.read(new ByteArrayInputStream("RSS,Timestamp\n-60,5\n".getBytes(StandardCharsets.UTF_8)));
+      assertSeriesEquals(new int[]
+      {
+         5
+      }, new int[]
+      {
+         -60
+      }, series);
+   }//testReaderReusedAcrossFiles
+
+   /**
+    * Reads a scan file through WifiDataReader into a sorted timestamp to RSS
+    * map
+    */
+   @SuppressWarnings("unchecked")
+   private static TreeMap<Integer, Integer> readWithCommonsCsv(File scanFile)
+   {
+      WifiDataReader wifi_data_reader = new WifiDataReader();
+      HashMap<String, String> csv_file_list = new HashMap<>();
+      csv_file_list.put("scan", scanFile.getPath());
+      wifi_data_reader.openCSVFiles(csv_file_list);
+      Iterable<CSVRecord> records = wifi_data_reader.parseRecords("scan");
+      TreeMap<Integer, Integer> samples = wifi_data_reader.getSortedTreeMap(records);
+      wifi_data_reader.closeFiles();
+      return samples;
+   }//readWithCommonsCsv
+
+   private static void assertSeriesEquals(TreeMap<Integer, Integer> expected, RssTimeSeries actual)
+   {
+      assertEquals(expected.size(), actual.getSize());
+      int index = 0;
+      for (Map.Entry<Integer, Integer> sample : expected.entrySet())
+      {
+         assertEquals((int) sample.getKey(), actual.getTimestamp(index));
+         assertEquals((int) sample.getValue(), actual.getRSS(index));
+         ++index;
+      }//for
+   }//assertSeriesEquals
+
+   private static void assertSeriesEquals(int[] expectedTimestamps, int[] expectedRSS, RssTimeSeries actual)
+   {
+      assertEquals(expectedTimestamps.length, actual.getSize());
+      for (int i = 0; i < expectedTimestamps.length; ++i)
+      {
+         assertEquals(expectedTimestamps[i], actual.getTimestamp(i));
+         assertEquals(expectedRSS[i], actual.getRSS(i));
+      }//for
+   }//assertSeriesEquals
+
+   private File writeScanFile(String name, String contents) throws IOException
+   {
+      return writeScanFile(name, contents.getBytes(StandardCharsets.UTF_8));
+   }//writeScanFile
+
+   private File writeScanFile(String name, byte[]... parts) throws IOException
+   {
+      File scan_file = new File(mTemporaryFolder.getRoot(), name);
+      try (OutputStream output_stream = new FileOutputStream(scan_file))
+      {
+         for (byte[] part : parts)
+         {
+            output_stream.write(part);
+         }//for
+      }//try
+      assertTrue(scan_file.isFile());
+      return scan_file;
+   }//writeScanFile
+}//ScanFileReaderTest